@@ -0,0 +1,110 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.shared.utils.cli.Commandline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Building of jlink arguments: image definitions, module path assembly and validation and
+ * <code>Commandline</code> construction. Each jar is a separate module path entry.</p>
+ * <p>Module paths are memoized by the mojo, the memo is cleared before each invocation, so each invocation
+ * measures a cold build of arguments.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandLineBenchmark {
+    private static final int LAUNCHERS = 3;
+
+    @Param({"100", "500", "1500"})
+    public int jars;
+
+    private Path root;
+    private JLinkMojo mojo;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("jlink-benchmark");
+        List<File> modulePaths = new ArrayList<>();
+        for (Path jar : SyntheticModulePath.create(root.resolve("modules"), jars)) {
+            modulePaths.add(jar.toFile());
+        }
+
+        List<Launcher> launchers = new ArrayList<>();
+        for (int i = 0; i < LAUNCHERS; i++) {
+            Launcher launcher = new Launcher();
+            launcher.setName("app" + i);
+            launcher.setModule("bench.m0");
+            launcher.setMainClass("bench.m0.api.Main" + i);
+            launchers.add(launcher);
+        }
+
+        // Parameters are injected the same way as Maven does
+        mojo = new JLinkMojo();
+        mojo.setLog(NullLog.INSTANCE);
+        inject(mojo, "modulePaths", modulePaths);
+        inject(mojo, "output", root.resolve("image").toFile());
+        inject(mojo, "addModules", Arrays.asList("bench.m0", "java.logging"));
+        inject(mojo, "launchers", launchers);
+        inject(mojo, "noHeaderFiles", true);
+        inject(mojo, "noManPages", true);
+        inject(mojo, "stripDebug", true);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetBuildState() {
+        mojo.resetBuildState();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        FileUtil.deleteDirectory(root);
+    }
+
+    @Benchmark
+    public Map<Image, Commandline> buildCommandLines() throws Exception {
+        return mojo.buildCommandLines(mojo.getImages(), JLinkMojo.EXECUTABLE);
+    }
+
+    private static void inject(Object target, String name, Object value) throws ReflectiveOperationException {
+        for (Class<?> c = target.getClass(); c != null; c = c.getSuperclass()) {
+            try {
+                Field field = c.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException ex) {
+                // Try superclass
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+}
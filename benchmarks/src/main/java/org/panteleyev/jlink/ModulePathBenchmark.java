@@ -0,0 +1,109 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Module path scanning and fingerprinting.</p>
+ * <p>Cold benchmarks start with empty hash index and descriptor cache like the first build, warm benchmarks reuse
+ * them like an incremental build where module path did not change. Session benchmarks reuse the process-wide
+ * cache like repeated builds in Maven daemon, other benchmarks disable it.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModulePathBenchmark {
+    @Param({"100", "500", "1500"})
+    public int jars;
+
+    private Path root;
+    private Path modulePath;
+    private Path cacheDirectory;
+    private FileHashIndex warmIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("jlink-benchmark");
+        modulePath = root.resolve("modules");
+        cacheDirectory = root.resolve("cache");
+        SyntheticModulePath.create(modulePath, jars);
+
+        warmIndex = new FileHashIndex();
+        new ModulePathScanner(cacheDirectory, warmIndex, NullLog.INSTANCE)
+                .scan(Collections.singletonList(modulePath));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(root);
+    }
+
+    @Benchmark
+    public List<Path> listFiles() throws IOException {
+        return FileUtil.listFiles(modulePath);
+    }
+
+    @Benchmark
+    public String fingerprintCold() throws IOException {
+        SessionCache.getInstance().setMaxEntries(0);
+        return new Fingerprint(new FileHashIndex()).addPath("modulePath.0", modulePath).build();
+    }
+
+    @Benchmark
+    public String fingerprintWarm() throws IOException {
+        SessionCache.getInstance().setMaxEntries(0);
+        return new Fingerprint(warmIndex).addPath("modulePath.0", modulePath).build();
+    }
+
+    @Benchmark
+    public String fingerprintSession() throws IOException {
+        SessionCache.getInstance().setMaxEntries(SessionCache.DEFAULT_MAX_ENTRIES);
+        return new Fingerprint(new FileHashIndex()).addPath("modulePath.0", modulePath).build();
+    }
+
+    @Benchmark
+    public List<ModuleInfo> scanCold() throws IOException {
+        SessionCache.getInstance().setMaxEntries(0);
+        return new ModulePathScanner(null, new FileHashIndex(), NullLog.INSTANCE)
+                .scan(Collections.singletonList(modulePath));
+    }
+
+    @Benchmark
+    public List<ModuleInfo> scanWarm() throws IOException {
+        SessionCache.getInstance().setMaxEntries(0);
+        return new ModulePathScanner(cacheDirectory, warmIndex, NullLog.INSTANCE)
+                .scan(Collections.singletonList(modulePath));
+    }
+
+    @Benchmark
+    public List<ModuleInfo> scanSession() throws IOException {
+        SessionCache.getInstance().setMaxEntries(SessionCache.DEFAULT_MAX_ENTRIES);
+        return new ModulePathScanner(cacheDirectory, new FileHashIndex(), NullLog.INSTANCE)
+                .scan(Collections.singletonList(modulePath));
+    }
+}
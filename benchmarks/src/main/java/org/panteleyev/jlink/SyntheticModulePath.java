@@ -0,0 +1,110 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+/**
+ * <p>Generates module path of the given size on local disk.</p>
+ * <p>Even jars are explicit modules, odd jars are automatic modules containing real class files, so the scanner
+ * reads module descriptors as well as class references. Content is generated from the fixed seed, the same module
+ * path is produced for every run.</p>
+ */
+final class SyntheticModulePath {
+    private static final long SEED = 20260101L;
+    private static final int RESOURCES = 4;
+    private static final int MAX_RESOURCE_SIZE = 8 * 1024;
+    // Classes with various constant pools copied into automatic modules
+    private static final List<Class<?>> CLASSES = Arrays.asList(
+            Fingerprint.class, FileHashIndex.class, ModuleGraph.class, ClassFileReader.class);
+
+    private SyntheticModulePath() {
+    }
+
+    /**
+     * Creates jars in the directory.
+     *
+     * @return created jars in module path order
+     */
+    static List<Path> create(Path directory, int count) throws IOException {
+        Files.createDirectories(directory);
+        Random random = new Random(SEED);
+        List<byte[]> classes = new ArrayList<>();
+        for (Class<?> c : CLASSES) {
+            classes.add(classBytes(c));
+        }
+
+        List<Path> jars = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String name = "bench.m" + i;
+            Path jar = directory.resolve("bench-m" + i + "-1.0." + i + ".jar");
+            Manifest manifest = new Manifest();
+            manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+            try (OutputStream out = Files.newOutputStream(jar);
+                 JarOutputStream jarOut = new JarOutputStream(out, manifest)
+            ) {
+                String prefix = name.replace('.', '/');
+                if (i % 2 == 0) {
+                    ModuleInfo info = new ModuleInfo(name);
+                    info.setVersion("1.0." + i);
+                    info.getPackages().addAll(Arrays.asList(name + ".api", name + ".impl"));
+                    if (i > 0) {
+                        info.getRequires().add(new ModuleInfo.Requires("bench.m" + (i - 1), false, false));
+                    }
+                    info.getRequires().add(new ModuleInfo.Requires("java.logging", false, false));
+                    write(jarOut, "module-info.class", ClassFileWriter.writeModuleInfo(info, false));
+                } else {
+                    for (int c = 0; c < classes.size(); c++) {
+                        write(jarOut, prefix + "/impl/Class" + c + ".class", classes.get(c));
+                    }
+                }
+                for (int r = 0; r < RESOURCES; r++) {
+                    byte[] content = new byte[1 + random.nextInt(MAX_RESOURCE_SIZE)];
+                    random.nextBytes(content);
+                    write(jarOut, prefix + "/api/resource" + r + ".bin", content);
+                }
+            }
+            jars.add(jar);
+        }
+        return jars;
+    }
+
+    private static void write(JarOutputStream out, String name, byte[] content) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setTime(0);
+        out.putNextEntry(entry);
+        out.write(content);
+        out.closeEntry();
+    }
+
+    private static byte[] classBytes(Class<?> type) throws IOException {
+        String name = type.getName().replace('.', '/') + ".class";
+        try (InputStream in = type.getClassLoader().getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IOException("Class file " + name + " not found");
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Base class of goals that measure startup time of image launchers. Measurement parameters, their defaults and
+ * properties are the same for all such goals.
+ */
+public abstract class AbstractStartupMojo extends JLinkMojo {
+    /**
+     * <p>Name of the launcher to measure. Defaults to the first launcher of the image.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.startupLauncher")
+    private String startupLauncher;
+
+    /**
+     * <p>Arguments passed to the launcher.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter
+    private List<String> startupArguments;
+
+    /**
+     * <p>If set, startup time is measured until this text appears in the launcher standard output, then the
+     * application is terminated. Otherwise time to exit is measured.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.startupMarker")
+    private String startupMarker;
+
+    /**
+     * <p>Number of launcher runs that are not measured.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.warmupRuns", defaultValue = "3")
+    private int warmupRuns;
+
+    /**
+     * <p>Number of measured launcher runs.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.measuredRuns", defaultValue = "10")
+    private int measuredRuns;
+
+    /**
+     * <p>Timeout of a single launcher run in seconds.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.startupTimeout", defaultValue = "60")
+    private int startupTimeout;
+
+    String getStartupMarker() {
+        return startupMarker;
+    }
+
+    int getWarmupRuns() {
+        return warmupRuns;
+    }
+
+    int getMeasuredRuns() {
+        return Math.max(1, measuredRuns);
+    }
+
+    /**
+     * Returns launcher to measure.
+     *
+     * @throws MojoFailureException if launcher is not defined for the image
+     */
+    Launcher getStartupLauncher(Image image) throws MojoFailureException {
+        return image.getLauncher(startupLauncher);
+    }
+
+    /**
+     * Executes launcher script with startup arguments and measures startup time.
+     */
+    StartupTimer.Statistics measureStartup(Path script) throws IOException, InterruptedException, TimeoutException {
+        List<String> command = new ArrayList<>();
+        command.add(script.toString());
+        if (startupArguments != null) {
+            command.addAll(startupArguments);
+        }
+        return new StartupTimer(command)
+                .marker(startupMarker)
+                .timeout(startupTimeout, TimeUnit.SECONDS)
+                .run(warmupRuns, getMeasuredRuns());
+    }
+}
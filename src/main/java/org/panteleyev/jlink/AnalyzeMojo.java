@@ -0,0 +1,170 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.panteleyev.jlink.StringUtil.isNotEmpty;
+import static org.panteleyev.jlink.StringUtil.parseSize;
+
+/**
+ * <p>Reports size of generated images by module, package and resource type.</p>
+ * <p>Result is compared with the stored baseline. Build fails if size of the image or any module exceeds the
+ * configured budget.</p>
+ */
+@Mojo(name = AnalyzeMojo.GOAL, defaultPhase = LifecyclePhase.NONE)
+public class AnalyzeMojo extends JLinkMojo {
+    public static final String GOAL = "analyze";
+
+    private static final int LOGGED_MODULES = 10;
+
+    /**
+     * <p>Maximum size of each image on disk with optional K, M or G suffix, e.g. 80M.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.imageBudget")
+    private String imageBudget;
+
+    /**
+     * <p>Maximum uncompressed sizes of modules with optional K, M or G suffix.</p>
+     * <pre>
+     * &lt;moduleBudgets&gt;
+     *     &lt;java.desktop&gt;12M&lt;/java.desktop&gt;
+     * &lt;/moduleBudgets&gt;
+     * </pre>
+     *
+     * @since 1.2.0
+     */
+    @Parameter
+    private Map<String, String> moduleBudgets;
+
+    /**
+     * <p>Baseline footprint. Usually stored in the version control system.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(defaultValue = "${project.basedir}/footprint-baseline.json")
+    private File footprintBaseline;
+
+    /**
+     * <p>Footprint report.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(defaultValue = "${project.build.directory}/jlink-footprint.json")
+    private File footprintReport;
+
+    /**
+     * <p>Stores results as the new baseline instead of comparing them with the baseline.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.updateBaseline", defaultValue = "false")
+    private boolean updateBaseline;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (isSkip()) {
+            getLog().info("Skipping plugin execution");
+            return;
+        }
+
+        long maxImageSize = isNotEmpty(imageBudget) ? size("imageBudget", imageBudget) : 0;
+        Map<String, Long> maxModuleSizes = new LinkedHashMap<>();
+        if (moduleBudgets != null) {
+            for (Map.Entry<String, String> entry : moduleBudgets.entrySet()) {
+                maxModuleSizes.put(entry.getKey(), size("moduleBudgets/" + entry.getKey(), entry.getValue()));
+            }
+        }
+
+        Map<String, ImageFootprint> results = new LinkedHashMap<>();
+        Map<String, Object> report = new LinkedHashMap<>();
+        for (Image image : getImages()) {
+            Path output = image.getOutput().toPath().toAbsolutePath();
+            if (!Files.isDirectory(output)) {
+                throw new MojoFailureException("Image " + output + " not found, image must be built first");
+            }
+
+            ImageFootprint footprint;
+            try {
+                footprint = ImageFootprint.analyze(output);
+            } catch (IOException | RuntimeException ex) {
+                throw new MojoExecutionException("Failed to analyze image " + output + ": " + ex.getMessage(), ex);
+            }
+
+            getLog().info("Image " + image.getName() + ":");
+            for (String line : footprint.summary(LOGGED_MODULES)) {
+                getLog().info("  " + line);
+            }
+            results.put(image.getName(), footprint);
+            report.put(image.getName(), footprint.toMap());
+        }
+
+        Path reportFile = footprintReport.toPath();
+        JsonReport.write(reportFile, report);
+        getLog().info("Report: " + reportFile);
+
+        Path baselineFile = footprintBaseline.toPath();
+        if (updateBaseline) {
+            JsonReport.write(baselineFile, report);
+            getLog().info("Baseline updated: " + baselineFile);
+        } else {
+            compareWithBaseline(baselineFile, results);
+        }
+
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, ImageFootprint> entry : results.entrySet()) {
+            for (String violation : entry.getValue().checkBudgets(maxImageSize, maxModuleSizes)) {
+                violations.add(entry.getKey() + ": " + violation);
+            }
+        }
+        if (!violations.isEmpty()) {
+            throw new MojoFailureException("Image size check failed:\n" + String.join("\n", violations));
+        }
+    }
+
+    private void compareWithBaseline(Path baselineFile, Map<String, ImageFootprint> results)
+            throws MojoExecutionException {
+        Optional<Map<?, ?>> baseline = JsonReport.readBaseline(baselineFile, getLog());
+        if (!baseline.isPresent()) {
+            return;
+        }
+
+        for (Map.Entry<String, ImageFootprint> entry : results.entrySet()) {
+            Object imageBaseline = baseline.get().get(entry.getKey());
+            if (!(imageBaseline instanceof Map)) {
+                getLog().info("No baseline for " + entry.getKey());
+                continue;
+            }
+            getLog().info("Changes of " + entry.getKey() + " against baseline:");
+            for (String line : entry.getValue().diff((Map<?, ?>) imageBaseline)) {
+                getLog().info("  " + line);
+            }
+        }
+    }
+
+    private static long size(String name, String value) throws MojoFailureException {
+        try {
+            return parseSize(value);
+        } catch (IllegalArgumentException ex) {
+            throw new MojoFailureException("Invalid " + name + ": " + ex.getMessage());
+        }
+    }
+}
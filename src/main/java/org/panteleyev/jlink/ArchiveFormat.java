@@ -0,0 +1,29 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+public enum ArchiveFormat {
+    /**
+     * Gzip-compressed tar archive, preserves permissions, symbolic and hard links.
+     */
+    TAR_GZ("tar.gz"),
+    /**
+     * Zip archive, preserves permissions.
+     */
+    ZIP("zip");
+
+    private final String extension;
+
+    ArchiveFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Returns file extension that is also used as the attached artifact type.
+     */
+    public String getExtension() {
+        return extension;
+    }
+}
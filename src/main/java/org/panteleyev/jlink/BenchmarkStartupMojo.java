@@ -0,0 +1,181 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>Measures startup time of the launcher of generated images.</p>
+ * <p>Launcher is executed several times, time to exit or time until a marker is printed to the standard output is
+ * measured. Build fails if median startup time exceeds the budget or regresses against the stored baseline.</p>
+ */
+@Mojo(name = BenchmarkStartupMojo.GOAL, defaultPhase = LifecyclePhase.NONE)
+public class BenchmarkStartupMojo extends AbstractStartupMojo {
+    public static final String GOAL = "benchmark-startup";
+
+    /**
+     * <p>Maximum median startup time in milliseconds. Zero means no limit.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.startupBudget", defaultValue = "0")
+    private long startupBudget;
+
+    /**
+     * <p>Baseline results. Usually stored in the version control system.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(defaultValue = "${project.basedir}/startup-baseline.json")
+    private File startupBaseline;
+
+    /**
+     * <p>Maximum allowed increase of median startup time against baseline, percent.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.regressionThreshold", defaultValue = "10")
+    private double regressionThreshold;
+
+    /**
+     * <p>Stores results as the new baseline instead of checking them against the baseline.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.updateBaseline", defaultValue = "false")
+    private boolean updateBaseline;
+
+    /**
+     * <p>Benchmark report.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(defaultValue = "${project.build.directory}/jlink-startup.json")
+    private File startupReport;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (isSkip()) {
+            getLog().info("Skipping plugin execution");
+            return;
+        }
+
+        Map<String, StartupTimer.Statistics> results = new LinkedHashMap<>();
+        Map<String, Object> report = new LinkedHashMap<>();
+        for (Image image : getImages()) {
+            Launcher launcher = getStartupLauncher(image);
+            Path output = image.getOutput().toPath().toAbsolutePath();
+            Path script = launcher.getScript(output);
+            if (!Files.isRegularFile(script)) {
+                throw new MojoFailureException("Launcher " + script + " not found, image must be built first");
+            }
+
+            getLog().info("Measuring startup time of " + image.getName() + " launcher " + launcher.getName()
+                    + ": " + getWarmupRuns() + " warmup and " + getMeasuredRuns() + " measured runs");
+            StartupTimer.Statistics statistics = measure(script);
+            getLog().info("  " + statistics);
+            results.put(image.getName(), statistics);
+
+            Map<String, Object> imageReport = new LinkedHashMap<>();
+            imageReport.put("launcher", launcher.getName());
+            imageReport.put("marker", getStartupMarker());
+            imageReport.put("warmupRuns", getWarmupRuns());
+            imageReport.putAll(statistics.toMap());
+            report.put(image.getName(), imageReport);
+        }
+
+        Path reportFile = startupReport.toPath();
+        JsonReport.write(reportFile, report);
+        getLog().info("Report: " + reportFile);
+
+        Path baselineFile = startupBaseline.toPath();
+        if (updateBaseline) {
+            JsonReport.write(baselineFile, report);
+            getLog().info("Baseline updated: " + baselineFile);
+            return;
+        }
+
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, StartupTimer.Statistics> entry : results.entrySet()) {
+            double median = entry.getValue().getMedian();
+            if (startupBudget > 0 && median > startupBudget) {
+                violations.add(String.format("%s: median startup time %.1f ms exceeds budget %d ms",
+                        entry.getKey(), median, startupBudget));
+            }
+        }
+        violations.addAll(checkBaseline(baselineFile, results, regressionThreshold, getLog()));
+
+        if (!violations.isEmpty()) {
+            throw new MojoFailureException("Startup time check failed:\n" + String.join("\n", violations));
+        }
+    }
+
+    /**
+     * Compares median startup times with the baseline.
+     *
+     * @return regressions exceeding the threshold, empty list if baseline does not exist
+     */
+    static List<String> checkBaseline(
+            Path baselineFile,
+            Map<String, StartupTimer.Statistics> results,
+            double regressionThreshold,
+            Log log
+    ) throws MojoExecutionException {
+        List<String> violations = new ArrayList<>();
+        Optional<Map<?, ?>> baseline = JsonReport.readBaseline(baselineFile, log);
+        if (!baseline.isPresent()) {
+            return violations;
+        }
+
+        for (Map.Entry<String, StartupTimer.Statistics> entry : results.entrySet()) {
+            Object imageBaseline = baseline.get().get(entry.getKey());
+            Object baselineMedian = imageBaseline instanceof Map ? ((Map<?, ?>) imageBaseline).get("median") : null;
+            if (!(baselineMedian instanceof Number)) {
+                log.info("No baseline for " + entry.getKey());
+                continue;
+            }
+
+            double expected = ((Number) baselineMedian).doubleValue();
+            double median = entry.getValue().getMedian();
+            double change = expected > 0 ? (median - expected) * 100 / expected : 0;
+            String message = String.format("%s: median startup time %.1f ms, baseline %.1f ms, change %+.1f%%",
+                    entry.getKey(), median, expected, change);
+            if (change > regressionThreshold) {
+                violations.add(message + " exceeds threshold " + regressionThreshold + "%");
+            } else {
+                log.info(message);
+            }
+        }
+        return violations;
+    }
+
+    private StartupTimer.Statistics measure(Path script) throws MojoExecutionException {
+        try {
+            return measureStartup(script);
+        } catch (IOException | TimeoutException ex) {
+            throw new MojoExecutionException("Failed to measure startup time of " + script + ": "
+                    + ex.getMessage(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted", ex);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.panteleyev.jlink.StringUtil.formatSize;
+
+/**
+ * <p>Durations of build phases, CPU time and input and output sizes of the plugin execution.</p>
+ * <p>Phase durations are accumulated, so a phase executed several times is reported once. Images may be built in
+ * parallel, all methods are thread safe.</p>
+ */
+final class BuildMetrics {
+    // Linux reports child process times in clock ticks, USER_HZ is 100 on all supported architectures
+    private static final long CLOCK_TICKS_PER_SECOND = 100;
+    private static final Path PROC_SELF_STAT = Paths.get("/proc/self/stat");
+
+    /**
+     * Metrics of a single image.
+     */
+    static final class ImageMetrics {
+        private final String name;
+        private final Map<String, Long> phases = new LinkedHashMap<>();
+        private String status;
+        private long time = -1;
+        private long files = -1;
+        private long size = -1;
+
+        private ImageMetrics(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Adds duration of the phase started at the specified time.
+         *
+         * @param phase phase name
+         * @param start start time returned by {@link System#nanoTime()}
+         */
+        synchronized void record(String phase, long start) {
+            phases.merge(phase, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), Long::sum);
+        }
+
+        synchronized void setResult(String status, long time) {
+            this.status = status;
+            this.time = time;
+        }
+
+        /**
+         * Stores number and total size of image files.
+         */
+        synchronized void setImage(Path output) throws IOException {
+            List<Path> list = FileUtil.listFiles(output);
+            long total = 0;
+            for (Path f : list) {
+                total += Files.size(f);
+            }
+            files = list.size();
+            size = total;
+        }
+
+        synchronized Map<String, Long> getPhases() {
+            return new LinkedHashMap<>(phases);
+        }
+
+        synchronized Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("name", name);
+            map.put("status", status);
+            map.put("timeMillis", time);
+            map.put("phases", new LinkedHashMap<>(phases));
+            if (files >= 0) {
+                map.put("files", files);
+                map.put("bytes", size);
+            }
+            return map;
+        }
+
+        synchronized String summary() {
+            StringBuilder b = new StringBuilder(formatPhases(phases));
+            if (files >= 0) {
+                b.append("; image ").append(files).append(" files, ").append(formatSize(size));
+            }
+            return b.toString();
+        }
+    }
+
+    private final long startTime = System.nanoTime();
+    private final long startCpuTime = processCpuTime();
+    private final long startChildCpuTime = childProcessesCpuTime();
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private final Map<String, ImageMetrics> images = new LinkedHashMap<>();
+    private final Map<String, Object> properties = new LinkedHashMap<>();
+    private int inputEntries = -1;
+    private long inputFiles;
+    private long inputSize;
+
+    /**
+     * Adds duration of the plugin phase started at the specified time.
+     *
+     * @param phase phase name
+     * @param start start time returned by {@link System#nanoTime()}
+     */
+    synchronized void record(String phase, long start) {
+        phases.merge(phase, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), Long::sum);
+    }
+
+    /**
+     * Adds arbitrary value to the report.
+     */
+    synchronized void put(String name, Object value) {
+        properties.put(name, value);
+    }
+
+    /**
+     * Returns metrics of the image, creates them if necessary.
+     */
+    synchronized ImageMetrics image(String name) {
+        return images.computeIfAbsent(name, ImageMetrics::new);
+    }
+
+    /**
+     * Stores number of module path entries and total number and size of their files.
+     */
+    synchronized void setInputs(Collection<File> modulePaths) throws IOException {
+        inputEntries = 0;
+        inputFiles = 0;
+        inputSize = 0;
+        for (File entry : modulePaths) {
+            Path path = entry.toPath();
+            if (!Files.exists(path)) {
+                continue;
+            }
+            inputEntries++;
+            List<Path> files = Files.isDirectory(path) ? FileUtil.listFiles(path) : Collections.singletonList(path);
+            for (Path f : files) {
+                inputFiles++;
+                inputSize += Files.size(f);
+            }
+        }
+    }
+
+    synchronized Map<String, Long> getPhases() {
+        return new LinkedHashMap<>(phases);
+    }
+
+    synchronized Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("timestamp", Instant.now().toString());
+        map.putAll(properties);
+        map.put("timeMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        map.put("phases", new LinkedHashMap<>(phases));
+
+        Map<String, Object> cpu = new LinkedHashMap<>();
+        long pluginCpuTime = pluginCpuTime();
+        if (pluginCpuTime >= 0) {
+            cpu.put("pluginMillis", pluginCpuTime);
+        }
+        long childCpuTime = childCpuTime();
+        if (childCpuTime >= 0) {
+            cpu.put("childProcessesMillis", childCpuTime);
+        }
+        map.put("cpu", cpu);
+
+        if (inputEntries >= 0) {
+            Map<String, Object> inputs = new LinkedHashMap<>();
+            inputs.put("modulePathEntries", inputEntries);
+            inputs.put("files", inputFiles);
+            inputs.put("bytes", inputSize);
+            map.put("inputs", inputs);
+        }
+
+        List<Object> imageList = new ArrayList<>();
+        for (ImageMetrics image : images.values()) {
+            imageList.add(image.toMap());
+        }
+        map.put("images", imageList);
+        return map;
+    }
+
+    /**
+     * Writes JSON report and logs summary.
+     */
+    void report(Path file, Log log) throws IOException {
+        Map<String, Object> map = toMap();
+        Json.write(file, map);
+
+        synchronized (this) {
+            log.info("Build metrics: " + formatPhases(phases));
+            StringBuilder b = new StringBuilder();
+            if (inputEntries >= 0) {
+                b.append("inputs ").append(inputEntries).append(" module path entries, ").append(inputFiles)
+                        .append(" files, ").append(formatSize(inputSize));
+            }
+            Map<?, ?> cpu = (Map<?, ?>) map.get("cpu");
+            if (cpu.containsKey("pluginMillis")) {
+                b.append(b.length() == 0 ? "" : "; ").append("CPU plugin ").append(cpu.get("pluginMillis"))
+                        .append(" ms");
+            }
+            if (cpu.containsKey("childProcessesMillis")) {
+                b.append(b.length() == 0 ? "" : "; ").append("CPU child processes ")
+                        .append(cpu.get("childProcessesMillis")).append(" ms");
+            }
+            if (b.length() > 0) {
+                log.info("  " + b);
+            }
+            for (ImageMetrics image : images.values()) {
+                log.info("  " + (images.size() > 1 ? image.name + ": " : "") + image.summary());
+            }
+            log.info("  Report written to " + file);
+        }
+    }
+
+    private long pluginCpuTime() {
+        long cpuTime = processCpuTime();
+        return cpuTime >= 0 && startCpuTime >= 0 ? TimeUnit.NANOSECONDS.toMillis(cpuTime - startCpuTime) : -1;
+    }
+
+    private long childCpuTime() {
+        long cpuTime = childProcessesCpuTime();
+        return cpuTime >= 0 && startChildCpuTime >= 0 ? cpuTime - startChildCpuTime : -1;
+    }
+
+    private static String formatPhases(Map<String, Long> phases) {
+        StringBuilder b = new StringBuilder();
+        for (Map.Entry<String, Long> entry : phases.entrySet()) {
+            if (b.length() > 0) {
+                b.append(", ");
+            }
+            b.append(entry.getKey()).append(" ").append(entry.getValue()).append(" ms");
+        }
+        return b.toString();
+    }
+
+    /**
+     * Returns CPU time of the Maven process in nanoseconds or -1 if it is not supported by the JVM.
+     */
+    static long processCpuTime() {
+        OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+        if (bean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) bean).getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    /**
+     * Returns CPU time of terminated child processes in milliseconds or -1 if it is not available. Supported on
+     * Linux only.
+     */
+    static long childProcessesCpuTime() {
+        if (!Files.isReadable(PROC_SELF_STAT)) {
+            return -1;
+        }
+        try {
+            return parseChildCpuTime(new String(Files.readAllBytes(PROC_SELF_STAT), StandardCharsets.US_ASCII));
+        } catch (IOException | RuntimeException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Extracts cutime and cstime fields of the <code>/proc/[pid]/stat</code> content.
+     *
+     * @return CPU time in milliseconds or -1 if format is unknown
+     */
+    static long parseChildCpuTime(String stat) {
+        // Command name may contain spaces, fields are counted after it
+        int index = stat.lastIndexOf(')');
+        if (index < 0) {
+            return -1;
+        }
+        String[] fields = stat.substring(index + 1).trim().split("\\s+");
+        // cutime and cstime are fields 16 and 17, the first field after the command name is 3
+        if (fields.length < 15) {
+            return -1;
+        }
+        try {
+            long ticks = Long.parseLong(fields[13]) + Long.parseLong(fields[14]);
+            return ticks * 1000 / CLOCK_TICKS_PER_SECOND;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+}
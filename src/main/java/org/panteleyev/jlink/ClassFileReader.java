@@ -0,0 +1,445 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Minimal class file reader. Extracts module descriptor from <code>module-info.class</code> and packages
+ * referenced by ordinary classes.</p>
+ * <p>Plugin runs on Java 8, so <code>java.lang.module</code> API is not available.</p>
+ */
+final class ClassFileReader {
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private static final int ACC_TRANSITIVE = 0x0020;
+    private static final int ACC_STATIC_PHASE = 0x0040;
+
+    private static final int LDC = 0x12;
+    private static final int LDC_W = 0x13;
+    private static final int IINC = 0x84;
+    private static final int TABLESWITCH = 0xAA;
+    private static final int LOOKUPSWITCH = 0xAB;
+    private static final int INVOKEVIRTUAL = 0xB6;
+    private static final int INVOKESTATIC = 0xB8;
+    private static final int WIDE = 0xC4;
+
+    /**
+     * Lengths of fixed size instructions indexed by opcode.
+     */
+    private static final int[] INSTRUCTION_LENGTHS = new int[256];
+
+    static {
+        Arrays.fill(INSTRUCTION_LENGTHS, 1);
+        // bipush, ldc, *load, *store, ret, newarray
+        for (int opcode : new int[]{0x10, 0x12, 0x15, 0x16, 0x17, 0x18, 0x19, 0x36, 0x37, 0x38, 0x39, 0x3A, 0xA9,
+                0xBC}) {
+            INSTRUCTION_LENGTHS[opcode] = 2;
+        }
+        // sipush, ldc_w, ldc2_w, iinc, branches, field and method instructions, new, anewarray, checkcast,
+        // instanceof, ifnull, ifnonnull
+        for (int opcode : new int[]{0x11, 0x13, 0x14, 0x84, 0xBB, 0xBD, 0xC0, 0xC1, 0xC6, 0xC7}) {
+            INSTRUCTION_LENGTHS[opcode] = 3;
+        }
+        for (int opcode = 0x99; opcode <= 0xA8; opcode++) {
+            INSTRUCTION_LENGTHS[opcode] = 3;
+        }
+        for (int opcode = 0xB2; opcode <= 0xB8; opcode++) {
+            INSTRUCTION_LENGTHS[opcode] = 3;
+        }
+        // multianewarray
+        INSTRUCTION_LENGTHS[0xC5] = 4;
+        // invokeinterface, invokedynamic, goto_w, jsr_w
+        for (int opcode : new int[]{0xB9, 0xBA, 0xC8, 0xC9}) {
+            INSTRUCTION_LENGTHS[opcode] = 5;
+        }
+    }
+
+    private static final String SERVICE_LOADER = "java/util/ServiceLoader";
+
+    private static final Pattern DESCRIPTOR_CLASS = Pattern.compile("L([\\w$/]+)[;<]");
+
+    private static final class ConstantPool {
+        private final int[] tags;
+        private final Object[] values;
+
+        ConstantPool(int size) {
+            tags = new int[size];
+            values = new Object[size];
+        }
+
+        String utf8(int index) {
+            return (String) values[index];
+        }
+
+        /**
+         * Returns UTF8 value referenced by Class, Module or Package entry.
+         */
+        String name(int index) {
+            return utf8((Integer) values[index]);
+        }
+    }
+
+    private ClassFileReader() {
+    }
+
+    /**
+     * Reads module descriptor from <code>module-info.class</code> content.
+     *
+     * @throws IOException if content is not a valid module descriptor
+     */
+    static ModuleInfo readModuleInfo(byte[] bytes) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            ConstantPool pool = readHeader(in);
+            // access_flags, this_class, super_class
+            in.readUnsignedShort();
+            in.readUnsignedShort();
+            in.readUnsignedShort();
+            if (in.readUnsignedShort() != 0) {
+                throw new IOException("module-info.class must not have interfaces");
+            }
+            skipMembers(in);
+            skipMembers(in);
+
+            ModuleInfo info = null;
+            List<String> packages = new ArrayList<>();
+            String mainClass = null;
+
+            int attributeCount = in.readUnsignedShort();
+            for (int i = 0; i < attributeCount; i++) {
+                String attributeName = pool.utf8(in.readUnsignedShort());
+                int length = in.readInt();
+                switch (attributeName) {
+                    case "Module":
+                        info = readModuleAttribute(in, pool);
+                        break;
+                    case "ModulePackages":
+                        int count = in.readUnsignedShort();
+                        for (int j = 0; j < count; j++) {
+                            packages.add(dotted(pool.name(in.readUnsignedShort())));
+                        }
+                        break;
+                    case "ModuleMainClass":
+                        mainClass = dotted(pool.name(in.readUnsignedShort()));
+                        break;
+                    default:
+                        skipFully(in, length);
+                        break;
+                }
+            }
+
+            if (info == null) {
+                throw new IOException("Module attribute not found");
+            }
+            info.getPackages().addAll(packages);
+            info.setMainClass(mainClass);
+            return info;
+        } catch (ClassCastException | ArrayIndexOutOfBoundsException | NullPointerException ex) {
+            throw new IOException("Malformed module-info.class", ex);
+        }
+    }
+
+    /**
+     * Adds packages of all classes referenced from class file content to the set. Package names use dots as
+     * separators.
+     *
+     * @param packages referenced packages
+     * @param services service types loaded by {@link java.util.ServiceLoader}, i.e. class literals used in methods
+     *                 that call <code>ServiceLoader</code>
+     */
+    static void addReferencedPackages(byte[] bytes, Set<String> packages, Set<String> services) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            ConstantPool pool = readHeader(in);
+            boolean usesServiceLoader = false;
+            boolean[] stringValues = new boolean[pool.tags.length];
+            for (int i = 1; i < pool.tags.length; i++) {
+                if (pool.tags[i] == CONSTANT_STRING) {
+                    stringValues[(Integer) pool.values[i]] = true;
+                }
+            }
+
+            for (int i = 1; i < pool.tags.length; i++) {
+                if (pool.tags[i] == CONSTANT_CLASS) {
+                    String name = pool.name(i);
+                    usesServiceLoader |= name.equals(SERVICE_LOADER);
+                    if (name.startsWith("[")) {
+                        addDescriptorPackages(name, packages);
+                    } else {
+                        addPackage(name, packages);
+                    }
+                } else if (pool.tags[i] == CONSTANT_UTF8 && !stringValues[i]) {
+                    // Field and method descriptors, signatures and annotation types
+                    String value = pool.utf8(i);
+                    if (value.indexOf(';') >= 0) {
+                        addDescriptorPackages(value, packages);
+                    }
+                }
+            }
+
+            if (usesServiceLoader) {
+                addLoadedServices(in, pool, services);
+            }
+        } catch (ClassCastException | ArrayIndexOutOfBoundsException | NullPointerException ex) {
+            throw new IOException("Malformed class file", ex);
+        }
+    }
+
+    private static void addLoadedServices(DataInputStream in, ConstantPool pool, Set<String> services)
+            throws IOException {
+        in.readUnsignedShort(); // access_flags
+        in.readUnsignedShort(); // this_class
+        in.readUnsignedShort(); // super_class
+        skipFully(in, 2 * in.readUnsignedShort());
+        skipMembers(in);
+
+        int methodCount = in.readUnsignedShort();
+        for (int i = 0; i < methodCount; i++) {
+            skipFully(in, 6);
+            int attributeCount = in.readUnsignedShort();
+            for (int j = 0; j < attributeCount; j++) {
+                String attributeName = pool.utf8(in.readUnsignedShort());
+                int length = in.readInt();
+                if (!"Code".equals(attributeName)) {
+                    skipFully(in, length);
+                    continue;
+                }
+                byte[] attribute = new byte[length];
+                in.readFully(attribute);
+                // max_stack, max_locals, code_length, code
+                addLoadedServices(attribute, 8, readInt(attribute, 4), pool, services);
+            }
+        }
+    }
+
+    /**
+     * Scans method byte code. If the method calls <code>ServiceLoader</code> class literals loaded by the method
+     * are considered services.
+     */
+    private static void addLoadedServices(byte[] code, int offset, int length, ConstantPool pool,
+                                          Set<String> services) {
+        List<String> literals = new ArrayList<>();
+        boolean callsServiceLoader = false;
+        int pc = 0;
+        while (pc < length) {
+            int opcode = code[offset + pc] & 0xFF;
+            int index;
+            switch (opcode) {
+                case LDC:
+                    index = code[offset + pc + 1] & 0xFF;
+                    break;
+                case LDC_W:
+                case INVOKEVIRTUAL:
+                case INVOKESTATIC:
+                    index = ((code[offset + pc + 1] & 0xFF) << 8) | (code[offset + pc + 2] & 0xFF);
+                    break;
+                default:
+                    index = 0;
+                    break;
+            }
+            if ((opcode == LDC || opcode == LDC_W) && pool.tags[index] == CONSTANT_CLASS) {
+                String name = pool.name(index);
+                if (!name.startsWith("[")) {
+                    literals.add(name);
+                }
+            } else if ((opcode == INVOKEVIRTUAL || opcode == INVOKESTATIC) && pool.tags[index] == CONSTANT_METHODREF) {
+                callsServiceLoader |= SERVICE_LOADER.equals(pool.name((Integer) pool.values[index]));
+            }
+            pc += instructionLength(code, offset, pc);
+        }
+
+        if (callsServiceLoader) {
+            for (String name : literals) {
+                services.add(dotted(name));
+            }
+        }
+    }
+
+    private static int instructionLength(byte[] code, int offset, int pc) {
+        int opcode = code[offset + pc] & 0xFF;
+        if (opcode == TABLESWITCH || opcode == LOOKUPSWITCH) {
+            int start = pc + 1 + ((4 - (pc + 1) % 4) % 4);
+            if (opcode == TABLESWITCH) {
+                int low = readInt(code, offset + start + 4);
+                int high = readInt(code, offset + start + 8);
+                return start - pc + 12 + 4 * (high - low + 1);
+            } else {
+                int pairs = readInt(code, offset + start + 4);
+                return start - pc + 8 + 8 * pairs;
+            }
+        }
+        if (opcode == WIDE) {
+            return (code[offset + pc + 1] & 0xFF) == IINC ? 6 : 4;
+        }
+        return INSTRUCTION_LENGTHS[opcode];
+    }
+
+    private static int readInt(byte[] bytes, int index) {
+        return ((bytes[index] & 0xFF) << 24) | ((bytes[index + 1] & 0xFF) << 16)
+                | ((bytes[index + 2] & 0xFF) << 8) | (bytes[index + 3] & 0xFF);
+    }
+
+    private static void addDescriptorPackages(String descriptor, Set<String> packages) {
+        Matcher matcher = DESCRIPTOR_CLASS.matcher(descriptor);
+        while (matcher.find()) {
+            addPackage(matcher.group(1), packages);
+        }
+    }
+
+    private static void addPackage(String internalName, Set<String> packages) {
+        int index = internalName.lastIndexOf('/');
+        if (index > 0) {
+            packages.add(dotted(internalName.substring(0, index)));
+        }
+    }
+
+    private static ModuleInfo readModuleAttribute(DataInputStream in, ConstantPool pool) throws IOException {
+        ModuleInfo info = new ModuleInfo(pool.name(in.readUnsignedShort()));
+        in.readUnsignedShort(); // module_flags
+        int versionIndex = in.readUnsignedShort();
+        if (versionIndex != 0) {
+            info.setVersion(pool.utf8(versionIndex));
+        }
+
+        int requiresCount = in.readUnsignedShort();
+        for (int i = 0; i < requiresCount; i++) {
+            String name = pool.name(in.readUnsignedShort());
+            int flags = in.readUnsignedShort();
+            in.readUnsignedShort(); // requires_version_index
+            info.getRequires().add(new ModuleInfo.Requires(name,
+                    (flags & ACC_TRANSITIVE) != 0, (flags & ACC_STATIC_PHASE) != 0));
+        }
+
+        // exports and opens
+        for (int k = 0; k < 2; k++) {
+            int count = in.readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                info.getPackages().add(dotted(pool.name(in.readUnsignedShort())));
+                in.readUnsignedShort(); // flags
+                skipFully(in, 2 * in.readUnsignedShort());
+            }
+        }
+
+        int usesCount = in.readUnsignedShort();
+        for (int i = 0; i < usesCount; i++) {
+            info.getUses().add(dotted(pool.name(in.readUnsignedShort())));
+        }
+
+        int providesCount = in.readUnsignedShort();
+        for (int i = 0; i < providesCount; i++) {
+            String service = dotted(pool.name(in.readUnsignedShort()));
+            int withCount = in.readUnsignedShort();
+            List<String> providers = new ArrayList<>(withCount);
+            for (int j = 0; j < withCount; j++) {
+                providers.add(dotted(pool.name(in.readUnsignedShort())));
+            }
+            info.getProvides().put(service, providers);
+        }
+        return info;
+    }
+
+    private static ConstantPool readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        in.readUnsignedShort(); // minor_version
+        in.readUnsignedShort(); // major_version
+
+        ConstantPool pool = new ConstantPool(in.readUnsignedShort());
+        for (int i = 1; i < pool.tags.length; i++) {
+            int tag = in.readUnsignedByte();
+            pool.tags[i] = tag;
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    pool.values[i] = in.readUTF();
+                    break;
+                case CONSTANT_CLASS:
+                case CONSTANT_STRING:
+                case CONSTANT_METHOD_TYPE:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    pool.values[i] = in.readUnsignedShort();
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    skipFully(in, 3);
+                    break;
+                case CONSTANT_METHODREF:
+                    // class_index, name_and_type_index
+                    pool.values[i] = in.readUnsignedShort();
+                    in.readUnsignedShort();
+                    break;
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                case CONSTANT_FIELDREF:
+                case CONSTANT_INTERFACE_METHODREF:
+                case CONSTANT_NAME_AND_TYPE:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    skipFully(in, 4);
+                    break;
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    skipFully(in, 8);
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+        return pool;
+    }
+
+    private static void skipMembers(DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            skipFully(in, 6);
+            int attributeCount = in.readUnsignedShort();
+            for (int j = 0; j < attributeCount; j++) {
+                in.readUnsignedShort();
+                skipFully(in, in.readInt());
+            }
+        }
+    }
+
+    private static void skipFully(DataInputStream in, int length) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            int skipped = in.skipBytes(remaining);
+            if (skipped <= 0) {
+                throw new IOException("Unexpected end of class file");
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private static String dotted(String internalName) {
+        return internalName.replace('/', '.');
+    }
+}
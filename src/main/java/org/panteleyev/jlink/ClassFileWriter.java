@@ -0,0 +1,188 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Minimal class file writer that creates <code>module-info.class</code>.</p>
+ * <p>Plugin runs on Java 8, so <code>java.lang.module</code> API is not available.</p>
+ */
+final class ClassFileWriter {
+    private static final int MAGIC = 0xCAFEBABE;
+    // Java 9
+    private static final int MAJOR_VERSION = 53;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private static final int ACC_MODULE = 0x8000;
+    private static final int ACC_OPEN = 0x0020;
+    private static final int ACC_TRANSITIVE = 0x0020;
+    private static final int ACC_STATIC_PHASE = 0x0040;
+    private static final int ACC_MANDATED = 0x8000;
+
+    private static final class ConstantPool {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private int size = 1;
+
+        int utf8(String value) {
+            return indexes.computeIfAbsent(CONSTANT_UTF8 + ":" + value, k -> {
+                try {
+                    out.writeByte(CONSTANT_UTF8);
+                    out.writeUTF(value);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                return size++;
+            });
+        }
+
+        /**
+         * Adds Class, Module or Package entry.
+         */
+        int name(int tag, String value) {
+            String key = tag + ":" + value;
+            Integer index = indexes.get(key);
+            if (index != null) {
+                return index;
+            }
+            int nameIndex = utf8(value);
+            try {
+                out.writeByte(tag);
+                out.writeShort(nameIndex);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            indexes.put(key, size);
+            return size++;
+        }
+
+        int className(String name) {
+            return name(CONSTANT_CLASS, internal(name));
+        }
+    }
+
+    private ClassFileWriter() {
+    }
+
+    /**
+     * Creates <code>module-info.class</code> content. All packages of the module are exported, static and
+     * transitive requires are preserved.
+     *
+     * @param info module descriptor
+     * @param open whether all packages are open for deep reflection
+     */
+    static byte[] writeModuleInfo(ModuleInfo info, boolean open) {
+        ConstantPool pool = new ConstantPool();
+
+        ByteArrayOutputStream module = new ByteArrayOutputStream();
+        ByteArrayOutputStream packages = new ByteArrayOutputStream();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try {
+            DataOutputStream out = new DataOutputStream(module);
+            out.writeShort(pool.name(CONSTANT_MODULE, info.getName()));
+            out.writeShort(open ? ACC_OPEN : 0);
+            out.writeShort(info.getVersion() == null ? 0 : pool.utf8(info.getVersion()));
+
+            boolean declaresBase = false;
+            for (ModuleInfo.Requires r : info.getRequires()) {
+                declaresBase |= r.getName().equals(ModuleInfo.JAVA_BASE);
+            }
+            out.writeShort(info.getRequires().size() + (declaresBase ? 0 : 1));
+            if (!declaresBase) {
+                out.writeShort(pool.name(CONSTANT_MODULE, ModuleInfo.JAVA_BASE));
+                out.writeShort(ACC_MANDATED);
+                out.writeShort(0);
+            }
+            for (ModuleInfo.Requires r : info.getRequires()) {
+                out.writeShort(pool.name(CONSTANT_MODULE, r.getName()));
+                out.writeShort(r.getName().equals(ModuleInfo.JAVA_BASE) ? ACC_MANDATED :
+                        (r.isTransitive() ? ACC_TRANSITIVE : 0) | (r.isStatic() ? ACC_STATIC_PHASE : 0));
+                out.writeShort(0);
+            }
+
+            // exports
+            out.writeShort(info.getPackages().size());
+            for (String p : info.getPackages()) {
+                out.writeShort(pool.name(CONSTANT_PACKAGE, internal(p)));
+                out.writeShort(0);
+                out.writeShort(0);
+            }
+            // opens
+            out.writeShort(0);
+
+            out.writeShort(info.getUses().size());
+            for (String service : info.getUses()) {
+                out.writeShort(pool.className(service));
+            }
+
+            out.writeShort(info.getProvides().size());
+            for (Map.Entry<String, List<String>> entry : info.getProvides().entrySet()) {
+                out.writeShort(pool.className(entry.getKey()));
+                out.writeShort(entry.getValue().size());
+                for (String provider : entry.getValue()) {
+                    out.writeShort(pool.className(provider));
+                }
+            }
+
+            out = new DataOutputStream(packages);
+            out.writeShort(info.getPackages().size());
+            for (String p : info.getPackages()) {
+                out.writeShort(pool.name(CONSTANT_PACKAGE, internal(p)));
+            }
+
+            out = new DataOutputStream(body);
+            out.writeShort(ACC_MODULE);
+            out.writeShort(pool.className("module-info"));
+            out.writeShort(0); // super_class
+            out.writeShort(0); // interfaces
+            out.writeShort(0); // fields
+            out.writeShort(0); // methods
+
+            int attributeCount = info.getMainClass() == null ? 2 : 3;
+            out.writeShort(attributeCount);
+            writeAttribute(out, pool.utf8("Module"), module.toByteArray());
+            writeAttribute(out, pool.utf8("ModulePackages"), packages.toByteArray());
+            if (info.getMainClass() != null) {
+                int mainClass = pool.className(info.getMainClass());
+                writeAttribute(out, pool.utf8("ModuleMainClass"),
+                        new byte[]{(byte) (mainClass >> 8), (byte) mainClass});
+            }
+
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            out = new DataOutputStream(result);
+            out.writeInt(MAGIC);
+            out.writeShort(0);
+            out.writeShort(MAJOR_VERSION);
+            out.writeShort(pool.size);
+            out.write(pool.bytes.toByteArray());
+            out.write(body.toByteArray());
+            return result.toByteArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void writeAttribute(DataOutputStream out, int nameIndex, byte[] content) throws IOException {
+        out.writeShort(nameIndex);
+        out.writeInt(content.length);
+        out.write(content);
+    }
+
+    private static String internal(String name) {
+        return name.replace('.', '/');
+    }
+}
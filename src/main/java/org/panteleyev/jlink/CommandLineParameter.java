@@ -7,6 +7,7 @@ package org.panteleyev.jlink;
 enum CommandLineParameter {
     ADD_MODULES("--add-modules"),
     BIND_SERVICES("--bind-services"),
+    COMPRESS("--compress"),
     DISABLE_PLUGIN("--disable-plugin"),
     ENDIAN("--endian"),
     GENERATE_CDS_ARCHIVE("--generate-cds-archive"),
@@ -16,8 +17,11 @@ enum CommandLineParameter {
     MODULE_PATH("--module-path"),
     NO_HEADER_FILES("--no-header-files"),
     NO_MAN_PAGES("--no-man-pages"),
+    ORDER_RESOURCES("--order-resources"),
     OUTPUT("--output"),
     STRIP_DEBUG("--strip-debug"),
+    STRIP_JAVA_DEBUG_ATTRIBUTES("--strip-java-debug-attributes"),
+    STRIP_NATIVE_DEBUG_SYMBOLS("--strip-native-debug-symbols"),
     VERBOSE("--verbose");
 
     private final String name;
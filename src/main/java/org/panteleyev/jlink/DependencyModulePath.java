@@ -0,0 +1,203 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.artifact.Artifact;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Selects resolved project dependencies that are placed on the module path.</p>
+ * <p>Artifact files are used directly from the local repository. If a single directory is required they are
+ * hard-linked into the staging directory, files are copied only when hard links are not possible.</p>
+ * <p>Artifacts built in the same reactor may be replaced by their output directories if they contain
+ * module-info.class, i.e. are exploded modules.</p>
+ */
+final class DependencyModulePath {
+    static final String MODULE_INFO = "module-info.class";
+
+    private static final Set<String> EXTENSIONS = new HashSet<>();
+
+    static {
+        EXTENSIONS.add("jar");
+        EXTENSIONS.add("jmod");
+    }
+
+    private final Set<String> scopes;
+    private final List<Pattern> excludes = new ArrayList<>();
+
+    /**
+     * @param scopes   included scopes
+     * @param excludes exclusion patterns <code>groupId:artifactId[:classifier]</code>, each element may contain
+     *                 <code>*</code> wildcard
+     */
+    DependencyModulePath(Collection<String> scopes, Collection<String> excludes) {
+        this.scopes = new HashSet<>(scopes);
+        for (String exclude : excludes) {
+            this.excludes.add(toPattern(exclude));
+        }
+    }
+
+    /**
+     * Returns files of the included artifacts in resolution order.
+     */
+    List<Path> select(Collection<Artifact> artifacts) {
+        return select(artifacts, Collections.emptyMap());
+    }
+
+    /**
+     * Returns files of the included artifacts in resolution order, artifacts without classifier that have exploded
+     * modules are replaced by their directories.
+     *
+     * @param explodedModules exploded module directories by <code>groupId:artifactId</code>
+     */
+    List<Path> select(Collection<Artifact> artifacts, Map<String, Path> explodedModules) {
+        List<Path> result = new ArrayList<>();
+        for (Artifact artifact : artifacts) {
+            Path exploded = artifact.getClassifier() == null || artifact.getClassifier().isEmpty() ?
+                    explodedModules.get(artifact.getGroupId() + ":" + artifact.getArtifactId()) : null;
+            if (exploded != null && isSelected(artifact)) {
+                result.add(exploded);
+            } else if (isIncluded(artifact)) {
+                result.add(artifact.getFile().toPath().toAbsolutePath());
+            }
+        }
+        return result;
+    }
+
+    boolean isIncluded(Artifact artifact) {
+        File file = artifact.getFile();
+        if (file == null || !file.isFile()) {
+            return false;
+        }
+        String extension = artifact.getArtifactHandler() == null ?
+                null : artifact.getArtifactHandler().getExtension();
+        if (extension == null || !EXTENSIONS.contains(extension)) {
+            return false;
+        }
+        return isSelected(artifact);
+    }
+
+    /**
+     * Returns <code>true</code> if the directory is an exploded module, i.e. contains module-info.class.
+     */
+    static boolean isExplodedModule(Path directory) {
+        return Files.isRegularFile(directory.resolve(MODULE_INFO));
+    }
+
+    private boolean isSelected(Artifact artifact) {
+        String scope = artifact.getScope() == null ? Artifact.SCOPE_COMPILE : artifact.getScope();
+        return scopes.contains(scope) && !isExcluded(artifact);
+    }
+
+    private boolean isExcluded(Artifact artifact) {
+        String id = artifact.getGroupId() + ":" + artifact.getArtifactId() + ":"
+                + (artifact.getClassifier() == null ? "" : artifact.getClassifier());
+        for (Pattern pattern : excludes) {
+            if (pattern.matcher(id).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Pattern toPattern(String exclude) {
+        String[] parts = exclude.trim().split(":", -1);
+        if (parts.length < 2 || parts.length > 3) {
+            throw new IllegalArgumentException("groupId:artifactId[:classifier] expected: " + exclude);
+        }
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            if (i > 0) {
+                regex.append(':');
+            }
+            // Missing classifier matches any classifier
+            String part = i < parts.length ? parts[i] : "*";
+            for (String literal : part.split("\\*", -1)) {
+                regex.append(Pattern.quote(literal)).append(".*");
+            }
+            regex.setLength(regex.length() - 2);
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * Makes staging directory contain exactly the specified files. Files that are already linked are not touched,
+     * files that are no longer required are deleted.
+     *
+     * @return number of files linked or copied
+     */
+    static int stage(List<Path> files, Path directory) throws IOException {
+        Files.createDirectories(directory);
+
+        Map<String, Path> targets = new LinkedHashMap<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (targets.containsKey(name)) {
+                // Same file name in different groups, local repository layout is groupId/artifactId/version
+                Path groupDir = file.getParent() == null || file.getParent().getParent() == null ?
+                        null : file.getParent().getParent().getParent();
+                name = (groupDir == null ? "" : groupDir.getFileName() + "-") + name;
+                for (int i = 1; targets.containsKey(name); i++) {
+                    name = i + "-" + file.getFileName();
+                }
+            }
+            targets.put(name, file);
+        }
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path existing : stream) {
+                if (Files.isRegularFile(existing) && !targets.containsKey(existing.getFileName().toString())) {
+                    Files.delete(existing);
+                }
+            }
+        }
+
+        int count = 0;
+        boolean link = true;
+        for (Map.Entry<String, Path> entry : targets.entrySet()) {
+            Path source = entry.getValue();
+            Path target = directory.resolve(entry.getKey());
+            if (Files.exists(target)) {
+                if (Files.isSameFile(source, target) || isSameContent(source, target)) {
+                    continue;
+                }
+                Files.delete(target);
+            }
+
+            if (link) {
+                try {
+                    Files.createLink(target, source);
+                    count++;
+                    continue;
+                } catch (UnsupportedOperationException | IOException ex) {
+                    link = false;
+                }
+            }
+            Files.copy(source, target, StandardCopyOption.COPY_ATTRIBUTES);
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean isSameContent(Path source, Path target) throws IOException {
+        return Files.size(source) == Files.size(target)
+                && Files.getLastModifiedTime(source).equals(Files.getLastModifiedTime(target));
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+/**
+ * Defines how jlink is executed.
+ */
+public enum ExecutionMode {
+    /**
+     * Runs jlink in-process when Maven runs on the same or compatible JDK, otherwise forks jlink process.
+     */
+    AUTO,
+    /**
+     * Runs jlink in-process via {@code java.util.spi.ToolProvider}.
+     */
+    IN_PROCESS,
+    /**
+     * Forks jlink process.
+     */
+    FORK
+}
@@ -0,0 +1,90 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content hashes of files keyed by absolute path. A stored hash is reused while file size and modification time
+ * stay the same, otherwise file content is hashed again.
+ */
+final class FileHashIndex {
+    private static final String PREFIX = "hash.";
+    private static final String SHA256 = "sha256";
+
+    private static final class Entry {
+        private final long size;
+        private final long modified;
+        private final String hash;
+
+        Entry(long size, long modified, String hash) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Entry> used = new ConcurrentHashMap<>();
+
+    String hash(Path file) throws IOException {
+        String key = file.toAbsolutePath().toString();
+        long size = Files.size(file);
+        long modified = Files.getLastModifiedTime(file).toMillis();
+
+        Entry entry = entries.get(key);
+        if (entry == null || entry.size != size || entry.modified != modified) {
+            entry = new Entry(size, modified, SessionCache.getInstance().get(SHA256, file,
+                    () -> FileUtil.sha256(file)));
+            entries.put(key, entry);
+        }
+        used.put(key, entry);
+        return entry.hash;
+    }
+
+    /**
+     * Records hash of the file computed elsewhere, e.g. while the file was written.
+     */
+    void put(Path file, String hash) throws IOException {
+        Entry entry = new Entry(Files.size(file), Files.getLastModifiedTime(file).toMillis(), hash);
+        String key = file.toAbsolutePath().toString();
+        entries.put(key, entry);
+        used.put(key, entry);
+    }
+
+    void load(Properties properties) {
+        for (String name : properties.stringPropertyNames()) {
+            if (!name.startsWith(PREFIX)) {
+                continue;
+            }
+
+            String[] parts = properties.getProperty(name).split(",");
+            if (parts.length != 3) {
+                continue;
+            }
+            try {
+                entries.put(name.substring(PREFIX.length()),
+                        new Entry(Long.parseLong(parts[0]), Long.parseLong(parts[1]), parts[2]));
+            } catch (NumberFormatException ex) {
+                // Broken entry, file will be hashed again
+            }
+        }
+    }
+
+    /**
+     * Stores entries of files hashed since the index was loaded.
+     */
+    void store(Properties properties) {
+        for (Map.Entry<String, Entry> e : used.entrySet()) {
+            Entry entry = e.getValue();
+            properties.setProperty(PREFIX + e.getKey(), entry.size + "," + entry.modified + "," + entry.hash);
+        }
+    }
+}
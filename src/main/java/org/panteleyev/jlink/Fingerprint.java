@@ -0,0 +1,54 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+
+/**
+ * Fingerprint of jlink inputs. Files are identified by their path relative to the added root and content hash,
+ * so the same inputs produce the same fingerprint regardless of their location.
+ */
+final class Fingerprint {
+    private final MessageDigest digest = FileUtil.newDigest();
+    private final FileHashIndex index;
+
+    Fingerprint(FileHashIndex index) {
+        this.index = index;
+    }
+
+    Fingerprint add(String key, String value) {
+        update(key);
+        update(value == null ? "" : value);
+        return this;
+    }
+
+    /**
+     * Adds the file or all files under the directory.
+     */
+    Fingerprint addPath(String key, Path root) throws IOException {
+        update(key);
+        for (Path file : FileUtil.listFiles(root)) {
+            update(root.relativize(file).toString().replace('\\', '/'));
+            update(index.hash(file));
+        }
+        return this;
+    }
+
+    String build() {
+        return FileUtil.toHex(digest.digest());
+    }
+
+    private void update(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+}
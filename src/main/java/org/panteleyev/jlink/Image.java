@@ -0,0 +1,300 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.MojoFailureException;
+
+import java.io.File;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Definition of the image built by the plugin. Parameters that are not set are inherited from the plugin
+ * configuration.
+ */
+public class Image {
+    private String name;
+    private File output;
+    private List<String> addModules;
+    private Boolean autoAddModules;
+    private List<String> limitModules;
+    private List<Launcher> launchers;
+    private Boolean bindServices;
+    private String compress;
+    private Endian endian;
+    private Boolean ignoreSigningInformation;
+    private Boolean generateCdsArchive;
+    private Boolean noHeaderFiles;
+    private Boolean noManPages;
+    private Boolean stripDebug;
+    private Boolean stripJavaDebugAttributes;
+    private String stripNativeDebugSymbols;
+    private Boolean verbose;
+    private Training training;
+    private Boolean overlay;
+    private ArchiveFormat archive;
+    private Boolean orderResources;
+    private Boolean pruneServiceBindings;
+    private List<String> boundServices;
+    private File installDirectory;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public File getOutput() {
+        return output;
+    }
+
+    public void setOutput(File output) {
+        this.output = output;
+    }
+
+    public List<String> getAddModules() {
+        return addModules;
+    }
+
+    public void setAddModules(List<String> addModules) {
+        this.addModules = addModules;
+    }
+
+    public Boolean getAutoAddModules() {
+        return autoAddModules;
+    }
+
+    public void setAutoAddModules(Boolean autoAddModules) {
+        this.autoAddModules = autoAddModules;
+    }
+
+    public List<String> getLimitModules() {
+        return limitModules;
+    }
+
+    public void setLimitModules(List<String> limitModules) {
+        this.limitModules = limitModules;
+    }
+
+    public List<Launcher> getLaunchers() {
+        return launchers;
+    }
+
+    public void setLaunchers(List<Launcher> launchers) {
+        this.launchers = launchers;
+    }
+
+    public Boolean getBindServices() {
+        return bindServices;
+    }
+
+    public void setBindServices(Boolean bindServices) {
+        this.bindServices = bindServices;
+    }
+
+    public String getCompress() {
+        return compress;
+    }
+
+    public void setCompress(String compress) {
+        this.compress = compress;
+    }
+
+    public Endian getEndian() {
+        return endian;
+    }
+
+    public void setEndian(Endian endian) {
+        this.endian = endian;
+    }
+
+    public Boolean getIgnoreSigningInformation() {
+        return ignoreSigningInformation;
+    }
+
+    public void setIgnoreSigningInformation(Boolean ignoreSigningInformation) {
+        this.ignoreSigningInformation = ignoreSigningInformation;
+    }
+
+    public Boolean getGenerateCdsArchive() {
+        return generateCdsArchive;
+    }
+
+    public void setGenerateCdsArchive(Boolean generateCdsArchive) {
+        this.generateCdsArchive = generateCdsArchive;
+    }
+
+    public Boolean getNoHeaderFiles() {
+        return noHeaderFiles;
+    }
+
+    public void setNoHeaderFiles(Boolean noHeaderFiles) {
+        this.noHeaderFiles = noHeaderFiles;
+    }
+
+    public Boolean getNoManPages() {
+        return noManPages;
+    }
+
+    public void setNoManPages(Boolean noManPages) {
+        this.noManPages = noManPages;
+    }
+
+    public Boolean getStripDebug() {
+        return stripDebug;
+    }
+
+    public void setStripDebug(Boolean stripDebug) {
+        this.stripDebug = stripDebug;
+    }
+
+    public Boolean getStripJavaDebugAttributes() {
+        return stripJavaDebugAttributes;
+    }
+
+    public void setStripJavaDebugAttributes(Boolean stripJavaDebugAttributes) {
+        this.stripJavaDebugAttributes = stripJavaDebugAttributes;
+    }
+
+    public String getStripNativeDebugSymbols() {
+        return stripNativeDebugSymbols;
+    }
+
+    public void setStripNativeDebugSymbols(String stripNativeDebugSymbols) {
+        this.stripNativeDebugSymbols = stripNativeDebugSymbols;
+    }
+
+    public Boolean getVerbose() {
+        return verbose;
+    }
+
+    public void setVerbose(Boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public Training getTraining() {
+        return training;
+    }
+
+    public void setTraining(Training training) {
+        this.training = training;
+    }
+
+    public Boolean getOverlay() {
+        return overlay;
+    }
+
+    public void setOverlay(Boolean overlay) {
+        this.overlay = overlay;
+    }
+
+    public ArchiveFormat getArchive() {
+        return archive;
+    }
+
+    public void setArchive(ArchiveFormat archive) {
+        this.archive = archive;
+    }
+
+    public Boolean getOrderResources() {
+        return orderResources;
+    }
+
+    public void setOrderResources(Boolean orderResources) {
+        this.orderResources = orderResources;
+    }
+
+    public Boolean getPruneServiceBindings() {
+        return pruneServiceBindings;
+    }
+
+    public void setPruneServiceBindings(Boolean pruneServiceBindings) {
+        this.pruneServiceBindings = pruneServiceBindings;
+    }
+
+    public List<String> getBoundServices() {
+        return boundServices;
+    }
+
+    public void setBoundServices(List<String> boundServices) {
+        this.boundServices = boundServices;
+    }
+
+    public File getInstallDirectory() {
+        return installDirectory;
+    }
+
+    public void setInstallDirectory(File installDirectory) {
+        this.installDirectory = installDirectory;
+    }
+
+    /**
+     * Returns launcher with the specified name or the first launcher if name is <code>null</code>.
+     */
+    Optional<Launcher> findLauncher(String launcherName) {
+        if (launchers == null) {
+            return Optional.empty();
+        }
+        return launchers.stream()
+                .filter(l -> launcherName == null || launcherName.equals(l.getName()))
+                .findFirst();
+    }
+
+    /**
+     * Returns launcher with the specified name or the first launcher if name is <code>null</code>.
+     *
+     * @throws MojoFailureException if launcher is not found
+     */
+    Launcher getLauncher(String launcherName) throws MojoFailureException {
+        Optional<Launcher> launcher = findLauncher(launcherName);
+        if (!launcher.isPresent()) {
+            throw new MojoFailureException(launcherName == null ?
+                    "Image " + name + " has no launchers" :
+                    "Launcher " + launcherName + " is not defined for image " + name);
+        }
+        return launcher.get();
+    }
+
+    /**
+     * Returns new image definition with parameters that are not set in this image taken from defaults.
+     */
+    Image withDefaults(Image defaults) {
+        Image image = new Image();
+        image.name = name != null ? name : defaults.name;
+        image.output = output != null ? output : defaults.output;
+        image.addModules = addModules != null ? addModules : defaults.addModules;
+        image.autoAddModules = autoAddModules != null ? autoAddModules : defaults.autoAddModules;
+        image.limitModules = limitModules != null ? limitModules : defaults.limitModules;
+        image.launchers = launchers != null ? launchers : defaults.launchers;
+        image.bindServices = bindServices != null ? bindServices : defaults.bindServices;
+        image.compress = compress != null ? compress : defaults.compress;
+        image.endian = endian != null ? endian : defaults.endian;
+        image.ignoreSigningInformation = ignoreSigningInformation != null ?
+                ignoreSigningInformation : defaults.ignoreSigningInformation;
+        image.generateCdsArchive = generateCdsArchive != null ? generateCdsArchive : defaults.generateCdsArchive;
+        image.noHeaderFiles = noHeaderFiles != null ? noHeaderFiles : defaults.noHeaderFiles;
+        image.noManPages = noManPages != null ? noManPages : defaults.noManPages;
+        image.stripDebug = stripDebug != null ? stripDebug : defaults.stripDebug;
+        image.stripJavaDebugAttributes = stripJavaDebugAttributes != null ?
+                stripJavaDebugAttributes : defaults.stripJavaDebugAttributes;
+        image.stripNativeDebugSymbols = stripNativeDebugSymbols != null ?
+                stripNativeDebugSymbols : defaults.stripNativeDebugSymbols;
+        image.verbose = verbose != null ? verbose : defaults.verbose;
+        image.training = training != null ? training : defaults.training;
+        image.overlay = overlay != null ? overlay : defaults.overlay;
+        image.archive = archive != null ? archive : defaults.archive;
+        image.orderResources = orderResources != null ? orderResources : defaults.orderResources;
+        image.pruneServiceBindings = pruneServiceBindings != null ?
+                pruneServiceBindings : defaults.pruneServiceBindings;
+        image.boundServices = boundServices != null ? boundServices : defaults.boundServices;
+        image.installDirectory = installDirectory != null ? installDirectory : defaults.installDirectory;
+        if (image.name == null && image.output != null) {
+            image.name = image.output.getName();
+        }
+        return image;
+    }
+}
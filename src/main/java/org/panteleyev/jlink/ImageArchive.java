@@ -0,0 +1,482 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * <p>Writes the image directory into a tar.gz or zip archive.</p>
+ * <p>File contents are streamed into the archive, large files such as <code>lib/modules</code> are compressed in
+ * parallel blocks by {@link ParallelDeflaterOutputStream}. Archive is written to a temporary file and moved to the
+ * target location when complete.</p>
+ */
+final class ImageArchive {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int TAR_BLOCK = 512;
+
+    private static final int S_IFREG = 0100000;
+    private static final int S_IFDIR = 040000;
+    private static final int S_IFLNK = 0120000;
+
+    private static final long ZIP_LIMIT = 0xFFFFFFFFL;
+    private static final int ZIP_MAX_ENTRIES = 0xFFFF;
+
+    private final ArchiveFormat format;
+    private final int threads;
+    private final int level;
+
+    private static final class Entry {
+        private final Path path;
+        private final String name;
+        private final BasicFileAttributes attributes;
+        private final int mode;
+
+        Entry(Path path, String name, BasicFileAttributes attributes, int mode) {
+            this.path = path;
+            this.name = name;
+            this.attributes = attributes;
+            this.mode = mode;
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    /**
+     * Creates archive writer.
+     *
+     * @param format  archive format
+     * @param threads number of compression threads
+     * @param level   compression level
+     */
+    ImageArchive(ArchiveFormat format, int threads, int level) {
+        this.format = format;
+        this.threads = Math.max(1, threads);
+        this.level = level;
+    }
+
+    /**
+     * Writes image into the archive. Entries are placed under the root directory.
+     *
+     * @param image   image directory
+     * @param root    name of the root directory of archive entries
+     * @param archive archive file
+     */
+    void write(Path image, String root, Path archive) throws IOException {
+        List<Entry> entries = list(image, root);
+        Files.createDirectories(archive.toAbsolutePath().getParent());
+        Path tmp = archive.resolveSibling(archive.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "jlink-archive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            try (OutputStream fileOut = Files.newOutputStream(tmp);
+                 CountingOutputStream out = new CountingOutputStream(new BufferedOutputStream(fileOut, BUFFER_SIZE))
+            ) {
+                if (format == ArchiveFormat.ZIP) {
+                    writeZip(entries, out, executor);
+                } else {
+                    writeTarGz(entries, out, executor);
+                }
+            }
+            Files.move(tmp, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            executor.shutdownNow();
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static List<Entry> list(Path image, String root) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (Stream<Path> stream = Files.walk(image)) {
+            stream.forEach(paths::add);
+        }
+        paths.sort(null);
+
+        List<Entry> entries = new ArrayList<>();
+        for (Path path : paths) {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class,
+                    LinkOption.NOFOLLOW_LINKS);
+            String relative = image.relativize(path).toString().replace('\\', '/');
+            String name = relative.isEmpty() ? root : root + "/" + relative;
+            if (attributes.isDirectory()) {
+                name += "/";
+            }
+            entries.add(new Entry(path, name, attributes, mode(path, attributes)));
+        }
+        return entries;
+    }
+
+    private static int mode(Path path, BasicFileAttributes attributes) throws IOException {
+        if (attributes.isSymbolicLink()) {
+            return 0777;
+        }
+        try {
+            Set<PosixFilePermission> permissions = Files.readAttributes(path, PosixFileAttributes.class,
+                    LinkOption.NOFOLLOW_LINKS).permissions();
+            int mode = 0;
+            for (PosixFilePermission p : permissions) {
+                mode |= 1 << (8 - p.ordinal());
+            }
+            return mode;
+        } catch (UnsupportedOperationException ex) {
+            return attributes.isDirectory() || Files.isExecutable(path) ? 0755 : 0644;
+        }
+    }
+
+    // tar.gz
+
+    private void writeTarGz(List<Entry> entries, OutputStream out, ExecutorService executor) throws IOException {
+        // Gzip header: deflate, no flags, no modification time, unknown OS
+        out.write(new byte[]{0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff});
+        ParallelDeflaterOutputStream deflater = new ParallelDeflaterOutputStream(out, executor, threads, level);
+        try {
+            Map<Object, String> links = new HashMap<>();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            for (Entry entry : entries) {
+                long mtime = entry.attributes.lastModifiedTime().toMillis() / 1000;
+                if (entry.attributes.isDirectory()) {
+                    writeTarHeader(deflater, entry.name, entry.mode, 0, mtime, '5', "");
+                } else if (entry.attributes.isSymbolicLink()) {
+                    String target = Files.readSymbolicLink(entry.path).toString().replace('\\', '/');
+                    writeTarHeader(deflater, entry.name, entry.mode, 0, mtime, '2', target);
+                } else {
+                    Object key = entry.attributes.fileKey();
+                    String linkTarget = key == null ? null : links.putIfAbsent(key, entry.name);
+                    if (linkTarget != null) {
+                        writeTarHeader(deflater, entry.name, entry.mode, 0, mtime, '1', linkTarget);
+                        continue;
+                    }
+                    long size = entry.attributes.size();
+                    writeTarHeader(deflater, entry.name, entry.mode, size, mtime, '0', "");
+                    long written = copy(entry.path, deflater, buffer, size);
+                    if (written != size) {
+                        throw new IOException("File " + entry.path + " changed while archiving");
+                    }
+                    pad(deflater, size);
+                }
+            }
+            // End of archive
+            deflater.write(new byte[TAR_BLOCK * 2]);
+            deflater.finish();
+        } finally {
+            deflater.close();
+        }
+        writeIntLe(out, deflater.getCrc());
+        writeIntLe(out, deflater.getBytesIn());
+    }
+
+    private static void writeTarHeader(
+            OutputStream out,
+            String name,
+            int mode,
+            long size,
+            long mtime,
+            char type,
+            String linkName
+    ) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        byte[] linkBytes = linkName.getBytes(StandardCharsets.UTF_8);
+        int split = ustarSplit(nameBytes);
+        if (split < 0 || linkBytes.length > 100) {
+            // Names that do not fit ustar header are stored in PAX extended header
+            ByteArrayOutputStream pax = new ByteArrayOutputStream();
+            if (split < 0) {
+                paxRecord(pax, "path", name);
+            }
+            if (linkBytes.length > 100) {
+                paxRecord(pax, "linkpath", linkName);
+            }
+            byte[] paxBytes = pax.toByteArray();
+            out.write(tarHeader("PaxHeader".getBytes(StandardCharsets.US_ASCII), 0, 0644, paxBytes.length, mtime,
+                    'x', new byte[0]));
+            out.write(paxBytes);
+            pad(out, paxBytes.length);
+
+            if (split < 0) {
+                nameBytes = truncate(nameBytes, 100);
+                split = 0;
+            }
+            linkBytes = truncate(linkBytes, 100);
+        }
+        out.write(tarHeader(nameBytes, split, mode, size, mtime, type, linkBytes));
+    }
+
+    private static byte[] tarHeader(
+            byte[] name,
+            int split,
+            int mode,
+            long size,
+            long mtime,
+            char type,
+            byte[] linkName
+    ) {
+        byte[] header = new byte[TAR_BLOCK];
+        if (split > 0) {
+            // prefix and name are separated by '/' that is not stored
+            System.arraycopy(name, 0, header, 345, split);
+            System.arraycopy(name, split + 1, header, 0, name.length - split - 1);
+        } else {
+            System.arraycopy(name, 0, header, 0, name.length);
+        }
+        octal(header, 100, 8, mode);
+        octal(header, 108, 8, 0);
+        octal(header, 116, 8, 0);
+        octal(header, 124, 12, size);
+        octal(header, 136, 12, Math.max(0, mtime));
+        header[156] = (byte) type;
+        System.arraycopy(linkName, 0, header, 157, linkName.length);
+        System.arraycopy("ustar\u000000".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 8);
+
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xFF;
+        }
+        octal(header, 148, 7, checksum);
+        return header;
+    }
+
+    /**
+     * Returns position of '/' that splits name into prefix and name fields, 0 if name fits name field or -1 if
+     * name does not fit ustar header.
+     */
+    private static int ustarSplit(byte[] name) {
+        if (name.length <= 100) {
+            return 0;
+        }
+        for (int i = Math.min(name.length - 1, 155); i > 0; i--) {
+            if (name[i] == '/' && name.length - i - 1 <= 100 && name.length - i - 1 > 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void paxRecord(ByteArrayOutputStream out, String key, String value) throws IOException {
+        byte[] record = (" " + key + "=" + value + "\n").getBytes(StandardCharsets.UTF_8);
+        // Record length includes its own decimal representation
+        int length = record.length + 1;
+        while (Integer.toString(length).length() + record.length > length) {
+            length++;
+        }
+        out.write(Integer.toString(length).getBytes(StandardCharsets.US_ASCII));
+        out.write(record);
+    }
+
+    private static void octal(byte[] header, int offset, int length, long value) {
+        String s = Long.toOctalString(value);
+        if (s.length() > length - 1) {
+            throw new IllegalArgumentException("Value " + value + " does not fit tar header");
+        }
+        int start = offset + length - 1 - s.length();
+        for (int i = offset; i < start; i++) {
+            header[i] = '0';
+        }
+        for (int i = 0; i < s.length(); i++) {
+            header[start + i] = (byte) s.charAt(i);
+        }
+        header[offset + length - 1] = 0;
+    }
+
+    private static void pad(OutputStream out, long size) throws IOException {
+        int remainder = (int) (size % TAR_BLOCK);
+        if (remainder != 0) {
+            out.write(new byte[TAR_BLOCK - remainder]);
+        }
+    }
+
+    private static byte[] truncate(byte[] bytes, int length) {
+        if (bytes.length <= length) {
+            return bytes;
+        }
+        byte[] result = new byte[length];
+        System.arraycopy(bytes, 0, result, 0, length);
+        return result;
+    }
+
+    // zip
+
+    private void writeZip(List<Entry> entries, CountingOutputStream out, ExecutorService executor)
+            throws IOException {
+        if (entries.size() > ZIP_MAX_ENTRIES) {
+            throw new IOException("Too many files for zip archive, use " + ArchiveFormat.TAR_GZ);
+        }
+
+        ByteArrayOutputStream central = new ByteArrayOutputStream();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        for (Entry entry : entries) {
+            long offset = out.count;
+            byte[] name = entry.name.getBytes(StandardCharsets.UTF_8);
+            int dosTime = dosTime(entry.attributes.lastModifiedTime().toMillis());
+            boolean directory = entry.attributes.isDirectory();
+            // UTF-8 names, sizes and CRC of files follow the data
+            int flags = directory ? 0x0800 : 0x0808;
+            int method = directory ? 0 : 8;
+
+            writeIntLe(out, 0x04034b50L);
+            writeShortLe(out, 20);
+            writeShortLe(out, flags);
+            writeShortLe(out, method);
+            writeIntLe(out, dosTime);
+            writeIntLe(out, 0);
+            writeIntLe(out, 0);
+            writeIntLe(out, 0);
+            writeShortLe(out, name.length);
+            writeShortLe(out, 0);
+            out.write(name);
+
+            long crc = 0;
+            long compressed = 0;
+            long size = 0;
+            int type = S_IFDIR;
+            if (!directory) {
+                ParallelDeflaterOutputStream deflater =
+                        new ParallelDeflaterOutputStream(out, executor, threads, level);
+                try {
+                    if (entry.attributes.isSymbolicLink()) {
+                        type = S_IFLNK;
+                        deflater.write(Files.readSymbolicLink(entry.path).toString().replace('\\', '/')
+                                .getBytes(StandardCharsets.UTF_8));
+                    } else {
+                        type = S_IFREG;
+                        copy(entry.path, deflater, buffer, Long.MAX_VALUE);
+                    }
+                    deflater.finish();
+                } finally {
+                    deflater.close();
+                }
+                crc = deflater.getCrc();
+                compressed = deflater.getBytesOut();
+                size = deflater.getBytesIn();
+
+                writeIntLe(out, 0x08074b50L);
+                writeIntLe(out, crc);
+                writeIntLe(out, compressed);
+                writeIntLe(out, size);
+            }
+            if (offset > ZIP_LIMIT || compressed > ZIP_LIMIT || size > ZIP_LIMIT) {
+                throw new IOException("Image is too large for zip archive, use " + ArchiveFormat.TAR_GZ);
+            }
+
+            writeIntLe(central, 0x02014b50L);
+            // Made by Unix, so external attributes contain file mode
+            writeShortLe(central, (3 << 8) | 20);
+            writeShortLe(central, 20);
+            writeShortLe(central, flags);
+            writeShortLe(central, method);
+            writeIntLe(central, dosTime);
+            writeIntLe(central, crc);
+            writeIntLe(central, compressed);
+            writeIntLe(central, size);
+            writeShortLe(central, name.length);
+            writeShortLe(central, 0);
+            writeShortLe(central, 0);
+            writeShortLe(central, 0);
+            writeShortLe(central, 0);
+            writeIntLe(central, ((long) (type | entry.mode) << 16) | (directory ? 0x10 : 0));
+            writeIntLe(central, offset);
+            central.write(name);
+        }
+
+        long centralOffset = out.count;
+        central.writeTo(out);
+        if (out.count > ZIP_LIMIT) {
+            throw new IOException("Image is too large for zip archive, use " + ArchiveFormat.TAR_GZ);
+        }
+        writeIntLe(out, 0x06054b50L);
+        writeShortLe(out, 0);
+        writeShortLe(out, 0);
+        writeShortLe(out, entries.size());
+        writeShortLe(out, entries.size());
+        writeIntLe(out, central.size());
+        writeIntLe(out, centralOffset);
+        writeShortLe(out, 0);
+    }
+
+    private static int dosTime(long millis) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+        if (time.getYear() < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        return (time.getYear() - 1980) << 25 | time.getMonthValue() << 21 | time.getDayOfMonth() << 16
+                | time.getHour() << 11 | time.getMinute() << 5 | time.getSecond() >> 1;
+    }
+
+    // common
+
+    private static long copy(Path file, OutputStream out, byte[] buffer, long limit) throws IOException {
+        long total = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while (total < limit && (n = in.read(buffer, 0, (int) Math.min(buffer.length, limit - total))) > 0) {
+                out.write(buffer, 0, n);
+                total += n;
+            }
+            if (total == limit && in.read() >= 0) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    private static void writeShortLe(OutputStream out, int value) throws IOException {
+        out.write(value & 0xFF);
+        out.write((value >>> 8) & 0xFF);
+    }
+
+    private static void writeIntLe(OutputStream out, long value) throws IOException {
+        out.write((int) (value & 0xFF));
+        out.write((int) ((value >>> 8) & 0xFF));
+        out.write((int) ((value >>> 16) & 0xFF));
+        out.write((int) ((value >>> 24) & 0xFF));
+    }
+}
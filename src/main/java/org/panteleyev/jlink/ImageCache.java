@@ -0,0 +1,261 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.panteleyev.jlink.StringUtil.formatSize;
+
+/**
+ * <p>Content-addressed cache of runtime images.</p>
+ * <p>Each entry is a directory named by the inputs fingerprint:</p>
+ * <pre>
+ * &lt;fingerprint>/image/...
+ * &lt;fingerprint>/entry.properties
+ * </pre>
+ * <p>Entries are assembled under <code>.tmp</code> and renamed into place, so readers never see incomplete images.
+ * Modification time of <code>entry.properties</code> is the last access time used for eviction.</p>
+ * <p>Images are copied into and out of the cache. Entries never share files with output directories, so images
+ * modified in place after they are restored or published, e.g. by a training run, do not corrupt the cache.</p>
+ */
+final class ImageCache {
+    private static final String IMAGE = "image";
+    private static final String ENTRY = "entry.properties";
+    private static final String TMP = ".tmp";
+    private static final String LOCK = ".lock";
+    private static final String STATS = "stats.properties";
+
+    private static final String SIZE = "size";
+    private static final String HITS = "hits";
+    private static final String MISSES = "misses";
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final long STALE_TMP_AGE = TimeUnit.DAYS.toMillis(1);
+
+    private static final class Entry {
+        private final Path dir;
+        private final long size;
+        private final long lastAccess;
+
+        Entry(Path dir, long size, long lastAccess) {
+            this.dir = dir;
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private final Path directory;
+    private final long maxSize;
+    private final long maxAge;
+    private final Log log;
+
+    ImageCache(Path directory, long maxSize, long maxAge, Log log) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.maxAge = maxAge;
+        this.log = log;
+    }
+
+    /**
+     * Restores cached image into the output directory that must not exist.
+     *
+     * @return true if image was found in the cache
+     */
+    boolean restore(String key, Path output) throws IOException {
+        Path entry = directory.resolve(key);
+        Path image = entry.resolve(IMAGE);
+        if (!Files.isDirectory(image)) {
+            log.info("Image cache miss: " + key);
+            updateStatistics(false);
+            return false;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            Files.setLastModifiedTime(entry.resolve(ENTRY), FileTime.fromMillis(System.currentTimeMillis()));
+            FileUtil.copyTree(image, output);
+        } catch (IOException ex) {
+            // Entry was evicted by another build while being restored
+            log.warn("Failed to restore image from cache: " + ex.getMessage());
+            FileUtil.deleteDirectory(output);
+            updateStatistics(false);
+            return false;
+        }
+
+        log.info("Image cache hit: " + key + ", image copied in " + (System.currentTimeMillis() - start) + " ms");
+        updateStatistics(true);
+        return true;
+    }
+
+    void publish(String key, Path image) throws IOException {
+        Path entry = directory.resolve(key);
+        if (Files.exists(entry)) {
+            return;
+        }
+
+        Path tmp = directory.resolve(TMP).resolve(key + "-" + UUID.randomUUID());
+        try {
+            Files.createDirectories(tmp);
+            FileUtil.copyTree(image, tmp.resolve(IMAGE));
+
+            Properties properties = new Properties();
+            properties.setProperty(SIZE, Long.toString(FileUtil.directorySize(tmp.resolve(IMAGE))));
+            try (OutputStream out = Files.newOutputStream(tmp.resolve(ENTRY))) {
+                properties.store(out, null);
+            }
+
+            try {
+                Files.move(tmp, entry, StandardCopyOption.ATOMIC_MOVE);
+                log.info("Image stored in cache: " + key);
+            } catch (IOException ex) {
+                if (!Files.exists(entry)) {
+                    throw ex;
+                }
+                // Published concurrently by another build
+                log.debug("Image " + key + " already exists in cache");
+            }
+        } finally {
+            FileUtil.deleteDirectory(tmp);
+        }
+    }
+
+    /**
+     * Removes entries not accessed during max age, then least recently used entries until cache size does not
+     * exceed max size.
+     */
+    void evict() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        List<Entry> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path dir : stream) {
+                if (!KEY_PATTERN.matcher(dir.getFileName().toString()).matches()) {
+                    continue;
+                }
+                readEntry(dir).ifPresent(entries::add);
+            }
+        }
+
+        entries.sort(Comparator.comparingLong((Entry e) -> e.lastAccess));
+        long total = entries.stream().mapToLong(e -> e.size).sum();
+
+        int evicted = 0;
+        for (Entry entry : entries) {
+            if (now - entry.lastAccess <= maxAge && total <= maxSize) {
+                break;
+            }
+            remove(entry.dir);
+            total -= entry.size;
+            evicted++;
+        }
+
+        removeStaleTemporaryDirectories(now);
+
+        log.info("Image cache: " + (entries.size() - evicted) + " entries, " + formatSize(total)
+                + (evicted > 0 ? ", evicted " + evicted : ""));
+    }
+
+    private Optional<Entry> readEntry(Path dir) {
+        Path entryFile = dir.resolve(ENTRY);
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(entryFile)) {
+            properties.load(in);
+            return Optional.of(new Entry(dir,
+                    Long.parseLong(properties.getProperty(SIZE, "0")),
+                    Files.getLastModifiedTime(entryFile).toMillis()));
+        } catch (IOException | IllegalArgumentException ex) {
+            // Entry is being removed or broken
+            return Optional.empty();
+        }
+    }
+
+    private void remove(Path entry) throws IOException {
+        Path tmp = directory.resolve(TMP).resolve(entry.getFileName() + "-deleted-" + UUID.randomUUID());
+        try {
+            Files.createDirectories(tmp.getParent());
+            Files.move(entry, tmp, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            // Already removed by another build
+            return;
+        }
+        log.debug("Evicting image cache entry " + entry.getFileName());
+        FileUtil.deleteDirectory(tmp);
+    }
+
+    private void removeStaleTemporaryDirectories(long now) throws IOException {
+        Path tmp = directory.resolve(TMP);
+        if (!Files.isDirectory(tmp)) {
+            return;
+        }
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(tmp)) {
+            for (Path dir : stream) {
+                if (now - Files.getLastModifiedTime(dir).toMillis() > STALE_TMP_AGE) {
+                    FileUtil.deleteDirectory(dir);
+                }
+            }
+        } catch (IOException ex) {
+            log.debug("Failed to remove stale temporary directories: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Updates hit and miss counters shared by all builds that use the cache. Statistics are best effort and
+     * failures are ignored.
+     */
+    private void updateStatistics(boolean hit) {
+        try {
+            Files.createDirectories(directory);
+            try (FileChannel channel = FileChannel.open(directory.resolve(LOCK),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()
+            ) {
+                Path statsFile = directory.resolve(STATS);
+                Properties stats = new Properties();
+                if (Files.exists(statsFile)) {
+                    try (InputStream in = Files.newInputStream(statsFile)) {
+                        stats.load(in);
+                    }
+                }
+
+                long hits = Long.parseLong(stats.getProperty(HITS, "0")) + (hit ? 1 : 0);
+                long misses = Long.parseLong(stats.getProperty(MISSES, "0")) + (hit ? 0 : 1);
+                stats.setProperty(HITS, Long.toString(hits));
+                stats.setProperty(MISSES, Long.toString(misses));
+                try (OutputStream out = Files.newOutputStream(statsFile)) {
+                    stats.store(out, null);
+                }
+
+                log.info(String.format("Image cache statistics: %d hits, %d misses, hit rate %.1f%%",
+                        hits, misses, 100.0 * hits / (hits + misses)));
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.debug("Failed to update image cache statistics: " + ex.getMessage());
+        }
+    }
+}
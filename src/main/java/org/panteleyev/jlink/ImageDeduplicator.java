@@ -0,0 +1,155 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * <p>Replaces identical files of several images with hard links to a single file.</p>
+ * <p>Files are grouped by size and permissions, only files of the same group are hashed. Files that are already
+ * hard links to the same file are hashed once. Duplicates are replaced atomically, so file content is never
+ * modified in place and images restored from the image cache stay intact.</p>
+ */
+final class ImageDeduplicator {
+    private final Log log;
+    private int linked;
+    private long sizeBefore;
+    private long sizeAfter;
+
+    ImageDeduplicator(Log log) {
+        this.log = log;
+    }
+
+    private static final class FileEntry {
+        private final Path path;
+        private final Object key;
+
+        FileEntry(Path path, Object key) {
+            this.path = path;
+            this.key = key;
+        }
+    }
+
+    /**
+     * Deduplicates files of all images.
+     *
+     * @param images image directories
+     */
+    void deduplicate(Collection<Path> images) throws IOException {
+        Map<String, List<FileEntry>> groups = new LinkedHashMap<>();
+        Map<Object, Long> sizes = new HashMap<>();
+        for (Path image : images) {
+            for (Path file : FileUtil.listFiles(image)) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                Object key = attributes.fileKey() == null ? file : attributes.fileKey();
+                sizes.put(key, attributes.size());
+                if (attributes.size() == 0) {
+                    continue;
+                }
+                groups.computeIfAbsent(attributes.size() + ":" + permissions(file), k -> new ArrayList<>())
+                        .add(new FileEntry(file, key));
+            }
+        }
+        sizeBefore = sum(sizes);
+
+        for (List<FileEntry> group : groups.values()) {
+            if (group.size() < 2 || group.stream().map(e -> e.key).distinct().count() < 2) {
+                continue;
+            }
+
+            Map<Object, String> hashes = new HashMap<>();
+            Map<String, FileEntry> originals = new HashMap<>();
+            for (FileEntry entry : group) {
+                String hash = hashes.get(entry.key);
+                if (hash == null) {
+                    hash = FileUtil.sha256(entry.path);
+                    hashes.put(entry.key, hash);
+                }
+                FileEntry original = originals.putIfAbsent(hash, entry);
+                if (original != null && !original.key.equals(entry.key) && link(original.path, entry.path)) {
+                    linked++;
+                }
+            }
+        }
+
+        sizes.clear();
+        for (Path image : images) {
+            for (Path file : FileUtil.listFiles(image)) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                sizes.put(attributes.fileKey() == null ? file : attributes.fileKey(), attributes.size());
+            }
+        }
+        sizeAfter = sum(sizes);
+    }
+
+    /**
+     * Returns number of files replaced by hard links.
+     */
+    int getLinked() {
+        return linked;
+    }
+
+    /**
+     * Returns disk space occupied by image files before deduplication.
+     */
+    long getSizeBefore() {
+        return sizeBefore;
+    }
+
+    /**
+     * Returns disk space occupied by image files after deduplication.
+     */
+    long getSizeAfter() {
+        return sizeAfter;
+    }
+
+    private boolean link(Path original, Path duplicate) {
+        Path tmp = duplicate.resolveSibling(duplicate.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.createLink(tmp, original);
+            Files.move(tmp, duplicate, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (UnsupportedOperationException | IOException ex) {
+            log.debug("Failed to link " + duplicate + " to " + original + ": " + ex.getMessage());
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException e) {
+                log.debug("Failed to delete " + tmp + ": " + e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    private static String permissions(Path file) throws IOException {
+        try {
+            return PosixFilePermissions.toString(Files.readAttributes(file, PosixFileAttributes.class).permissions());
+        } catch (UnsupportedOperationException ex) {
+            return Files.isExecutable(file) ? "x" : "";
+        }
+    }
+
+    private static long sum(Map<Object, Long> sizes) {
+        long total = 0;
+        for (long size : sizes.values()) {
+            total += size;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.ProviderNotFoundException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.panteleyev.jlink.StringUtil.formatSize;
+
+/**
+ * <p>Size breakdown of the image by module, package and resource type.</p>
+ * <p>Content of the <code>lib/modules</code> jimage is read through the jrt file system of the image, so sizes of
+ * modules and packages are uncompressed sizes of their resources. Files outside the jimage are reported by their
+ * size on disk.</p>
+ */
+final class ImageFootprint {
+    static final String JIMAGE = "lib/modules";
+    static final String CLASSES = "classes";
+    static final String RESOURCES = "resources";
+    static final String NATIVE_LIBRARIES = "nativeLibraries";
+    static final String OTHER_FILES = "otherFiles";
+
+    private static final String JRT_FS_JAR = "lib/jrt-fs.jar";
+    private static final URI JRT_URI = URI.create("jrt:/");
+
+    private static final class ModuleSize {
+        private long classes;
+        private long resources;
+        private final Map<String, Long> packages = new TreeMap<>();
+
+        long total() {
+            return classes + resources;
+        }
+    }
+
+    private final Map<String, ModuleSize> modules = new TreeMap<>();
+    private final Map<String, Long> files = new TreeMap<>();
+    private long jimageSize;
+
+    /**
+     * Analyzes the image.
+     *
+     * @param image image directory
+     */
+    static ImageFootprint analyze(Path image) throws IOException {
+        ImageFootprint footprint = new ImageFootprint();
+        for (Path file : FileUtil.listFiles(image)) {
+            String name = image.relativize(file).toString().replace('\\', '/');
+            if (name.equals(JIMAGE)) {
+                footprint.jimageSize = Files.size(file);
+            } else {
+                footprint.addFile(name, Files.size(file));
+            }
+        }
+        if (footprint.jimageSize == 0) {
+            throw new IOException(JIMAGE + " not found in " + image);
+        }
+
+        URLClassLoader loader = null;
+        FileSystem fs;
+        try {
+            // JDK 9 and later loads jrt-fs.jar of the image if java.home differs from the current runtime
+            fs = FileSystems.newFileSystem(JRT_URI,
+                    Collections.singletonMap("java.home", image.toAbsolutePath().toString()));
+        } catch (ProviderNotFoundException ex) {
+            // JDK 8 has no jrt provider, jrt-fs.jar locates the image by its own location
+            Path jrtFsJar = image.resolve(JRT_FS_JAR);
+            if (!Files.isRegularFile(jrtFsJar)) {
+                throw new IOException(JRT_FS_JAR + " not found in " + image);
+            }
+            loader = new URLClassLoader(new URL[]{jrtFsJar.toUri().toURL()});
+            fs = FileSystems.newFileSystem(JRT_URI, Collections.emptyMap(), loader);
+        }
+
+        try (FileSystem jrt = fs; URLClassLoader l = loader) {
+            Path root = jrt.getPath("/modules");
+            try (DirectoryStream<Path> moduleDirs = Files.newDirectoryStream(root)) {
+                for (Path moduleDir : moduleDirs) {
+                    String module = moduleDir.getFileName().toString().replace("/", "");
+                    try (Stream<Path> resources = Files.walk(moduleDir)) {
+                        for (Path resource : (Iterable<Path>) resources::iterator) {
+                            if (Files.isRegularFile(resource)) {
+                                footprint.addResource(module, moduleDir.relativize(resource).toString(),
+                                        Files.size(resource));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return footprint;
+    }
+
+    /**
+     * Adds resource of the jimage.
+     *
+     * @param module module name
+     * @param path   resource path relative to the module root
+     * @param size   uncompressed size
+     */
+    void addResource(String module, String path, long size) {
+        ModuleSize moduleSize = modules.computeIfAbsent(module, k -> new ModuleSize());
+        if (path.endsWith(".class")) {
+            moduleSize.classes += size;
+        } else {
+            moduleSize.resources += size;
+        }
+        int index = path.lastIndexOf('/');
+        String pkg = index < 0 ? "" : path.substring(0, index).replace('/', '.');
+        moduleSize.packages.merge(pkg, size, Long::sum);
+    }
+
+    /**
+     * Adds file outside the jimage.
+     *
+     * @param path path relative to the image directory with '/' as separator
+     * @param size file size
+     */
+    void addFile(String path, long size) {
+        files.put(path, size);
+    }
+
+    void setJimageSize(long jimageSize) {
+        this.jimageSize = jimageSize;
+    }
+
+    /**
+     * Returns size of the image on disk.
+     */
+    long getImageSize() {
+        long total = jimageSize;
+        for (long size : files.values()) {
+            total += size;
+        }
+        return total;
+    }
+
+    /**
+     * Returns uncompressed sizes of modules.
+     */
+    Map<String, Long> getModuleSizes() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, ModuleSize> entry : modules.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().total());
+        }
+        return result;
+    }
+
+    /**
+     * Returns total size by resource type: classes, resources, native libraries and other files outside the jimage.
+     */
+    Map<String, Long> getTypeSizes() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        long classes = 0;
+        long resources = 0;
+        for (ModuleSize m : modules.values()) {
+            classes += m.classes;
+            resources += m.resources;
+        }
+        long nativeLibraries = 0;
+        long otherFiles = 0;
+        for (Map.Entry<String, Long> entry : files.entrySet()) {
+            if (isNativeLibrary(entry.getKey())) {
+                nativeLibraries += entry.getValue();
+            } else {
+                otherFiles += entry.getValue();
+            }
+        }
+        result.put(CLASSES, classes);
+        result.put(RESOURCES, resources);
+        result.put(NATIVE_LIBRARIES, nativeLibraries);
+        result.put(OTHER_FILES, otherFiles);
+        return result;
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("bytes", getImageSize());
+        map.put("jimageBytes", jimageSize);
+        map.put("types", getTypeSizes());
+
+        Map<String, Object> moduleMap = new LinkedHashMap<>();
+        for (Map.Entry<String, ModuleSize> entry : modules.entrySet()) {
+            ModuleSize m = entry.getValue();
+            Map<String, Object> module = new LinkedHashMap<>();
+            module.put("bytes", m.total());
+            module.put(CLASSES, m.classes);
+            module.put(RESOURCES, m.resources);
+            module.put("packages", new LinkedHashMap<>(m.packages));
+            moduleMap.put(entry.getKey(), module);
+        }
+        map.put("modules", moduleMap);
+        map.put("files", new LinkedHashMap<>(files));
+        return map;
+    }
+
+    /**
+     * Returns lines of the summary, modules are sorted by size.
+     *
+     * @param maxModules maximum number of listed modules
+     */
+    List<String> summary(int maxModules) {
+        List<String> lines = new ArrayList<>();
+        lines.add("image " + formatSize(getImageSize()) + ", " + JIMAGE + " " + formatSize(jimageSize));
+        Map<String, Long> types = getTypeSizes();
+        lines.add("jimage content (uncompressed): classes " + formatSize(types.get(CLASSES)) + ", resources "
+                + formatSize(types.get(RESOURCES)));
+        lines.add("outside jimage: native libraries " + formatSize(types.get(NATIVE_LIBRARIES)) + ", other files "
+                + formatSize(types.get(OTHER_FILES)));
+
+        List<Map.Entry<String, Long>> sorted = new ArrayList<>(getModuleSizes().entrySet());
+        sorted.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        lines.add(sorted.size() + " modules" + (sorted.size() > maxModules ? ", largest:" : ":"));
+        for (Map.Entry<String, Long> entry : sorted.subList(0, Math.min(maxModules, sorted.size()))) {
+            lines.add(String.format("  %-40s %10s", entry.getKey(), formatSize(entry.getValue())));
+        }
+        return lines;
+    }
+
+    /**
+     * Compares footprint with the baseline created by {@link #toMap()}.
+     *
+     * @return lines describing changes of the image size and module sizes
+     */
+    List<String> diff(Map<?, ?> baseline) {
+        List<String> lines = new ArrayList<>();
+        lines.add(change("image", getImageSize(), number(baseline.get("bytes"))));
+        lines.add(change(JIMAGE, jimageSize, number(baseline.get("jimageBytes"))));
+
+        Map<String, Long> baselineModules = new TreeMap<>();
+        Object moduleMap = baseline.get("modules");
+        if (moduleMap instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) moduleMap).entrySet()) {
+                Object bytes = entry.getValue() instanceof Map ? ((Map<?, ?>) entry.getValue()).get("bytes") : null;
+                baselineModules.put(entry.getKey().toString(), number(bytes));
+            }
+        }
+
+        Map<String, Long> current = getModuleSizes();
+        for (Map.Entry<String, Long> entry : current.entrySet()) {
+            Long expected = baselineModules.get(entry.getKey());
+            if (expected == null) {
+                lines.add("  added module " + entry.getKey() + " " + formatSize(entry.getValue()));
+            } else if (!expected.equals(entry.getValue())) {
+                lines.add("  " + change(entry.getKey(), entry.getValue(), expected));
+            }
+        }
+        for (Map.Entry<String, Long> entry : baselineModules.entrySet()) {
+            if (!current.containsKey(entry.getKey())) {
+                lines.add("  removed module " + entry.getKey() + " " + formatSize(entry.getValue()));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Checks size budgets.
+     *
+     * @param imageBudget   maximum size of the image on disk, zero means no limit
+     * @param moduleBudgets maximum uncompressed sizes of modules
+     * @return budget violations
+     */
+    List<String> checkBudgets(long imageBudget, Map<String, Long> moduleBudgets) {
+        List<String> violations = new ArrayList<>();
+        long imageSize = getImageSize();
+        if (imageBudget > 0 && imageSize > imageBudget) {
+            violations.add("image size " + formatSize(imageSize) + " exceeds budget " + formatSize(imageBudget));
+        }
+        Map<String, Long> moduleSizes = getModuleSizes();
+        for (Map.Entry<String, Long> entry : moduleBudgets.entrySet()) {
+            Long size = moduleSizes.get(entry.getKey());
+            if (size != null && size > entry.getValue()) {
+                violations.add("module " + entry.getKey() + " size " + formatSize(size) + " exceeds budget "
+                        + formatSize(entry.getValue()));
+            }
+        }
+        return violations;
+    }
+
+    static boolean isNativeLibrary(String path) {
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        return name.endsWith(".so") || name.endsWith(".dll") || name.endsWith(".dylib")
+                || name.contains(".so.");
+    }
+
+    private static String change(String name, long size, long expected) {
+        long delta = size - expected;
+        String percent = expected > 0 ? String.format(" (%+.1f%%)", delta * 100.0 / expected) : "";
+        return name + " " + formatSize(size) + ", baseline " + formatSize(expected) + ", change "
+                + (delta < 0 ? "-" : "+") + formatSize(Math.abs(delta)) + percent;
+    }
+
+    static long number(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.MojoFailureException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.panteleyev.jlink.OsUtil.isWindows;
+
+/**
+ * <p>Image that consists of the base runtime containing JDK modules only and application modules copied into the
+ * image module directory.</p>
+ * <p>Base runtime does not depend on application modules, so it is linked once and then restored from the cache.
+ * Launchers are generated by the plugin and add the image module directory to the module path.</p>
+ */
+final class ImageOverlay {
+    static final String APP_DIRECTORY = "app";
+    static final String ALL_MODULE_PATH = "ALL-MODULE-PATH";
+
+    private final Set<String> systemModules;
+    private final List<ModuleInfo> appModules;
+
+    ImageOverlay(Set<String> systemModules, List<ModuleInfo> appModules) {
+        this.systemModules = systemModules;
+        this.appModules = appModules;
+    }
+
+    /**
+     * Splits modules required by the image into system and application modules.
+     *
+     * @param roots        root modules
+     * @param bindServices whether all application modules are included as any of them may provide services
+     */
+    static ImageOverlay of(ModuleGraph graph, Collection<String> roots, boolean bindServices)
+            throws MojoFailureException {
+        Set<String> rootSet = new TreeSet<>(roots);
+        if (bindServices || rootSet.remove(ALL_MODULE_PATH)) {
+            rootSet.addAll(graph.getAppModules().keySet());
+        }
+
+        Set<String> systemModules = new TreeSet<>();
+        List<ModuleInfo> appModules = new ArrayList<>();
+        for (String name : graph.closure(rootSet, true)) {
+            ModuleInfo m = graph.getAppModules().get(name);
+            if (m != null) {
+                if (m.getLocation() == null || m.getLocation().getFileName().toString().endsWith(".jmod")) {
+                    throw new MojoFailureException("Module " + name + " cannot be placed in the image module "
+                            + "directory, only jar files and exploded modules are supported");
+                }
+                appModules.add(m);
+            } else if (graph.getSystemModules().containsKey(name)) {
+                systemModules.add(name);
+            } else {
+                throw new MojoFailureException("Module " + name + " not found");
+            }
+        }
+        return new ImageOverlay(systemModules, appModules);
+    }
+
+    /**
+     * Returns JDK modules of the base runtime.
+     */
+    Set<String> getSystemModules() {
+        return systemModules;
+    }
+
+    List<ModuleInfo> getAppModules() {
+        return appModules;
+    }
+
+    /**
+     * Copies application modules into the image and creates launchers.
+     */
+    void install(Path image, List<Launcher> launchers) throws IOException, MojoFailureException {
+        if (launchers == null) {
+            launchers = Collections.emptyList();
+        }
+        for (Launcher launcher : launchers) {
+            launcher.validate();
+            String module = launcher.getModule();
+            if (!systemModules.contains(module) && appModules.stream().noneMatch(m -> m.getName().equals(module))) {
+                throw new MojoFailureException("Module " + module + " of launcher " + launcher.getName()
+                        + " is not included into the image");
+            }
+        }
+
+        Path appDirectory = image.resolve(APP_DIRECTORY);
+        Files.createDirectories(appDirectory);
+        for (ModuleInfo m : appModules) {
+            Path location = m.getLocation();
+            if (Files.isDirectory(location)) {
+                FileUtil.copyTree(location, appDirectory.resolve(m.getName()));
+            } else {
+                // Module file name does not matter for explicit modules, it may clash for different groups
+                String fileName = m.isAutomatic() ? location.getFileName().toString() : m.getName() + ".jar";
+                Files.copy(location, appDirectory.resolve(fileName), StandardCopyOption.COPY_ATTRIBUTES,
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        for (Launcher launcher : launchers) {
+            Path script = launcher.getScript(image);
+            Files.write(script, launcherScript(launcher, isWindows()).getBytes(StandardCharsets.UTF_8));
+            if (!isWindows()) {
+                Set<PosixFilePermission> permissions = EnumSet.copyOf(Files.getPosixFilePermissions(script));
+                permissions.addAll(EnumSet.of(PosixFilePermission.OWNER_EXECUTE,
+                        PosixFilePermission.GROUP_EXECUTE, PosixFilePermission.OTHERS_EXECUTE));
+                Files.setPosixFilePermissions(script, permissions);
+            }
+        }
+    }
+
+    /**
+     * Creates launcher script in the format generated by jlink with the image module directory added to the module
+     * path.
+     */
+    static String launcherScript(Launcher launcher, boolean windows) {
+        String mainClass = launcher.getMainClass();
+        String module = mainClass == null || mainClass.isEmpty() ?
+                launcher.getModule() : launcher.getModule() + "/" + mainClass;
+        if (windows) {
+            return "@echo off\r\n"
+                    + "set JLINK_VM_OPTIONS=\r\n"
+                    + "set DIR=%~dp0\r\n"
+                    + "\"%DIR%\\java\" %JLINK_VM_OPTIONS% --module-path \"%DIR%..\\" + APP_DIRECTORY + "\" -m "
+                    + module + " %*\r\n";
+        } else {
+            return "#!/bin/sh\n"
+                    + "JLINK_VM_OPTIONS=\n"
+                    + "DIR=`dirname $0`\n"
+                    + "\"$DIR/java\" $JLINK_VM_OPTIONS --module-path \"$DIR/../" + APP_DIRECTORY + "\" -m "
+                    + module + " \"$@\"\n";
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * State of the previously generated image stored next to the image directory.
+ */
+final class ImageState {
+    private static final String SUFFIX = ".jlink-state";
+
+    private static final String FINGERPRINT = "fingerprint";
+    private static final String EXECUTABLE = "executable";
+    private static final String IMAGE_FILES = "image.files";
+    private static final String IMAGE_SIZE = "image.size";
+    private static final String FORK_TIME = "link.forkTime";
+
+    private final Path file;
+    private final FileHashIndex index = new FileHashIndex();
+    private final boolean exists;
+    private String fingerprint;
+    private String executable;
+    private long imageFiles;
+    private long imageSize;
+    private long forkTime;
+
+    private ImageState(Path file, Properties properties) {
+        this.file = file;
+        this.exists = properties != null;
+        this.forkTime = -1;
+        if (properties != null) {
+            fingerprint = properties.getProperty(FINGERPRINT);
+            executable = properties.getProperty(EXECUTABLE);
+            imageFiles = parseLong(properties.getProperty(IMAGE_FILES));
+            imageSize = parseLong(properties.getProperty(IMAGE_SIZE));
+            forkTime = parseLong(properties.getProperty(FORK_TIME));
+            index.load(properties);
+        }
+    }
+
+    static Path stateFile(Path output) {
+        return output.resolveSibling(output.getFileName() + SUFFIX);
+    }
+
+    static ImageState load(Path output) {
+        Path file = stateFile(output);
+        if (!Files.isRegularFile(file)) {
+            return new ImageState(file, null);
+        }
+
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+            return new ImageState(file, properties);
+        } catch (IOException | IllegalArgumentException ex) {
+            return new ImageState(file, null);
+        }
+    }
+
+    boolean exists() {
+        return exists;
+    }
+
+    FileHashIndex getIndex() {
+        return index;
+    }
+
+    String getFingerprint() {
+        return fingerprint;
+    }
+
+    String getExecutable() {
+        return executable;
+    }
+
+    /**
+     * Returns duration of the last forked jlink execution in milliseconds or -1 if unknown.
+     */
+    long getForkTime() {
+        return forkTime;
+    }
+
+    void setForkTime(long forkTime) {
+        this.forkTime = forkTime;
+    }
+
+    /**
+     * Checks that the image directory still contains the same number and total size of files as it had when the
+     * state was stored.
+     */
+    boolean isImageIntact(Path output) throws IOException {
+        if (!Files.isDirectory(output) || !Files.isRegularFile(output.resolve("release"))) {
+            return false;
+        }
+
+        List<Path> files = FileUtil.listFiles(output);
+        return files.size() == imageFiles && totalSize(files) == imageSize;
+    }
+
+    void store(String fingerprint, String executable, Path output) throws IOException {
+        List<Path> files = FileUtil.listFiles(output);
+
+        Properties properties = new Properties();
+        properties.setProperty(FINGERPRINT, fingerprint);
+        properties.setProperty(EXECUTABLE, executable);
+        properties.setProperty(IMAGE_FILES, Long.toString(files.size()));
+        properties.setProperty(IMAGE_SIZE, Long.toString(totalSize(files)));
+        if (forkTime >= 0) {
+            properties.setProperty(FORK_TIME, Long.toString(forkTime));
+        }
+        index.store(properties);
+
+        try (OutputStream out = Files.newOutputStream(file)) {
+            properties.store(out, "jlink-maven-plugin image state");
+        }
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static long totalSize(List<Path> files) throws IOException {
+        long size = 0;
+        for (Path f : files) {
+            size += Files.size(f);
+        }
+        return size;
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return value == null ? -1 : Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * <p>Synchronizes image directory into the install directory. Files whose size or content hash differ are copied,
+ * files that are not in the image are deleted, unchanged files are not touched.</p>
+ * <p>Files are copied in parallel into temporary files next to their targets and then renamed over them,
+ * atomically where the file system supports it, so processes running the installed image keep using the old
+ * files. Hashes of installed files are kept in the index next to the install directory, installed files are not
+ * read again while their size and modification time do not change.</p>
+ */
+final class ImageSync {
+    private static final String INDEX_SUFFIX = ".jlink-sync";
+    private static final String TMP_SUFFIX = ".jlink-tmp";
+
+    private final int threads;
+    private final AtomicInteger copied = new AtomicInteger();
+    private final AtomicInteger unchanged = new AtomicInteger();
+    private final AtomicInteger deleted = new AtomicInteger();
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    ImageSync(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    static Path indexFile(Path installDirectory) {
+        return installDirectory.resolveSibling(installDirectory.getFileName() + INDEX_SUFFIX);
+    }
+
+    /**
+     * Makes target directory contain exactly the files of the source directory.
+     */
+    void sync(Path source, Path target) throws IOException, InterruptedException {
+        Path indexFile = indexFile(target);
+        FileHashIndex index = new FileHashIndex();
+        if (Files.isRegularFile(indexFile)) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(indexFile)) {
+                properties.load(in);
+            } catch (IllegalArgumentException ex) {
+                // Broken index, installed files are hashed again
+            }
+            index.load(properties);
+        }
+
+        if (Files.isRegularFile(target)) {
+            Files.delete(target);
+        }
+        Files.createDirectories(target);
+        Set<String> paths = new HashSet<>();
+        try (Stream<Path> stream = Files.walk(source)) {
+            for (Path dir : (Iterable<Path>) stream.filter(Files::isDirectory)::iterator) {
+                String relative = source.relativize(dir).toString();
+                paths.add(relative);
+                prepare(target.resolve(relative), true);
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Path file : FileUtil.listFiles(source)) {
+                String relative = source.relativize(file).toString();
+                paths.add(relative);
+                futures.add(executor.submit(() -> {
+                    syncFile(file, target.resolve(relative), index);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause.getMessage(), cause);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        deleteStale(target, paths);
+
+        Properties properties = new Properties();
+        index.store(properties);
+        try (OutputStream out = Files.newOutputStream(indexFile)) {
+            properties.store(out, "jlink-maven-plugin installed files");
+        }
+    }
+
+    int getCopied() {
+        return copied.get();
+    }
+
+    int getUnchanged() {
+        return unchanged.get();
+    }
+
+    int getDeleted() {
+        return deleted.get();
+    }
+
+    long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("copiedFiles", getCopied());
+        map.put("unchangedFiles", getUnchanged());
+        map.put("deletedFiles", getDeleted());
+        map.put("bytesWritten", getBytesWritten());
+        return map;
+    }
+
+    private void syncFile(Path source, Path target, FileHashIndex index) throws IOException {
+        if (Files.isRegularFile(target) && Files.size(target) == Files.size(source)
+                && index.hash(target).equals(index.hash(source))) {
+            unchanged.incrementAndGet();
+            return;
+        }
+
+        prepare(target, false);
+        Path tmp = target.resolveSibling(target.getFileName() + TMP_SUFFIX);
+        try {
+            MessageDigest digest = FileUtil.newDigest();
+            try (InputStream in = new DigestInputStream(Files.newInputStream(source), digest)) {
+                bytesWritten.addAndGet(Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING));
+            }
+            PosixFileAttributeView posix = Files.getFileAttributeView(tmp, PosixFileAttributeView.class);
+            if (posix != null) {
+                posix.setPermissions(Files.getPosixFilePermissions(source));
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            index.put(target, FileUtil.toHex(digest.digest()));
+            copied.incrementAndGet();
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Removes installed files and directories that conflict with the path, creates directories.
+     */
+    private static void prepare(Path path, boolean directory) throws IOException {
+        if (directory ? Files.isRegularFile(path) : Files.isDirectory(path)) {
+            FileUtil.deleteDirectory(path);
+        }
+        Files.createDirectories(directory ? path : path.getParent());
+    }
+
+    private void deleteStale(Path target, Set<String> paths) throws IOException {
+        Files.walkFileTree(target, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (!paths.contains(target.relativize(file).toString())) {
+                    Files.delete(file);
+                    deleted.incrementAndGet();
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                if (exc != null) {
+                    throw exc;
+                }
+                if (!paths.contains(target.relativize(dir).toString())) {
+                    Files.delete(dir);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
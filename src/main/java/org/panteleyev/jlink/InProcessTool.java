@@ -0,0 +1,61 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * <p>Tool executed in the current JVM via <code>java.util.spi.ToolProvider</code>. The plugin is compiled for Java 8,
+ * so tool provider API is accessed via reflection.</p>
+ * <p>jlink is not safe to run concurrently in the same JVM, so executions are serialized.</p>
+ */
+final class InProcessTool {
+    private static final String TOOL_PROVIDER = "java.util.spi.ToolProvider";
+    private static final Object LOCK = new Object();
+
+    private final Object provider;
+    private final Method runMethod;
+
+    private InProcessTool(Object provider, Method runMethod) {
+        this.provider = provider;
+        this.runMethod = runMethod;
+    }
+
+    /**
+     * Finds tool provider with the specified name. Returns empty optional if tool is not available or current
+     * JVM does not support tool providers.
+     */
+    static Optional<InProcessTool> find(String name) {
+        try {
+            Class<?> providerClass = Class.forName(TOOL_PROVIDER);
+            Optional<?> provider = (Optional<?>) providerClass.getMethod("findFirst", String.class)
+                    .invoke(null, name);
+            if (!provider.isPresent()) {
+                return Optional.empty();
+            }
+            Method runMethod = providerClass.getMethod("run", PrintWriter.class, PrintWriter.class, String[].class);
+            return Optional.of(new InProcessTool(provider.get(), runMethod));
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return Optional.empty();
+        }
+    }
+
+    int run(Consumer<String> out, Consumer<String> err, String... args) throws Exception {
+        try (PrintWriter outWriter = new PrintWriter(new LineWriter(out));
+             PrintWriter errWriter = new PrintWriter(new LineWriter(err))
+        ) {
+            synchronized (LOCK) {
+                return (Integer) runMethod.invoke(provider, outWriter, errWriter, args);
+            }
+        } catch (InvocationTargetException ex) {
+            Throwable cause = ex.getCause();
+            throw cause instanceof Exception ? (Exception) cause : new RuntimeException(cause);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * <p>Watches input files and directories for changes.</p>
+ * <p>Directories are watched recursively, new subdirectories are registered as they appear. Files are watched via
+ * their parent directories, changes of other files in these directories are ignored. Inputs that do not exist yet
+ * are watched as files, so their creation is detected.</p>
+ */
+final class InputWatcher implements Closeable {
+    private final WatchService service;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    private final Set<Path> roots = new HashSet<>();
+    private final Set<Path> files = new HashSet<>();
+
+    InputWatcher(Collection<Path> inputs) throws IOException {
+        service = FileSystems.getDefault().newWatchService();
+        try {
+            for (Path input : inputs) {
+                input = input.toAbsolutePath().normalize();
+                if (Files.isDirectory(input)) {
+                    addRoot(input);
+                } else {
+                    files.add(input);
+                    Path parent = input.getParent();
+                    if (parent != null && Files.isDirectory(parent)) {
+                        register(parent);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            service.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns number of watched directories.
+     */
+    int getDirectoryCount() {
+        return directories.size();
+    }
+
+    /**
+     * Waits for the first change of inputs, then waits until there are no more changes during the quiet period,
+     * so a burst of changes is reported once.
+     *
+     * @param quietPeriod quiet period in milliseconds
+     * @return changed paths
+     */
+    Set<Path> awaitChanges(long quietPeriod) throws IOException, InterruptedException {
+        Set<Path> changes = new TreeSet<>();
+        while (changes.isEmpty()) {
+            process(service.take(), changes);
+        }
+
+        long deadline = System.currentTimeMillis() + quietPeriod;
+        while (true) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return changes;
+            }
+            WatchKey key = service.poll(remaining, TimeUnit.MILLISECONDS);
+            if (key == null) {
+                return changes;
+            }
+            int count = changes.size();
+            process(key, changes);
+            if (changes.size() > count) {
+                deadline = System.currentTimeMillis() + quietPeriod;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        service.close();
+    }
+
+    private void process(WatchKey key, Set<Path> changes) throws IOException {
+        Path directory = directories.get(key);
+        if (directory != null) {
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    // Events are lost, assume that inputs in the directory changed
+                    if (isInRoot(directory) || files.stream().anyMatch(f -> directory.equals(f.getParent()))) {
+                        changes.add(directory);
+                    }
+                    continue;
+                }
+
+                Path child = directory.resolve((Path) event.context());
+                if (files.contains(child)) {
+                    changes.add(child);
+                    if (event.kind() == ENTRY_CREATE && Files.isDirectory(child)) {
+                        addRoot(child);
+                    }
+                } else if (isInRoot(child)) {
+                    changes.add(child);
+                    if (event.kind() == ENTRY_CREATE && Files.isDirectory(child)) {
+                        // Files may be created before the directory is registered
+                        registerTree(child);
+                    }
+                }
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+    }
+
+    private boolean isInRoot(Path path) {
+        for (Path root : roots) {
+            if (path.startsWith(root)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addRoot(Path directory) throws IOException {
+        roots.add(directory);
+        registerTree(directory);
+    }
+
+    private void registerTree(Path directory) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                register(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void register(Path directory) throws IOException {
+        if (!directories.containsValue(directory)) {
+            directories.put(directory.register(service, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), directory);
+        }
+    }
+}
@@ -1,29 +1,66 @@
 /*
- Copyright © 2024-2025 Petr Panteleyev <petr@panteleyev.org>
+ Copyright © 2024-2026 Petr Panteleyev <petr@panteleyev.org>
  SPDX-License-Identifier: BSD-2-Clause
  */
 package org.panteleyev.jlink;
 
+import org.apache.maven.RepositoryUtils;
+import org.apache.maven.artifact.Artifact;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.apache.maven.shared.utils.cli.CommandLineException;
+import org.apache.maven.project.DefaultDependencyResolutionRequest;
+import org.apache.maven.project.DependencyResolutionException;
+import org.apache.maven.project.DependencyResolutionRequest;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.MavenProjectHelper;
+import org.apache.maven.project.ProjectDependenciesResolver;
 import org.apache.maven.shared.utils.cli.CommandLineUtils;
 import org.apache.maven.shared.utils.cli.Commandline;
 import org.apache.maven.toolchain.Toolchain;
 import org.apache.maven.toolchain.ToolchainManager;
+import org.eclipse.aether.graph.Dependency;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
 
 import static org.panteleyev.jlink.CommandLineParameter.ADD_MODULES;
 import static org.panteleyev.jlink.CommandLineParameter.BIND_SERVICES;
+import static org.panteleyev.jlink.CommandLineParameter.COMPRESS;
 import static org.panteleyev.jlink.CommandLineParameter.ENDIAN;
 import static org.panteleyev.jlink.CommandLineParameter.GENERATE_CDS_ARCHIVE;
 import static org.panteleyev.jlink.CommandLineParameter.IGNORE_SIGNING_INFORMATION;
@@ -32,12 +69,15 @@ import static org.panteleyev.jlink.CommandLineParameter.LIMIT_MODULES;
 import static org.panteleyev.jlink.CommandLineParameter.MODULE_PATH;
 import static org.panteleyev.jlink.CommandLineParameter.NO_HEADER_FILES;
 import static org.panteleyev.jlink.CommandLineParameter.NO_MAN_PAGES;
+import static org.panteleyev.jlink.CommandLineParameter.ORDER_RESOURCES;
 import static org.panteleyev.jlink.CommandLineParameter.OUTPUT;
 import static org.panteleyev.jlink.CommandLineParameter.STRIP_DEBUG;
+import static org.panteleyev.jlink.CommandLineParameter.STRIP_JAVA_DEBUG_ATTRIBUTES;
+import static org.panteleyev.jlink.CommandLineParameter.STRIP_NATIVE_DEBUG_SYMBOLS;
 import static org.panteleyev.jlink.CommandLineParameter.VERBOSE;
 import static org.panteleyev.jlink.OsUtil.isWindows;
-import static org.panteleyev.jlink.StringUtil.isEmpty;
-import static org.panteleyev.jlink.StringUtil.isNotEmpty;
+import static org.panteleyev.jlink.StringUtil.formatSize;
+import static org.panteleyev.jlink.StringUtil.parseSize;
 
 /**
  * <p>Generates jlink image.<br>
@@ -51,13 +91,29 @@ public class JLinkMojo extends AbstractMojo {
     public static final String EXECUTABLE = "jlink";
 
     private static final String DRY_RUN_PROPERTY = "jlink.dryRun";
+    private static final String FORCE_PROPERTY = "jlink.force";
+    private static final int OUTPUT_TAIL_LINES = 50;
+    private static final String ANALYSIS_INDEX = "jlink-analysis.properties";
+    private static final String ANALYSIS_CACHE = "jlink-analysis";
 
     @Component
     private ToolchainManager toolchainManager;
 
+    @Component
+    private MavenProjectHelper projectHelper;
+
+    @Component
+    private ProjectDependenciesResolver dependenciesResolver;
+
     @Parameter(defaultValue = "${session}", required = true, readonly = true)
     private MavenSession session;
 
+    @Parameter(defaultValue = "${project}", required = true, readonly = true)
+    private MavenProject project;
+
+    @Parameter(defaultValue = "${project.build.directory}", required = true, readonly = true)
+    private File buildDirectory;
+
     /**
      * Skips plugin execution.
      *
@@ -74,6 +130,19 @@ public class JLinkMojo extends AbstractMojo {
     @Parameter
     private List<String> addModules;
 
+    /**
+     * <p>Computes minimal set of root modules for --add-modules from the content of module paths.</p>
+     * <p>Roots are modules that are not required by other modules found in module paths. JDK modules used by
+     * automatic modules are found by scanning their classes. Explicitly configured addModules are replaced by
+     * the computed list, difference between them is logged.</p>
+     * <p>Module descriptors of jar files are cached by content hash in cacheDirectory when cache is enabled,
+     * otherwise in the build directory.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.autoAddModules", defaultValue = "false")
+    private boolean autoAddModules;
+
     /**
      * <p>--bind-services</p>
      *
@@ -82,6 +151,40 @@ public class JLinkMojo extends AbstractMojo {
     @Parameter(defaultValue = "false")
     private boolean bindServices;
 
+    /**
+     * <p>Replaces --bind-services by explicit --add-modules that include providers of services listed in
+     * boundServices only.</p>
+     * <p>Services are bound the same way as the module system does, modules added by each service binding and their
+     * sizes are logged. Requires JDK with the <code>jmods</code> directory.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.pruneServiceBindings", defaultValue = "false")
+    private boolean pruneServiceBindings;
+
+    /**
+     * <p>Services whose providers are included into the image when service bindings are pruned.</p>
+     * <pre>
+     * &lt;boundServices>
+     *     &lt;boundService>java.sql.Driver&lt;/boundService>
+     * &lt;/boundServices>
+     * </pre>
+     *
+     * @since 1.2.0
+     */
+    @Parameter
+    private List<String> boundServices;
+
+    /**
+     * <p>--compress &lt;compress></p>
+     * <p>Compression level of resources. JDK 21 and later accept <code>zip-0</code> to <code>zip-9</code>,
+     * previous versions accept <code>0</code>, <code>1</code> or <code>2</code>.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter
+    private String compress;
+
     /**
      * <p>--endian &lt;endian></p>
      * <p>Possible values:</p>
@@ -98,141 +201,1607 @@ public class JLinkMojo extends AbstractMojo {
     @Parameter
     private Endian endian;
 
-    /**
-     * <p>--ignore-signing-information</p>
-     *
-     * @since 1.0.0
-     */
-    @Parameter(defaultValue = "false")
-    private boolean ignoreSigningInformation;
+    /**
+     * <p>--ignore-signing-information</p>
+     *
+     * @since 1.0.0
+     */
+    @Parameter(defaultValue = "false")
+    private boolean ignoreSigningInformation;
+
+    /**
+     * <p>--generate-cds-archive</p>
+     *
+     * @since 1.1.0
+     */
+    @Parameter(defaultValue = "false")
+    private boolean generateCdsArchive;
+
+    /**
+     * <p>--limit-modules &lt;mod>[,&lt;mod>...]</p>
+     * <p>Each module is specified by a separate &lt;limitModule> parameter.</p>
+     * <p>Example:
+     * <pre>
+     * &lt;limitModules>
+     *     &lt;limitModule>java.base&lt;/limitModule>
+     * &lt;/limitModules>
+     * </pre>
+     * </p>
+     *
+     * @since 1.0.0
+     */
+    @Parameter
+    private List<String> limitModules;
+
+    /**
+     * <p>--module-path &lt;path></p>
+     * <p>Each module path is specified by a separate &lt;modulePath> parameter.</p>
+     * <p>Example:
+     * <pre>
+     * &lt;modulePaths>
+     *     &lt;modulePath>target/jmods&lt;/modulePath>
+     * &lt;/modulePaths>
+     * </pre>
+     * </p>
+     *
+     * @since 1.0.0
+     */
+    @Parameter
+    private List<File> modulePaths;
+
+    /**
+     * <p>Adds resolved project dependencies and the project artifact to the module path.</p>
+     * <p>Artifact files are used directly from the local repository, copying dependencies into a separate directory
+     * is not required. Dependencies are resolved by the plugin only when this parameter is enabled.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.useDependencies", defaultValue = "false")
+    private boolean useDependencies;
+
+    /**
+     * <p>Scopes of dependencies added to the module path when useDependencies is enabled. Supported scopes are
+     * compile, runtime, provided and system.</p>
+     * <pre>
+     * &lt;dependencyScopes>
+     *     &lt;dependencyScope>compile&lt;/dependencyScope>
+     *     &lt;dependencyScope>runtime&lt;/dependencyScope>
+     * &lt;/dependencyScopes>
+     * </pre>
+     *
+     * @since 1.2.0
+     */
+    @Parameter
+    private List<String> dependencyScopes;
+
+    /**
+     * <p>Dependencies that are not added to the module path when useDependencies is enabled. Format is
+     * <code>groupId:artifactId[:classifier]</code>, each element may contain <code>*</code> wildcard.</p>
+     * <pre>
+     * &lt;dependencyExcludes>
+     *     &lt;dependencyExclude>org.openjfx:*:linux&lt;/dependencyExclude>
+     * &lt;/dependencyExcludes>
+     * </pre>
+     *
+     * @since 1.2.0
+     */
+    @Parameter
+    private List<String> dependencyExcludes;
+
+    /**
+     * <p>If set, dependencies are hard-linked into this directory and the directory is added to the module path
+     * instead of separate artifact files. Files are copied when hard links are not possible. Unchanged files are
+     * not linked again, files of removed dependencies are deleted.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter
+    private File dependencyStagingDirectory;
+
+    /**
+     * <p>Places output directories of reactor projects that contain module-info.class on the module path instead
+     * of their jars, so jars do not have to be packaged and copied, e.g. <code>mvn compile jlink:jlink</code>.
+     * Applies to the project itself and to dependencies built in the same reactor when useDependencies is
+     * enabled.</p>
+     * <p>Exploded modules are not staged, they are added to the module path after the staging directory.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.useReactorClasses", defaultValue = "false")
+    private boolean useReactorClasses;
+
+    /**
+     * <p>Converts automatic modules found in module paths into explicit modules, so they can be linked.</p>
+     * <p>Module descriptors are generated from class references. Jars are repackaged with generated
+     * module-info.class in parallel and cached by content hash in cacheDirectory when cache is enabled, otherwise
+     * in the build directory, so each jar is processed only once. Repackaged jars are hard-linked into
+     * synthesizedModulesDirectory which is placed first in the module path.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.synthesizeModuleInfo", defaultValue = "false")
+    private boolean synthesizeModuleInfo;
+
+    /**
+     * <p>Directory of jars with synthesized module descriptors.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(defaultValue = "${project.build.directory}/jlink-modules")
+    private File synthesizedModulesDirectory;
+
+    /**
+     * <p>Resolves module graph of each image before executing jlink. Missing modules, automatic modules, several
+     * modules with the same name in a directory, split packages, cyclic dependencies and launchers of modules that
+     * are not linked are reported at once without executing jlink.</p>
+     * <p>Validation requires JDK modules in the jmods directory, it is skipped otherwise. If module path cannot be
+     * analyzed a warning is logged and jlink is executed without validation.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.validateModules", defaultValue = "false")
+    private boolean validateModules;
+
+    /**
+     * <p>--no-header-files</p>
+     *
+     * @since 1.0.0
+     */
+    @Parameter(defaultValue = "false")
+    private boolean noHeaderFiles;
+
+    /**
+     * <p>--no-man-pages</p>
+     *
+     * @since 1.0.0
+     */
+    @Parameter(defaultValue = "false")
+    private boolean noManPages;
+
+    /**
+     * <p>--output &lt;path&gt;</p>
+     *
+     * @since 1.0.0
+     */
+    @Parameter
+    private File output;
+
+    /**
+     * <p>--strip-debug</p>
+     *
+     * @since 1.0.0
+     */
+    @Parameter(defaultValue = "false")
+    private boolean stripDebug;
+
+    /**
+     * <p>--strip-java-debug-attributes</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(defaultValue = "false")
+    private boolean stripJavaDebugAttributes;
+
+    /**
+     * <p>--strip-native-debug-symbols &lt;value></p>
+     * <p>Possible values: <code>exclude-debuginfo-files</code>, <code>keep-debuginfo-files</code>,
+     * <code>objcopy=/path/to/objcopy</code>. Supported on Linux only.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter
+    private String stripNativeDebugSymbols;
+
+    /**
+     * --verbose
+     *
+     * @since 1.0.0
+     */
+    @Parameter(defaultValue = "false")
+    private boolean verbose;
+
+    /**
+     * <p>--launcher &lt;name>=&lt;module>[/&lt;mainClass>]</p>
+     * <p>Adds a launcher command of the given name for the module and the main class</p>
+     * <pre>
+     * &lt;launchers>
+     *     &lt;launcher>
+     *         &lt;name>name-of-the-launcher&lt;/name>
+     *         &lt;module>module&lt;/module>
+     *         &lt;mainClass>optionalMainClass&lt;/mainClass>
+     *     &lt;/launcher>
+     * &lt;/launchers>
+     * </pre>
+     *
+     * @since 1.0.0
+     */
+    @Parameter
+    private List<Launcher> launchers;
+
+    /**
+     * <p>Training run executed after the image is linked. Launcher is executed with the training arguments, created
+     * application class data archive is stored inside the image and launcher scripts are modified to use it.</p>
+     * <pre>
+     * &lt;training>
+     *     &lt;launcher>optionalLauncherName&lt;/launcher>
+     *     &lt;arguments>
+     *         &lt;argument>--training-workload&lt;/argument>
+     *     &lt;/arguments>
+     *     &lt;jvmOptions>
+     *         &lt;jvmOption>-Dtraining=true&lt;/jvmOption>
+     *     &lt;/jvmOptions>
+     *     &lt;mode>AUTO&lt;/mode>
+     *     &lt;timeout>600&lt;/timeout>
+     * &lt;/training>
+     * </pre>
+     * <p>Modes:</p>
+     * <table>
+     *     <tr><th>Value</th><th>Description</th></tr>
+     *     <tr><td>AUTO</td><td>AOT on JDK 24 and later, CDS on earlier versions</td></tr>
+     *     <tr><td>CDS</td><td>Dynamic CDS archive, -XX:ArchiveClassesAtExit, JDK 13 and later</td></tr>
+     *     <tr><td>AOT</td><td>AOT cache, -XX:AOTMode=record/create, JDK 24 and later</td></tr>
+     * </table>
+     *
+     * @since 1.2.0
+     */
+    @Parameter
+    private Training training;
+
+    /**
+     * <p>Builds the image as the base runtime containing JDK modules only and application modules copied into the
+     * <code>app</code> directory of the image.</p>
+     * <p>If image cache is enabled base runtime is linked once and stored in the cache keyed by jlink version, JDK
+     * modules and options, so rebuilding the image after application changes does not execute jlink. Launchers are
+     * generated by the plugin and add the <code>app</code> directory to the module path.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.overlay", defaultValue = "false")
+    private boolean overlay;
+
+    /**
+     * <p>Orders classes inside <code>lib/modules</code> in the order they are loaded by the training launcher.</p>
+     * <p>Image is linked, training launcher is executed once with class loading logging and the image is linked
+     * again with <code>--order-resources</code>, so link time is doubled. List of loaded classes is stored next to
+     * the image or in cacheDirectory when cache is enabled and reused while image inputs do not change, in this case
+     * the image is linked once. Launcher, arguments, JVM options and timeout are taken from
+     * <code>training</code> configuration if it is present.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.orderResources", defaultValue = "false")
+    private boolean orderResources;
+
+    /**
+     * <p>Enables image cache.</p>
+     * <p>Generated images are stored in the cache directory keyed by the inputs fingerprint. If an image with the
+     * same fingerprint is found in the cache it is copied into the output directory instead of executing jlink.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.cache", defaultValue = "false")
+    private boolean cache;
+
+    /**
+     * <p>Image cache directory. May be shared by several builds and build agents.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.cacheDirectory", defaultValue = "${user.home}/.m2/jlink-cache")
+    private File cacheDirectory;
+
+    /**
+     * <p>Maximum size of the image cache. Least recently used images are evicted when cache exceeds this size.</p>
+     * <p>Size may be specified with K, M or G suffix.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(defaultValue = "10G")
+    private String cacheMaxSize;
+
+    /**
+     * <p>Images not used for the specified number of days are evicted from the image cache.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(defaultValue = "30")
+    private int cacheMaxAge;
+
+    /**
+     * <p>Defines how jlink is executed.</p>
+     * <table>
+     *     <tr><th>Value</th><th>Description</th></tr>
+     *     <tr><td>AUTO</td><td>In-process if Maven runs on the same or compatible JDK, otherwise fork</td></tr>
+     *     <tr><td>IN_PROCESS</td><td>In-process via java.util.spi.ToolProvider</td></tr>
+     *     <tr><td>FORK</td><td>Separate jlink process</td></tr>
+     * </table>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.executionMode", defaultValue = "AUTO")
+    private ExecutionMode executionMode;
+
+    /**
+     * <p>jlink execution timeout in seconds. If jlink process does not finish in time it is terminated and build
+     * fails. Zero means no timeout.</p>
+     * <p>In-process execution cannot be terminated, so in <code>AUTO</code> execution mode jlink process is forked
+     * when timeout is set.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.timeout", defaultValue = "0")
+    private int timeout;
+
+    /**
+     * <p>Images to build. Each image is linked by a separate jlink execution, images are linked in parallel.</p>
+     * <p>Image parameters that are not specified are taken from the plugin configuration. Image name defaults to
+     * the name of the output directory.</p>
+     * <pre>
+     * &lt;images>
+     *     &lt;image>
+     *         &lt;name>full&lt;/name>
+     *         &lt;output>target/jlink-full&lt;/output>
+     *         &lt;addModules>
+     *             &lt;addModule>ALL-MODULE-PATH&lt;/addModule>
+     *         &lt;/addModules>
+     *     &lt;/image>
+     *     &lt;image>
+     *         &lt;name>minimal&lt;/name>
+     *         &lt;output>target/jlink-minimal&lt;/output>
+     *         &lt;stripDebug>true&lt;/stripDebug>
+     *     &lt;/image>
+     * &lt;/images>
+     * </pre>
+     * <p>Supported image parameters: name, output, addModules, autoAddModules, limitModules, launchers,
+     * bindServices, compress, endian, ignoreSigningInformation, generateCdsArchive, noHeaderFiles, noManPages,
+     * stripDebug, stripJavaDebugAttributes, stripNativeDebugSymbols, verbose, training, overlay, archive,
+     * orderResources, pruneServiceBindings, boundServices, installDirectory.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter
+    private List<Image> images;
+
+    /**
+     * <p>Maximum number of images linked in parallel. Zero means number of available processors.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.threads", defaultValue = "0")
+    private int threads;
+
+    /**
+     * <p>Replaces identical files of the generated images with hard links after all images are linked.</p>
+     * <p>Images built from the same JDK share most of their files: native libraries, configuration, legal notices
+     * and <code>lib/modules</code> if module sets are the same. Files of the deduplicated images must not be
+     * modified in place.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.deduplicate", defaultValue = "false")
+    private boolean deduplicate;
+
+    /**
+     * <p>Writes each image into an archive of the specified format: <code>TAR_GZ</code> or <code>ZIP</code>.</p>
+     * <p>Archive <code>${project.build.finalName}-&lt;image name&gt;.&lt;extension&gt;</code> is created in the
+     * build directory and attached to the project with the image name as classifier. Large files are compressed
+     * in parallel blocks.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.archive")
+    private ArchiveFormat archive;
+
+    /**
+     * <p>Directory the image is installed into after it is linked.</p>
+     * <p>Only files that differ from the installed ones by size or content are copied, files that are not in the
+     * image are deleted. Each file is written into a temporary file and renamed over the installed one. Content
+     * hashes of installed files are kept in <code>&lt;installDirectory&gt;.jlink-sync</code>.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.installDirectory")
+    private File installDirectory;
+
+    /**
+     * <p>File of the build metrics report: durations of plugin phases, CPU time, module path and image sizes.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.metricsFile", defaultValue = "${project.build.directory}/jlink-metrics.json")
+    private File metricsFile;
+
+    /**
+     * <p>Maximum number of entries of the process-wide cache of file hashes, module descriptors, JDK release files
+     * and jlink executables. Zero disables the cache.</p>
+     * <p>The cache is shared by all plugin executions in the same Maven process, e.g. reactor modules or builds
+     * executed by Maven daemon. Entries are valid while size and modification time of their files do not
+     * change.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.sessionCacheSize", defaultValue = "10000")
+    private int sessionCacheSize;
+
+    private List<File> effectiveModulePaths;
+    private List<Artifact> resolvedArtifacts;
+    private final Map<Image, ImageOverlay> overlays = new HashMap<>();
+    private FileHashIndex analysisIndex;
+    private ModuleGraph moduleGraph;
+    private List<File> moduleGraphPaths;
+    private BuildMetrics metrics = new BuildMetrics();
+
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip) {
+            getLog().info("Skipping plugin execution");
+            return;
+        }
+        build();
+    }
+
+    /**
+     * Links all images. Results are empty in dry-run mode.
+     *
+     * @throws MojoExecutionException if any image failed
+     */
+    Map<Image, ImageResult> build() throws MojoExecutionException, MojoFailureException {
+        metrics = new BuildMetrics();
+        String executable = getExecutable();
+        Map<Image, Commandline> commandLines = buildCommandLines(getImages(), executable);
+
+        if (isDryRun()) {
+            getLog().warn("Dry-run mode, not executing " + EXECUTABLE);
+            return Collections.emptyMap();
+        }
+
+        Map<Image, ImageResult> results;
+        try {
+            results = linkImages(commandLines, executable);
+            if (deduplicate) {
+                deduplicate(results);
+            }
+            archive(results);
+            install(results);
+        } finally {
+            writeMetrics(executable);
+        }
+        checkFailures(results);
+        return results;
+    }
+
+    /**
+     * Combines failures of images into one exception.
+     *
+     * @throws MojoExecutionException if any image failed
+     */
+    static void checkFailures(Map<Image, ImageResult> results) throws MojoExecutionException {
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<Image, ImageResult> entry : results.entrySet()) {
+            if (entry.getValue().isFailed()) {
+                failures.add(entry.getKey().getName() + ": " + entry.getValue().getFailure().getMessage());
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new MojoExecutionException(failures.size() + " of " + results.size()
+                    + " images failed:\n" + String.join("\n", failures));
+        }
+    }
+
+    /**
+     * Forgets module paths and module graph of the previous build, so the next build sees changed inputs.
+     */
+    synchronized void resetBuildState() {
+        effectiveModulePaths = null;
+        moduleGraph = null;
+        moduleGraphPaths = null;
+        overlays.clear();
+    }
+
+    /**
+     * Returns configured module paths and project dependencies before staging, i.e. files and directories that
+     * define image content.
+     */
+    List<Path> getInputs() throws MojoExecutionException, MojoFailureException {
+        List<Path> result = new ArrayList<>();
+        if (modulePaths != null) {
+            for (File modulePath : modulePaths) {
+                result.add(modulePath.toPath().toAbsolutePath());
+            }
+        }
+        if (useDependencies) {
+            result.addAll(getDependencyFiles());
+        }
+        return result;
+    }
+
+    /**
+     * Replaces identical files of successfully built images with hard links.
+     */
+    private void deduplicate(Map<Image, ImageResult> results) throws MojoExecutionException {
+        long start = System.nanoTime();
+        List<Path> outputs = new ArrayList<>();
+        for (Map.Entry<Image, ImageResult> entry : results.entrySet()) {
+            if (!entry.getValue().isFailed()) {
+                outputs.add(entry.getKey().getOutput().toPath().toAbsolutePath());
+            }
+        }
+
+        ImageDeduplicator deduplicator = new ImageDeduplicator(getLog());
+        try {
+            deduplicator.deduplicate(outputs);
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Failed to deduplicate images: " + ex.getMessage(), ex);
+        }
+        long saved = deduplicator.getSizeBefore() - deduplicator.getSizeAfter();
+        getLog().info("Deduplicated " + outputs.size() + " images: " + deduplicator.getLinked()
+                + " files replaced by hard links, " + formatSize(saved) + " saved, images occupy "
+                + formatSize(deduplicator.getSizeAfter()));
+        metrics.put("deduplication", deduplicationMetrics(deduplicator));
+        metrics.record("deduplicate", start);
+    }
+
+    /**
+     * Writes successfully built images into archives and attaches them to the project.
+     */
+    private void archive(Map<Image, ImageResult> results) throws MojoExecutionException {
+        long start = System.nanoTime();
+        boolean any = false;
+        for (Map.Entry<Image, ImageResult> entry : results.entrySet()) {
+            Image image = entry.getKey();
+            ArchiveFormat format = image.getArchive();
+            if (format == null || entry.getValue().isFailed()) {
+                continue;
+            }
+            any = true;
+
+            Path outputPath = image.getOutput().toPath().toAbsolutePath();
+            Path archivePath = buildDirectory.toPath().toAbsolutePath().resolve(
+                    project.getBuild().getFinalName() + "-" + image.getName() + "." + format.getExtension());
+            try {
+                if (isArchiveUpToDate(entry.getValue(), outputPath, archivePath)) {
+                    getLog().info("Archive " + archivePath + " is up to date");
+                } else {
+                    long archiveStart = System.currentTimeMillis();
+                    new ImageArchive(format, threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                            Deflater.DEFAULT_COMPRESSION)
+                            .write(outputPath, outputPath.getFileName().toString(), archivePath);
+                    getLog().info("Archive " + archivePath + " created in "
+                            + (System.currentTimeMillis() - archiveStart) + " ms, "
+                            + formatSize(Files.size(archivePath)));
+                }
+            } catch (IOException ex) {
+                throw new MojoExecutionException("Failed to create archive " + archivePath + ": "
+                        + ex.getMessage(), ex);
+            }
+            projectHelper.attachArtifact(project, format.getExtension(), image.getName(), archivePath.toFile());
+        }
+        if (any) {
+            metrics.record("archive", start);
+        }
+    }
+
+    /**
+     * Synchronizes install directories with successfully built images.
+     */
+    private void install(Map<Image, ImageResult> results) throws MojoExecutionException {
+        long start = System.nanoTime();
+        Map<String, Object> installMetrics = new LinkedHashMap<>();
+        for (Map.Entry<Image, ImageResult> entry : results.entrySet()) {
+            Image image = entry.getKey();
+            if (image.getInstallDirectory() == null || entry.getValue().isFailed()) {
+                continue;
+            }
+
+            Path outputPath = image.getOutput().toPath().toAbsolutePath();
+            Path installPath = image.getInstallDirectory().toPath().toAbsolutePath();
+            ImageSync sync = new ImageSync(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+            long installStart = System.currentTimeMillis();
+            try {
+                sync.sync(outputPath, installPath);
+            } catch (IOException ex) {
+                throw new MojoExecutionException("Failed to install image " + image.getName() + " into "
+                        + installPath + ": " + ex.getMessage(), ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new MojoExecutionException("Installation of image " + image.getName() + " interrupted", ex);
+            }
+            getLog().info("Installed image " + image.getName() + " into " + installPath + " in "
+                    + (System.currentTimeMillis() - installStart) + " ms: " + sync.getCopied() + " files copied, "
+                    + formatSize(sync.getBytesWritten()) + " written, " + sync.getUnchanged() + " unchanged, "
+                    + sync.getDeleted() + " deleted");
+            installMetrics.put(image.getName(), sync.toMap());
+        }
+        if (!installMetrics.isEmpty()) {
+            metrics.put("install", installMetrics);
+            metrics.record("install", start);
+        }
+    }
+
+    private static boolean isArchiveUpToDate(ImageResult result, Path output, Path archive) throws IOException {
+        Path stateFile = ImageState.stateFile(output);
+        return result.getStatus() == ImageResult.Status.UP_TO_DATE && Files.isRegularFile(archive)
+                && Files.isRegularFile(stateFile)
+                && Files.getLastModifiedTime(archive).compareTo(Files.getLastModifiedTime(stateFile)) >= 0;
+    }
+
+    private static Map<String, Object> deduplicationMetrics(ImageDeduplicator deduplicator) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("linkedFiles", deduplicator.getLinked());
+        map.put("bytesBefore", deduplicator.getSizeBefore());
+        map.put("bytesAfter", deduplicator.getSizeAfter());
+        return map;
+    }
+
+    private void writeMetrics(String executable) {
+        metrics.put("executable", executable);
+        metrics.put("executionMode", executionMode.name());
+        metrics.put("sessionCache", SessionCache.getInstance().statistics());
+        try {
+            metrics.setInputs(getModulePaths());
+            metrics.report(metricsFile.toPath(), getLog());
+        } catch (Exception ex) {
+            getLog().warn("Failed to write build metrics: " + ex.getMessage());
+        }
+    }
+
+    boolean isSkip() {
+        return skip;
+    }
+
+    boolean isDryRun() {
+        return "true".equalsIgnoreCase(System.getProperty(DRY_RUN_PROPERTY, "false"));
+    }
+
+    /**
+     * Returns jlink executable from the toolchain or from the JDK Maven runs on.
+     */
+    String getExecutable() throws MojoExecutionException {
+        long start = System.nanoTime();
+        SessionCache.getInstance().setMaxEntries(sessionCacheSize);
+        Toolchain tc = toolchainManager.getToolchainFromBuildContext(TOOLCHAIN, session);
+        if (tc != null) {
+            getLog().info("Toolchain in jpackage-maven-plugin: " + tc);
+        }
+
+        // Lookup result is reused by executions in the same Maven process while the executable does not change
+        String key = EXECUTABLE + "|" + (tc == null ? "java.home " + System.getProperty("java.home") : tc);
+        String executable;
+        try {
+            executable = SessionCache.getInstance().getPath(key, () -> getJPackageExecutable(tc).orElse(null));
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Failed to find " + EXECUTABLE + ": " + ex.getMessage(), ex);
+        }
+        if (executable == null) {
+            throw new MojoExecutionException("Failed to find " + EXECUTABLE);
+        }
+
+        getLog().info("Using: " + executable);
+        metrics.record("executable", start);
+        return executable;
+    }
+
+    /**
+     * Builds jlink arguments of each image.
+     */
+    Map<Image, Commandline> buildCommandLines(
+            List<Image> imageList,
+            String executable
+    ) throws MojoExecutionException, MojoFailureException {
+        long start = System.nanoTime();
+        getModulePaths();
+        metrics.record("modulePath", start);
+
+        boolean autoAdd = imageList.stream().anyMatch(image -> Boolean.TRUE.equals(image.getAutoAddModules()));
+        boolean anyOverlay = imageList.stream().anyMatch(image -> Boolean.TRUE.equals(image.getOverlay()));
+        boolean anyPrune = imageList.stream().anyMatch(JLinkMojo::isPruneServiceBindings);
+        boolean graphRequired = autoAdd || synthesizeModuleInfo || anyOverlay || anyPrune;
+        ModuleGraph graph = null;
+        if (graphRequired) {
+            start = System.nanoTime();
+            graph = getModuleGraph(executable, true);
+            metrics.record("analysis", start);
+        } else if (validateModules) {
+            start = System.nanoTime();
+            try {
+                graph = getModuleGraph(executable, false);
+            } catch (MojoExecutionException ex) {
+                // Validation only reports problems earlier, jlink reports them itself
+                getLog().warn(ex.getMessage() + ", module graph is not validated");
+            }
+            metrics.record("analysis", start);
+        }
+        if (synthesizeModuleInfo) {
+            start = System.nanoTime();
+            synthesizeModules(graph);
+            metrics.record("synthesis", start);
+        }
+        Set<String> computedAddModules = autoAdd ? graph.minimalRoots() : null;
+        if (synthesizeModuleInfo) {
+            // Converted modules are found first in the module path
+            start = System.nanoTime();
+            graph = getModuleGraph(executable, true);
+            metrics.record("analysis", start);
+        }
+
+        start = System.nanoTime();
+        Map<Image, Commandline> commandLines = new LinkedHashMap<>();
+        for (Image image : imageList) {
+            if (imageList.size() > 1) {
+                getLog().info("Image " + image.getName());
+            }
+            commandLines.put(image, buildParameters(image, computedAddModules, graph));
+        }
+        metrics.record("arguments", start);
+        return commandLines;
+    }
+
+    /**
+     * Links images, several images are linked in parallel. Failure of a single image is thrown, failures of
+     * several images are reported in results.
+     */
+    Map<Image, ImageResult> linkImages(
+            Map<Image, Commandline> commandLines,
+            String executable
+    ) throws MojoExecutionException, MojoFailureException {
+        long start = System.nanoTime();
+        try {
+            int poolSize = Math.min(commandLines.size(),
+                    threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+            Optional<InProcessTool> tool = getInProcessTool(executable, poolSize);
+
+            if (commandLines.size() == 1) {
+                Map.Entry<Image, Commandline> entry = commandLines.entrySet().iterator().next();
+                return Collections.singletonMap(entry.getKey(),
+                        buildImage(entry.getKey(), entry.getValue(), executable, tool, getLog()));
+            } else {
+                return buildImages(commandLines, executable, tool, poolSize);
+            }
+        } finally {
+            metrics.record("images", start);
+        }
+    }
+
+    /**
+     * Returns image definitions with defaults taken from the plugin configuration.
+     */
+    List<Image> getImages() throws MojoFailureException {
+        Image defaults = new Image();
+        defaults.setOutput(output);
+        defaults.setAddModules(addModules);
+        defaults.setAutoAddModules(autoAddModules);
+        defaults.setLimitModules(limitModules);
+        defaults.setLaunchers(launchers);
+        defaults.setBindServices(bindServices);
+        defaults.setCompress(compress);
+        defaults.setEndian(endian);
+        defaults.setIgnoreSigningInformation(ignoreSigningInformation);
+        defaults.setGenerateCdsArchive(generateCdsArchive);
+        defaults.setNoHeaderFiles(noHeaderFiles);
+        defaults.setNoManPages(noManPages);
+        defaults.setStripDebug(stripDebug);
+        defaults.setStripJavaDebugAttributes(stripJavaDebugAttributes);
+        defaults.setStripNativeDebugSymbols(stripNativeDebugSymbols);
+        defaults.setVerbose(verbose);
+        defaults.setTraining(training);
+        defaults.setOverlay(overlay);
+        defaults.setArchive(archive);
+        defaults.setOrderResources(orderResources);
+        defaults.setPruneServiceBindings(pruneServiceBindings);
+        defaults.setBoundServices(boundServices);
+        defaults.setInstallDirectory(installDirectory);
+
+        if (images == null || images.isEmpty()) {
+            Image image = defaults.withDefaults(defaults);
+            checkInstallDirectory(image);
+            return Collections.singletonList(image);
+        }
+
+        List<Image> result = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        Set<File> outputs = new HashSet<>();
+        Set<File> installDirectories = new HashSet<>();
+        for (Image image : images) {
+            Image merged = image.withDefaults(defaults);
+            if (merged.getOutput() != null && !outputs.add(merged.getOutput().getAbsoluteFile())) {
+                throw new MojoFailureException("Duplicate image output " + merged.getOutput().getAbsolutePath());
+            }
+            if (merged.getName() != null && !names.add(merged.getName())) {
+                throw new MojoFailureException("Duplicate image name " + merged.getName());
+            }
+            checkInstallDirectory(merged);
+            if (merged.getInstallDirectory() != null
+                    && !installDirectories.add(merged.getInstallDirectory().getAbsoluteFile())) {
+                throw new MojoFailureException("Duplicate image install directory "
+                        + merged.getInstallDirectory().getAbsolutePath());
+            }
+            result.add(merged);
+        }
+        return result;
+    }
+
+    private static void checkInstallDirectory(Image image) throws MojoFailureException {
+        if (image.getInstallDirectory() == null || image.getOutput() == null) {
+            return;
+        }
+        Path output = image.getOutput().toPath().toAbsolutePath().normalize();
+        Path install = image.getInstallDirectory().toPath().toAbsolutePath().normalize();
+        if (output.startsWith(install) || install.startsWith(output)) {
+            throw new MojoFailureException("Install directory " + install + " of image " + image.getName()
+                    + " must not overlap its output " + output);
+        }
+    }
+
+    /**
+     * Returns configured module paths followed by project dependencies if they are enabled.
+     */
+    synchronized List<File> getModulePaths() throws MojoExecutionException, MojoFailureException {
+        if (effectiveModulePaths != null) {
+            return effectiveModulePaths;
+        }
+
+        List<File> result = new ArrayList<>();
+        if (modulePaths != null) {
+            result.addAll(modulePaths);
+        }
+        if (useReactorClasses && !useDependencies) {
+            getLog().warn("useReactorClasses is ignored, it requires useDependencies");
+        }
+        if (useDependencies) {
+            List<Path> files = getDependencyFiles();
+            if (dependencyStagingDirectory == null) {
+                for (Path file : files) {
+                    result.add(file.toFile());
+                }
+            } else {
+                List<Path> stagedFiles = new ArrayList<>();
+                List<Path> explodedModules = new ArrayList<>();
+                for (Path file : files) {
+                    (Files.isDirectory(file) ? explodedModules : stagedFiles).add(file);
+                }
+                Path staging = dependencyStagingDirectory.toPath().toAbsolutePath();
+                try {
+                    int count = DependencyModulePath.stage(stagedFiles, staging);
+                    getLog().info("Staged " + stagedFiles.size() + " dependencies in " + staging + ", " + count
+                            + " files linked or copied");
+                } catch (IOException ex) {
+                    throw new MojoExecutionException("Failed to stage dependencies: " + ex.getMessage(), ex);
+                }
+                result.add(staging.toFile());
+                for (Path directory : explodedModules) {
+                    result.add(directory.toFile());
+                }
+            }
+        }
+        effectiveModulePaths = result;
+        return result;
+    }
+
+    private List<Path> getDependencyFiles() throws MojoExecutionException, MojoFailureException {
+        List<String> scopes = dependencyScopes == null || dependencyScopes.isEmpty() ?
+                Arrays.asList(Artifact.SCOPE_COMPILE, Artifact.SCOPE_RUNTIME) : dependencyScopes;
+        DependencyModulePath dependencyModulePath;
+        try {
+            dependencyModulePath = new DependencyModulePath(scopes,
+                    dependencyExcludes == null ? Collections.emptyList() : dependencyExcludes);
+        } catch (IllegalArgumentException ex) {
+            throw new MojoFailureException("Invalid dependencyExcludes: " + ex.getMessage());
+        }
+
+        Map<String, Path> explodedModules = useReactorClasses ? getReactorModules() : Collections.emptyMap();
+        List<Path> files = new ArrayList<>();
+        Path projectModule = explodedModules.get(project.getGroupId() + ":" + project.getArtifactId());
+        Artifact projectArtifact = project.getArtifact();
+        if (projectModule != null) {
+            files.add(projectModule);
+        } else if (projectArtifact != null && projectArtifact.getFile() != null
+                && projectArtifact.getFile().isFile()) {
+            files.add(projectArtifact.getFile().toPath().toAbsolutePath());
+        } else {
+            getLog().debug("Project artifact is not packaged, not adding it to the module path");
+        }
+
+        List<Artifact> artifacts = resolveDependencies(scopes);
+        List<Path> dependencies = dependencyModulePath.select(artifacts, explodedModules);
+        files.addAll(dependencies);
+        getLog().info("Using " + dependencies.size() + " of " + artifacts.size()
+                + " resolved dependencies, scopes: " + String.join(",", scopes));
+        if (useReactorClasses) {
+            long exploded = files.stream().filter(explodedModules::containsValue).count();
+            getLog().info("Using " + exploded + " exploded modules of reactor projects");
+        }
+        return files;
+    }
+
+    /**
+     * Resolves project dependencies of the scopes. Goals do not require dependency resolution from Maven, so
+     * dependencies are resolved only when they are used. Result is reused by subsequent builds of the execution.
+     */
+    private synchronized List<Artifact> resolveDependencies(List<String> scopes) throws MojoExecutionException {
+        if (resolvedArtifacts != null) {
+            return resolvedArtifacts;
+        }
+
+        long start = System.currentTimeMillis();
+        DependencyResolutionRequest request = new DefaultDependencyResolutionRequest(project,
+                session.getRepositorySession())
+                .setResolutionFilter((node, parents) ->
+                        node.getDependency() == null || scopes.contains(node.getDependency().getScope()));
+        List<Artifact> result = new ArrayList<>();
+        try {
+            for (Dependency dependency : dependenciesResolver.resolve(request).getDependencies()) {
+                Artifact artifact = RepositoryUtils.toArtifact(dependency.getArtifact());
+                artifact.setScope(dependency.getScope());
+                artifact.setOptional(dependency.isOptional());
+                result.add(artifact);
+            }
+        } catch (DependencyResolutionException ex) {
+            throw new MojoExecutionException("Failed to resolve dependencies: " + ex.getMessage(), ex);
+        }
+        getLog().debug("Resolved " + result.size() + " dependencies in " + (System.currentTimeMillis() - start)
+                + " ms");
+        resolvedArtifacts = result;
+        return result;
+    }
+
+    /**
+     * Returns output directories of reactor projects that contain module-info.class by
+     * <code>groupId:artifactId</code>.
+     */
+    private Map<String, Path> getReactorModules() {
+        Map<String, Path> result = new HashMap<>();
+        List<MavenProject> projects = session == null || session.getProjects() == null ?
+                Collections.singletonList(project) : session.getProjects();
+        for (MavenProject reactorProject : projects) {
+            String outputDirectory = reactorProject.getBuild() == null ?
+                    null : reactorProject.getBuild().getOutputDirectory();
+            if (outputDirectory == null) {
+                continue;
+            }
+            Path directory = Paths.get(outputDirectory).toAbsolutePath();
+            if (DependencyModulePath.isExplodedModule(directory)) {
+                result.put(reactorProject.getGroupId() + ":" + reactorProject.getArtifactId(), directory);
+            } else {
+                getLog().debug(directory + " is not an exploded module");
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Scans module paths and JDK modules. Module descriptors of jar files are cached by content hash, file hashes are
+     * reused while jar size and modification time do not change. If the graph is used for validation only it is
+     * cached only when image cache is enabled.
+     *
+     * @param required true if the graph is required by plugin features, false if it is used for validation only
+     */
+    private ModuleGraph getModuleGraph(
+            String executable,
+            boolean required
+    ) throws MojoExecutionException, MojoFailureException {
+        if (moduleGraph != null && getModulePaths().equals(moduleGraphPaths)) {
+            return moduleGraph;
+        }
+        long start = System.currentTimeMillis();
+
+        boolean useCache = required || cache;
+        Path indexFile = buildDirectory.toPath().resolve(ANALYSIS_INDEX);
+        Properties indexProperties = new Properties();
+        if (useCache && Files.isRegularFile(indexFile)) {
+            try (InputStream in = Files.newInputStream(indexFile)) {
+                indexProperties.load(in);
+            } catch (IOException | IllegalArgumentException ex) {
+                getLog().debug("Ignoring broken " + indexFile + ": " + ex.getMessage());
+            }
+        }
+        FileHashIndex index = new FileHashIndex();
+        index.load(indexProperties);
+        analysisIndex = index;
+
+        ModulePathScanner scanner = new ModulePathScanner(
+                useCache ? getAnalysisCacheDirectory("analysis") : null, index, getLog());
+        try {
+            List<Path> paths = new ArrayList<>();
+            for (File modulePath : getModulePaths()) {
+                paths.add(modulePath.toPath().toAbsolutePath());
+            }
+            List<ModuleInfo> appModules = scanner.scan(paths);
+
+            Path jmods = JavaRelease.homeOf(executable).resolve("jmods");
+            List<ModuleInfo> systemModules;
+            if (Files.isDirectory(jmods)) {
+                systemModules = scanner.scan(Collections.singletonList(jmods));
+            } else {
+                if (required) {
+                    getLog().warn(jmods + " not found, JDK modules used by automatic modules cannot be detected");
+                } else {
+                    getLog().debug(jmods + " not found");
+                }
+                systemModules = Collections.emptyList();
+            }
+            ModuleGraph graph = new ModuleGraph(appModules, systemModules);
+
+            for (ModuleInfo m : graph.getAppModules().values()) {
+                for (String p : m.getReferencedPackages()) {
+                    if (graph.ownerOf(p) == null) {
+                        getLog().debug("Package " + p + " referenced by " + m.getName() + " not found");
+                    }
+                }
+            }
+
+            if (useCache) {
+                Properties newIndexProperties = new Properties();
+                index.store(newIndexProperties);
+                Files.createDirectories(indexFile.getParent());
+                try (OutputStream out = Files.newOutputStream(indexFile)) {
+                    newIndexProperties.store(out, "jlink-maven-plugin module analysis");
+                }
+            }
+
+            getLog().info("Analyzed " + graph.getAppModules().size() + " modules in "
+                    + (System.currentTimeMillis() - start) + " ms, " + scanner.getScanned()
+                    + " jar files scanned, " + scanner.getCached() + " taken from cache");
+            moduleGraph = graph;
+            moduleGraphPaths = new ArrayList<>(getModulePaths());
+            return graph;
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Failed to analyze modules: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Returns directory of module analysis results: inside cacheDirectory if image cache is enabled, so results are
+     * shared between projects, otherwise inside the build directory.
+     */
+    private Path getAnalysisCacheDirectory(String name) {
+        return cache ?
+                cacheDirectory.toPath().toAbsolutePath().resolve(name) :
+                buildDirectory.toPath().toAbsolutePath().resolve(ANALYSIS_CACHE).resolve(name);
+    }
+
+    /**
+     * Converts automatic modules into explicit modules and places them first in the module path.
+     */
+    private void synthesizeModules(ModuleGraph graph) throws MojoExecutionException {
+        long start = System.currentTimeMillis();
+        List<ModuleInfo> candidates = ModuleInfoSynthesizer.candidates(graph, getLog());
+        ModuleInfoSynthesizer synthesizer = new ModuleInfoSynthesizer(
+                getAnalysisCacheDirectory("modules"), analysisIndex, getLog());
+        Path directory = synthesizedModulesDirectory.toPath().toAbsolutePath();
+        try {
+            List<Path> jars = synthesizer.synthesize(candidates,
+                    graph, threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+            DependencyModulePath.stage(jars, directory);
+            getLog().info("Converted " + jars.size() + " automatic modules in "
+                    + (System.currentTimeMillis() - start) + " ms, " + synthesizer.getCreated()
+                    + " jar files repackaged, " + (jars.size() - synthesizer.getCreated()) + " taken from cache");
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Failed to convert automatic modules: " + ex.getMessage(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted", ex);
+        }
+
+        // The first module with the given name found in the module path is used
+        List<File> result = new ArrayList<>();
+        result.add(directory.toFile());
+        result.addAll(effectiveModulePaths);
+        effectiveModulePaths = result;
+    }
+
+    /**
+     * Returns computed root modules and logs difference with explicitly configured modules.
+     */
+    private List<String> getAutoAddModules(Image image, Set<String> computed) {
+        List<String> configured = image.getAddModules() == null ?
+                Collections.emptyList() : image.getAddModules();
+        if (configured.isEmpty()) {
+            getLog().info("Computed " + ADD_MODULES.getName() + ": " + String.join(",", computed));
+            return new ArrayList<>(computed);
+        }
+
+        Set<String> added = new TreeSet<>(computed);
+        added.removeAll(configured);
+        Set<String> removed = new TreeSet<>(configured);
+        removed.removeAll(computed);
+        if (added.isEmpty() && removed.isEmpty()) {
+            getLog().info("Configured " + ADD_MODULES.getName() + " match computed modules");
+        } else {
+            getLog().info("Computed " + ADD_MODULES.getName() + " differ from configured modules:");
+            for (String m : added) {
+                getLog().info("  + " + m);
+            }
+            for (String m : removed) {
+                getLog().info("  - " + m);
+            }
+        }
+        return new ArrayList<>(computed);
+    }
+
+    private Map<Image, ImageResult> buildImages(
+            Map<Image, Commandline> commandLines,
+            String executable,
+            Optional<InProcessTool> tool,
+            int poolSize
+    ) throws MojoExecutionException {
+        getLog().info("Building " + commandLines.size() + " images using " + poolSize + " threads");
+
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize, new ImageThreadFactory());
+        try {
+            Map<Image, Future<ImageResult>> futures = new LinkedHashMap<>();
+            for (Map.Entry<Image, Commandline> entry : commandLines.entrySet()) {
+                Image image = entry.getKey();
+                futures.put(image, executor.submit(() -> buildImage(image, entry.getValue(), executable, tool,
+                        new PrefixLog(getLog(), image.getName()))));
+            }
+
+            Map<Image, ImageResult> results = new LinkedHashMap<>();
+            for (Map.Entry<Image, Future<ImageResult>> entry : futures.entrySet()) {
+                try {
+                    results.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException ex) {
+                    results.put(entry.getKey(), new ImageResult(ex.getCause()));
+                }
+            }
+
+            int width = results.keySet().stream().mapToInt(image -> image.getName().length()).max().orElse(0);
+            getLog().info("Image summary:");
+            for (Map.Entry<Image, ImageResult> entry : results.entrySet()) {
+                String name = entry.getKey().getName();
+                ImageResult result = entry.getValue();
+                if (result.isFailed()) {
+                    getLog().error(String.format("  %-" + width + "s %-12s", name, "FAILED"));
+                } else {
+                    getLog().info(String.format("  %-" + width + "s %-12s %8.1f s", name, result.getStatus(),
+                            result.getTime() / 1000.0));
+                }
+            }
+            return results;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted", ex);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ImageResult buildImage(
+            Image image,
+            Commandline commandLine,
+            String executable,
+            Optional<InProcessTool> tool,
+            Log log
+    ) throws MojoExecutionException, MojoFailureException {
+        long start = System.currentTimeMillis();
+        BuildMetrics.ImageMetrics imageMetrics = metrics.image(image.getName() != null ?
+                image.getName() : image.getOutput().getName());
+        ImageResult result = null;
+        try {
+            Path outputPath = image.getOutput().toPath().toAbsolutePath();
+            long phaseStart = System.nanoTime();
+            ImageState state = ImageState.load(outputPath);
+            String fingerprint = computeFingerprint(image, executable, commandLine, state.getIndex());
+            boolean upToDate = isUpToDate(state, fingerprint, executable, outputPath, log);
+            imageMetrics.record("fingerprint", phaseStart);
+            if (upToDate) {
+                result = new ImageResult(ImageResult.Status.UP_TO_DATE, start);
+                return result;
+            }
+
+            if (state.exists()) {
+                if (Files.exists(outputPath)) {
+                    log.info("Deleting previous image " + outputPath);
+                    phaseStart = System.nanoTime();
+                    FileUtil.deleteDirectory(outputPath);
+                    imageMetrics.record("delete", phaseStart);
+                }
+                state.delete();
+            }
+
+            ImageCache imageCache = cache ? createImageCache(log) : null;
+            if (imageCache != null && !Files.exists(outputPath)) {
+                phaseStart = System.nanoTime();
+                boolean restored = imageCache.restore(fingerprint, outputPath);
+                imageMetrics.record("cacheRestore", phaseStart);
+                if (restored) {
+                    state.store(fingerprint, executable, outputPath);
+                    evict(imageCache, log);
+                    result = new ImageResult(ImageResult.Status.RESTORED, start);
+                    return result;
+                }
+            }
+
+            boolean outputExists = Files.exists(outputPath);
+            try {
+                ImageOverlay imageOverlay = overlays.get(image);
+                phaseStart = System.nanoTime();
+                if (imageOverlay != null) {
+                    linkBase(executable, tool, commandLine, state, outputPath, log);
+                    imageMetrics.record("link", phaseStart);
+                    phaseStart = System.nanoTime();
+                    imageOverlay.install(outputPath, image.getLaunchers());
+                    imageMetrics.record("overlay", phaseStart);
+                } else if (Boolean.TRUE.equals(image.getOrderResources())) {
+                    linkOrdered(image, executable, tool, commandLine, fingerprint, state, imageMetrics, log);
+                } else {
+                    link(executable, tool, commandLine, state, log);
+                    imageMetrics.record("link", phaseStart);
+                }
+                if (image.getTraining() != null) {
+                    phaseStart = System.nanoTime();
+                    new TrainingRun(image.getTraining(), log).run(outputPath, image);
+                    imageMetrics.record("training", phaseStart);
+                }
+            } catch (Exception ex) {
+                if (!outputExists) {
+                    // Remove partially written image, e.g. after timeout
+                    FileUtil.deleteDirectory(outputPath);
+                }
+                throw ex;
+            }
+            state.store(fingerprint, executable, outputPath);
+
+            if (imageCache != null) {
+                phaseStart = System.nanoTime();
+                try {
+                    imageCache.publish(fingerprint, outputPath);
+                } catch (IOException ex) {
+                    log.warn("Failed to store image in cache: " + ex.getMessage());
+                }
+                evict(imageCache, log);
+                imageMetrics.record("cachePublish", phaseStart);
+            }
+            result = new ImageResult(ImageResult.Status.LINKED, start);
+            return result;
+        } catch (MojoExecutionException | MojoFailureException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        } finally {
+            recordResult(imageMetrics, result, image, log);
+        }
+    }
+
+    private static void recordResult(
+            BuildMetrics.ImageMetrics imageMetrics,
+            ImageResult result,
+            Image image,
+            Log log
+    ) {
+        if (result == null) {
+            imageMetrics.setResult(ImageResult.Status.FAILED.toString(), -1);
+            return;
+        }
+        imageMetrics.setResult(result.getStatus().toString(), result.getTime());
+        try {
+            imageMetrics.setImage(image.getOutput().toPath());
+        } catch (IOException ex) {
+            log.debug("Failed to measure image: " + ex.getMessage());
+        }
+    }
+
+    private ImageCache createImageCache(Log log) throws MojoFailureException {
+        try {
+            return new ImageCache(cacheDirectory.toPath().toAbsolutePath(), parseSize(cacheMaxSize),
+                    TimeUnit.DAYS.toMillis(cacheMaxAge), log);
+        } catch (IllegalArgumentException ex) {
+            throw new MojoFailureException("Invalid cacheMaxSize: " + ex.getMessage());
+        }
+    }
+
+    private void evict(ImageCache imageCache, Log log) {
+        try {
+            imageCache.evict();
+        } catch (IOException ex) {
+            log.warn("Failed to evict images from cache: " + ex.getMessage());
+        }
+    }
+
+    private boolean isUpToDate(
+            ImageState state,
+            String fingerprint,
+            String executable,
+            Path outputPath,
+            Log log
+    ) throws IOException {
+        if ("true".equalsIgnoreCase(System.getProperty(FORCE_PROPERTY, "false"))) {
+            log.info("Rebuilding image: forced by " + FORCE_PROPERTY + " property");
+            return false;
+        }
+        if (!state.exists()) {
+            log.info("Building image: no previous image state found");
+            return false;
+        }
+        if (!executable.equals(state.getExecutable())) {
+            log.info("Rebuilding image: " + EXECUTABLE + " executable changed");
+            return false;
+        }
+        if (!fingerprint.equals(state.getFingerprint())) {
+            log.info("Rebuilding image: inputs changed");
+            return false;
+        }
+        if (!state.isImageIntact(outputPath)) {
+            log.info("Rebuilding image: " + outputPath + " is missing or was modified");
+            return false;
+        }
+
+        log.info("Image " + outputPath + " is up to date, inputs fingerprint " + fingerprint
+                + " did not change, skipping " + EXECUTABLE);
+        return true;
+    }
 
     /**
-     * <p>--generate-cds-archive</p>
-     *
-     * @since 1.1.0
+     * Calculates fingerprint of all jlink inputs. Output and module paths are replaced by placeholders in the
+     * argument list so that fingerprint depends on content only.
      */
-    @Parameter(defaultValue = "false")
-    private boolean generateCdsArchive;
+    private String computeFingerprint(
+            Image image,
+            String executable,
+            Commandline commandLine,
+            FileHashIndex index
+    ) throws Exception {
+        Fingerprint fingerprint = new Fingerprint(index)
+                .add("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"))
+                .add(EXECUTABLE, getJLinkVersion(executable));
+
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put(image.getOutput().getAbsolutePath(), "${output}");
+        List<File> imageModulePaths = getModulePaths();
+        List<String> modulePathList = new ArrayList<>();
+        List<String> modulePathPlaceholders = new ArrayList<>();
+        for (int i = 0; i < imageModulePaths.size(); i++) {
+            modulePathList.add(imageModulePaths.get(i).getAbsolutePath());
+            modulePathPlaceholders.add("${modulePath." + i + "}");
+        }
+        placeholders.put(String.join(File.pathSeparator, modulePathList),
+                String.join(File.pathSeparator, modulePathPlaceholders));
 
-    /**
-     * <p>--limit-modules &lt;mod>[,&lt;mod>...]</p>
-     * <p>Each module is specified by a separate &lt;limitModule> parameter.</p>
-     * <p>Example:
-     * <pre>
-     * &lt;limitModules>
-     *     &lt;limitModule>java.base&lt;/limitModule>
-     * &lt;/limitModules>
-     * </pre>
-     * </p>
-     *
-     * @since 1.0.0
-     */
-    @Parameter
-    private List<String> limitModules;
+        for (String arg : commandLine.getArguments()) {
+            fingerprint.add("arg", placeholders.getOrDefault(arg, arg));
+        }
 
-    /**
-     * <p>--module-path &lt;path></p>
-     * <p>Each module path is specified by a separate &lt;modulePath> parameter.</p>
-     * <p>Example:
-     * <pre>
-     * &lt;modulePaths>
-     *     &lt;modulePath>target/jmods&lt;/modulePath>
-     * &lt;/modulePaths>
-     * </pre>
-     * </p>
-     *
-     * @since 1.0.0
-     */
-    @Parameter
-    private List<File> modulePaths;
+        if (image.getLaunchers() != null) {
+            for (Launcher launcher : image.getLaunchers()) {
+                fingerprint.add("launcher", launcher.getName() + "|" + launcher.getModule()
+                        + "|" + launcher.getMainClass());
+            }
+        }
 
-    /**
-     * <p>--no-header-files</p>
-     *
-     * @since 1.0.0
-     */
-    @Parameter(defaultValue = "false")
-    private boolean noHeaderFiles;
+        if (image.getTraining() != null) {
+            fingerprint.add("training", image.getTraining().toString());
+        }
 
-    /**
-     * <p>--no-man-pages</p>
-     *
-     * @since 1.0.0
-     */
-    @Parameter(defaultValue = "false")
-    private boolean noManPages;
+        if (overlays.containsKey(image)) {
+            fingerprint.add("overlay", ImageOverlay.APP_DIRECTORY);
+        }
 
-    /**
-     * <p>--output &lt;path&gt;</p>
-     *
-     * @since 1.0.0
-     */
-    @Parameter
-    private File output;
+        if (Boolean.TRUE.equals(image.getOrderResources())) {
+            fingerprint.add("orderResources", "true");
+        }
+
+        for (int i = 0; i < imageModulePaths.size(); i++) {
+            fingerprint.addPath("modulePath." + i, imageModulePaths.get(i).toPath().toAbsolutePath());
+        }
+
+        return fingerprint.build();
+    }
 
     /**
-     * <p>--strip-debug</p>
-     *
-     * @since 1.0.0
+     * Links base runtime of the image overlay. If cache is enabled base runtime is restored from the cache or
+     * published after it is linked. Cache entries are copies, so overlay files are written into a private tree.
      */
-    @Parameter(defaultValue = "false")
-    private boolean stripDebug;
+    private void linkBase(
+            String executable,
+            Optional<InProcessTool> tool,
+            Commandline commandLine,
+            ImageState state,
+            Path outputPath,
+            Log log
+    ) throws Exception {
+        if (!cache) {
+            link(executable, tool, commandLine, state, log);
+            return;
+        }
+
+        Fingerprint fingerprint = new Fingerprint(new FileHashIndex())
+                .add("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"))
+                .add(EXECUTABLE, getJLinkVersion(executable))
+                .add("base", ImageOverlay.APP_DIRECTORY);
+        String output = outputPath.toString();
+        for (String arg : commandLine.getArguments()) {
+            fingerprint.add("arg", arg.equals(output) ? "${output}" : arg);
+        }
+        String key = fingerprint.build();
+
+        ImageCache imageCache = createImageCache(log);
+        if (imageCache.restore(key, outputPath)) {
+            log.info("Base runtime restored from cache");
+            return;
+        }
+
+        link(executable, tool, commandLine, state, log);
+        try {
+            imageCache.publish(key, outputPath);
+        } catch (IOException ex) {
+            log.warn("Failed to store base runtime in cache: " + ex.getMessage());
+        }
+        evict(imageCache, log);
+    }
 
     /**
-     * --verbose
-     *
-     * @since 1.0.0
+     * Links the image with resources ordered by the training run. Training run is executed only if the list of
+     * loaded classes does not exist or was created for different inputs, otherwise the image is linked once.
      */
-    @Parameter(defaultValue = "false")
-    private boolean verbose;
+    private void linkOrdered(
+            Image image,
+            String executable,
+            Optional<InProcessTool> tool,
+            Commandline commandLine,
+            String fingerprint,
+            ImageState state,
+            BuildMetrics.ImageMetrics imageMetrics,
+            Log log
+    ) throws Exception {
+        Path outputPath = image.getOutput().toPath().toAbsolutePath();
+        Path orderFile = cache ?
+                ResourceOrder.orderFile(cacheDirectory.toPath().toAbsolutePath().resolve("order"), fingerprint) :
+                ResourceOrder.orderFile(outputPath);
+        if (ResourceOrder.isCurrent(orderFile, fingerprint)) {
+            log.info("Using resource order " + orderFile);
+        } else {
+            long phaseStart = System.nanoTime();
+            link(executable, tool, commandLine, state, log);
+            imageMetrics.record("link", phaseStart);
+
+            phaseStart = System.nanoTime();
+            Training orderTraining = image.getTraining() != null ? image.getTraining() : new Training();
+            new ResourceOrder(orderTraining, log).record(outputPath, image, orderFile, fingerprint);
+            FileUtil.deleteDirectory(outputPath);
+            imageMetrics.record("orderResources", phaseStart);
+        }
+
+        Commandline orderedCommandLine = new Commandline();
+        orderedCommandLine.addArguments(commandLine.getArguments());
+        orderedCommandLine.createArg().setValue(ORDER_RESOURCES.getName());
+        orderedCommandLine.createArg().setValue(ResourceOrder.optionValue(orderFile));
+        long phaseStart = System.nanoTime();
+        link(executable, tool, orderedCommandLine, state, log);
+        imageMetrics.record("link", phaseStart);
+    }
 
     /**
-     * <p>--launcher &lt;name>=&lt;module>[/&lt;mainClass>]</p>
-     * <p>Adds a launcher command of the given name for the module and the main class</p>
-     * <pre>
-     * &lt;launchers>
-     *     &lt;launcher>
-     *         &lt;name>name-of-the-launcher&lt;/name>
-     *         &lt;module>module&lt;/module>
-     *         &lt;mainClass>optionalMainClass&lt;/mainClass>
-     *     &lt;/launcher>
-     * &lt;/launchers>
-     * </pre>
+     * Returns the reason to fork jlink regardless of the Maven JVM or <code>null</code> if jlink may be executed
+     * in-process.
      *
-     * @since 1.0.0
+     * @param executionMode execution mode
+     * @param poolSize      number of images linked in parallel
+     * @param timeout       timeout in seconds, zero means no timeout
      */
-    @Parameter
-    private List<Launcher> launchers;
+    static String getForkReason(ExecutionMode executionMode, int poolSize, int timeout) {
+        if (executionMode == ExecutionMode.FORK) {
+            return "Execution mode is " + ExecutionMode.FORK;
+        }
+        if (executionMode == ExecutionMode.AUTO) {
+            if (poolSize > 1) {
+                // In-process executions are serialized
+                return "Images are linked in parallel";
+            }
+            if (timeout > 0) {
+                return "Timeout is set";
+            }
+        }
+        return null;
+    }
 
-    public void execute() throws MojoExecutionException, MojoFailureException {
-        if (skip) {
-            getLog().info("Skipping plugin execution");
-            return;
+    private String getJLinkVersion(String executable) throws Exception {
+        Optional<JavaRelease> release = JavaRelease.read(JavaRelease.homeOf(executable));
+        if (release.isPresent() && release.get().getVersion() != null) {
+            return release.get().describe();
         }
 
-        Toolchain tc = toolchainManager.getToolchainFromBuildContext(TOOLCHAIN, session);
-        if (tc != null) {
-            getLog().info("Toolchain in jpackage-maven-plugin: " + tc);
+        return SessionCache.getInstance().get(EXECUTABLE + "-version", Paths.get(executable),
+                () -> runJLinkVersion(executable));
+    }
+
+    private String runJLinkVersion(String executable) throws IOException {
+        getLog().debug("Release file not found, running " + EXECUTABLE + " --version");
+        StringBuilder out = new StringBuilder();
+        TailBuffer err = new TailBuffer(OUTPUT_TAIL_LINES);
+        int exitCode;
+        try {
+            exitCode = new ProcessRunner(Arrays.asList(executable, "--version"))
+                    .out(out::append)
+                    .err(err::add)
+                    .run();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted");
+        } catch (TimeoutException ex) {
+            throw new IOException(ex.getMessage(), ex);
+        }
+        if (exitCode != 0) {
+            throw new IOException("Failed to get " + EXECUTABLE + " version: " + err);
+        }
+        return out.toString().trim();
+    }
+
+    private void link(
+            String executable,
+            Optional<InProcessTool> tool,
+            Commandline commandLine,
+            ImageState state,
+            Log log
+    ) throws Exception {
+        long start = System.currentTimeMillis();
+        if (tool.isPresent()) {
+            log.info("Executing " + EXECUTABLE + " in-process");
+            execute(tool.get(), commandLine, log);
+        } else {
+            execute(executable, commandLine, log);
         }
+        long time = System.currentTimeMillis() - start;
 
-        String executable = getJPackageExecutable(tc)
-                .orElseThrow(() -> new MojoExecutionException("Failed to find " + EXECUTABLE));
+        if (tool.isPresent()) {
+            long forkTime = state.getForkTime();
+            if (forkTime >= 0) {
+                log.info(EXECUTABLE + " executed in-process in " + time + " ms, saved " + (forkTime - time)
+                        + " ms compared to the last forked execution (" + forkTime + " ms)");
+            } else {
+                log.info(EXECUTABLE + " executed in-process in " + time + " ms without JVM startup");
+            }
+        } else {
+            state.setForkTime(time);
+            log.info(EXECUTABLE + " process executed in " + time + " ms");
+        }
+    }
 
-        getLog().info("Using: " + executable);
+    /**
+     * Returns in-process jlink if it is allowed by execution mode and Maven runs on the same JDK as the jlink
+     * executable or on JDK of the same version and vendor.
+     */
+    private Optional<InProcessTool> getInProcessTool(String executable, int poolSize) throws MojoFailureException {
+        String forkReason = getForkReason(executionMode, poolSize, timeout);
+        if (forkReason != null) {
+            getLog().debug(forkReason + ", forking " + EXECUTABLE);
+            return Optional.empty();
+        }
+        if (timeout > 0 && executionMode == ExecutionMode.IN_PROCESS) {
+            getLog().warn("Timeout is not supported for in-process execution");
+        }
 
-        Commandline commandLine = buildParameters();
-        commandLine.setExecutable(executable.contains(" ") ? ("\"" + executable + "\"") : executable);
+        Optional<InProcessTool> tool = InProcessTool.find(EXECUTABLE);
+        String reason = null;
+        if (!tool.isPresent()) {
+            reason = "Maven JVM does not provide " + EXECUTABLE + " tool";
+        } else if (!isCompatibleJdk(executable)) {
+            reason = "Maven JVM is not compatible with " + executable;
+        }
 
-        boolean dryRun = "true".equalsIgnoreCase(System.getProperty(DRY_RUN_PROPERTY, "false"));
-        if (dryRun) {
-            getLog().warn("Dry-run mode, not executing " + EXECUTABLE);
+        if (reason == null) {
+            return tool;
+        } else if (executionMode == ExecutionMode.IN_PROCESS) {
+            throw new MojoFailureException("Cannot execute " + EXECUTABLE + " in-process: " + reason);
         } else {
-            try {
-                execute(commandLine);
-            } catch (Exception ex) {
-                throw new MojoExecutionException(ex.getMessage(), ex);
+            getLog().debug(reason + ", forking " + EXECUTABLE);
+            return Optional.empty();
+        }
+    }
+
+    private boolean isCompatibleJdk(String executable) {
+        Path toolHome = JavaRelease.homeOf(executable);
+        Path mavenHome = Paths.get(System.getProperty("java.home"));
+        try {
+            if (toolHome.toRealPath().equals(mavenHome.toRealPath())) {
+                return true;
             }
+        } catch (IOException ex) {
+            return false;
         }
+
+        Optional<JavaRelease> toolRelease = JavaRelease.read(toolHome);
+        Optional<JavaRelease> mavenRelease = JavaRelease.read(mavenHome);
+        return toolRelease.isPresent() && mavenRelease.isPresent()
+                && toolRelease.get().getVersion() != null
+                && toolRelease.get().describe().equals(mavenRelease.get().describe());
     }
 
     private Optional<String> getJPackageFromJdkHome(String jdkHome) {
@@ -274,75 +1843,145 @@ public class JLinkMojo extends AbstractMojo {
                 executable : getJPackageFromJdkHome(System.getProperty("java.home"));
     }
 
-    private void execute(Commandline commandline) throws Exception {
-        CommandLineUtils.StringStreamConsumer err = new CommandLineUtils.StringStreamConsumer();
-        CommandLineUtils.StringStreamConsumer out = new CommandLineUtils.StringStreamConsumer();
-
+    private void execute(String executable, Commandline commandline, Log log) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(executable);
+        command.addAll(Arrays.asList(commandline.getArguments()));
+
+        TailBuffer tail = new TailBuffer(OUTPUT_TAIL_LINES);
+        ProcessRunner runner = new ProcessRunner(command)
+                .out(line -> {
+                    log.info(line);
+                    tail.add(line);
+                })
+                .err(line -> {
+                    log.warn(line);
+                    tail.add(line);
+                })
+                .timeout(timeout, TimeUnit.SECONDS);
+
+        String commandLineString = CommandLineUtils.toString(command.toArray(new String[0]));
         try {
-            int exitCode = CommandLineUtils.executeCommandLine(commandline, out, err);
-
-            String output = (isEmpty(out.getOutput()) ? null : '\n' + out.getOutput().trim());
-
+            int exitCode = runner.run();
             if (exitCode != 0) {
-                if (isNotEmpty(output)) {
-                    for (String line : output.split("\n")) {
-                        getLog().error(line);
-                    }
-                }
-
-                StringBuilder msg = new StringBuilder("\nExit code: ")
-                        .append(exitCode);
-                String errOutput = err.getOutput();
-                if (isNotEmpty(errOutput)) {
-                    msg.append(" - ").append(errOutput);
-                }
-                msg.append('\n');
-                msg.append("Command line was: ").append(commandline).append('\n').append('\n');
-
-                throw new MojoExecutionException(msg.toString());
-            } else {
-                if (isNotEmpty(output)) {
-                    for (String outputLine : output.split("\n")) {
-                        getLog().info(outputLine);
-                    }
-                }
+                throw new MojoExecutionException(failureMessage(exitCode, tail)
+                        + "Command line was: " + commandLineString + "\n\n");
             }
-        } catch (CommandLineException e) {
+        } catch (TimeoutException e) {
+            throw new MojoExecutionException(EXECUTABLE + " did not finish in " + timeout
+                    + " seconds, process was terminated\nCommand line was: " + commandLineString, e);
+        } catch (IOException e) {
             throw new MojoExecutionException("Error while executing " + EXECUTABLE + ": " + e.getMessage(), e);
         }
     }
 
-    private Commandline buildParameters() throws MojoFailureException {
+    private void execute(InProcessTool tool, Commandline commandline, Log log) throws Exception {
+        TailBuffer tail = new TailBuffer(OUTPUT_TAIL_LINES);
+        int exitCode = tool.run(
+                line -> {
+                    log.info(line);
+                    tail.add(line);
+                },
+                line -> {
+                    log.warn(line);
+                    tail.add(line);
+                },
+                commandline.getArguments()
+        );
+
+        if (exitCode != 0) {
+            throw new MojoExecutionException(failureMessage(exitCode, tail)
+                    + "Arguments were: " + String.join(" ", commandline.getArguments()) + "\n\n");
+        }
+    }
+
+    private static String failureMessage(int exitCode, TailBuffer tail) {
+        StringBuilder msg = new StringBuilder("\nExit code: ").append(exitCode).append('\n');
+        if (!tail.isEmpty()) {
+            msg.append(tail);
+        }
+        return msg.toString();
+    }
+
+    private Commandline buildParameters(
+            Image image,
+            Set<String> computedAddModules,
+            ModuleGraph graph
+    ) throws MojoExecutionException, MojoFailureException {
+        List<String> imageAddModules = Boolean.TRUE.equals(image.getAutoAddModules()) ?
+                getAutoAddModules(image, computedAddModules) : image.getAddModules();
+        Boolean imageBindServices = image.getBindServices();
+        if (isPruneServiceBindings(image)) {
+            imageAddModules = pruneServiceBindings(image, imageAddModules, graph);
+            imageBindServices = false;
+        }
+        if (validateModules && graph != null) {
+            validateModuleGraph(image, imageAddModules, Boolean.TRUE.equals(imageBindServices), graph);
+        }
+
         getLog().info("jlink options:");
 
         Commandline commandline = new Commandline();
-        addParameter(commandline, BIND_SERVICES, bindServices);
-        addParameter(commandline, ENDIAN, endian);
-        addParameter(commandline, IGNORE_SIGNING_INFORMATION, ignoreSigningInformation);
-        addParameter(commandline, GENERATE_CDS_ARCHIVE, generateCdsArchive);
-        addParameter(commandline, NO_HEADER_FILES, noHeaderFiles);
-        addParameter(commandline, NO_MAN_PAGES, noManPages);
-        addMandatoryParameter(commandline, OUTPUT, output, false);
-        addParameter(commandline, STRIP_DEBUG, stripDebug);
-        addParameter(commandline, VERBOSE, verbose);
-
+        addParameter(commandline, BIND_SERVICES, imageBindServices);
+        addParameter(commandline, COMPRESS, image.getCompress());
+        addParameter(commandline, ENDIAN, image.getEndian());
+        addParameter(commandline, IGNORE_SIGNING_INFORMATION, image.getIgnoreSigningInformation());
+        addParameter(commandline, GENERATE_CDS_ARCHIVE, image.getGenerateCdsArchive());
+        addParameter(commandline, NO_HEADER_FILES, image.getNoHeaderFiles());
+        addParameter(commandline, NO_MAN_PAGES, image.getNoManPages());
+        addMandatoryParameter(commandline, OUTPUT, image.getOutput(), false);
+        addParameter(commandline, STRIP_DEBUG, image.getStripDebug());
+        addParameter(commandline, STRIP_JAVA_DEBUG_ATTRIBUTES, image.getStripJavaDebugAttributes());
+        addParameter(commandline, STRIP_NATIVE_DEBUG_SYMBOLS, image.getStripNativeDebugSymbols());
+        addParameter(commandline, VERBOSE, image.getVerbose());
+
+        if (Boolean.TRUE.equals(image.getOverlay())) {
+            if (Boolean.TRUE.equals(image.getOrderResources())) {
+                // Base runtime is shared by application versions, its content must not depend on the application
+                throw new MojoFailureException("orderResources cannot be used with image overlay");
+            }
+            // Base runtime is linked from JDK modules only
+            if (imageAddModules == null || imageAddModules.isEmpty()) {
+                throw new MojoFailureException("Image overlay requires addModules or autoAddModules");
+            }
+            ImageOverlay imageOverlay = ImageOverlay.of(graph, imageAddModules,
+                    Boolean.TRUE.equals(imageBindServices));
+            overlays.put(image, imageOverlay);
+            addParameter(commandline, ADD_MODULES, String.join(",", imageOverlay.getSystemModules()));
+            if (image.getLimitModules() != null && !image.getLimitModules().isEmpty()) {
+                addParameter(commandline, LIMIT_MODULES, String.join(",", image.getLimitModules()));
+            }
+            List<String> appModuleNames = new ArrayList<>();
+            for (ModuleInfo m : imageOverlay.getAppModules()) {
+                appModuleNames.add(m.getName());
+            }
+            getLog().info("Application modules: " + String.join(",", appModuleNames));
+            return commandline;
+        }
 
-        if (addModules != null && !addModules.isEmpty()) {
-            addParameter(commandline, ADD_MODULES, String.join(",", addModules));
+        if (imageAddModules != null && !imageAddModules.isEmpty()) {
+            addParameter(commandline, ADD_MODULES, String.join(",", imageAddModules));
         }
 
-        if (limitModules != null && !limitModules.isEmpty()) {
-            addParameter(commandline, LIMIT_MODULES, String.join(",", limitModules));
+        if (image.getLimitModules() != null && !image.getLimitModules().isEmpty()) {
+            addParameter(commandline, LIMIT_MODULES, String.join(",", image.getLimitModules()));
         }
 
-        if (modulePaths != null) {
-            for (File modulePath : modulePaths) {
-                addParameter(commandline, MODULE_PATH, modulePath, true);
+        List<String> modulePathList = new ArrayList<>();
+        for (File modulePath : getModulePaths()) {
+            if (!modulePath.exists()) {
+                throw new MojoFailureException("File or directory " + modulePath.getAbsolutePath()
+                        + " does not exist");
             }
+            modulePathList.add(modulePath.getAbsolutePath());
+        }
+        if (!modulePathList.isEmpty()) {
+            // Single option keeps the whole module path on one log line
+            addParameter(commandline, MODULE_PATH.getName(), String.join(File.pathSeparator, modulePathList));
         }
 
-        if (launchers != null) {
-            for (Launcher launcher : launchers) {
+        if (image.getLaunchers() != null) {
+            for (Launcher launcher : image.getLaunchers()) {
                 launcher.validate();
                 addParameter(commandline, LAUNCHER, launcher.toString());
             }
@@ -351,6 +1990,127 @@ public class JLinkMojo extends AbstractMojo {
         return commandline;
     }
 
+    /**
+     * Resolves root modules of the image and fails with all problems that make jlink fail.
+     */
+    private void validateModuleGraph(
+            Image image,
+            List<String> imageAddModules,
+            boolean imageBindServices,
+            ModuleGraph graph
+    ) throws MojoFailureException {
+        if (graph.getSystemModules().isEmpty()) {
+            getLog().debug("JDK modules not found, module graph is not validated");
+            return;
+        }
+        // jlink reports missing root modules itself
+        if (imageAddModules == null || imageAddModules.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        Set<String> roots = new TreeSet<>(imageAddModules);
+        if (roots.remove(ImageOverlay.ALL_MODULE_PATH)) {
+            roots.addAll(graph.getAppModules().keySet());
+        }
+        // Automatic modules of overlay images are not linked
+        ModuleGraph.Resolution resolution = graph.resolve(roots, image.getLimitModules(),
+                Boolean.TRUE.equals(image.getOverlay()));
+        List<String> problems = new ArrayList<>(resolution.getProblems());
+
+        Set<String> modules = imageBindServices ?
+                new ServiceBinder(graph, image.getLimitModules()).resolve(roots, s -> true).getModules() :
+                resolution.getModules();
+        if (image.getLaunchers() != null) {
+            for (Launcher launcher : image.getLaunchers()) {
+                if (launcher.getModule() != null && !modules.contains(launcher.getModule())) {
+                    problems.add("Module " + launcher.getModule() + " of launcher " + launcher.getName()
+                            + " is not resolved");
+                }
+            }
+        }
+        metrics.record("validation", start);
+
+        if (!problems.isEmpty()) {
+            throw new MojoFailureException("Module graph validation failed"
+                    + (image.getName() == null ? "" : " for image " + image.getName()) + ":\n  - "
+                    + String.join("\n  - ", problems));
+        }
+        getLog().info("Resolved " + resolution.getModules().size() + " modules in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+    }
+
+    private static boolean isPruneServiceBindings(Image image) {
+        return Boolean.TRUE.equals(image.getBindServices()) && Boolean.TRUE.equals(image.getPruneServiceBindings());
+    }
+
+    /**
+     * Logs modules added by each service binding and returns root modules that include providers of bound services
+     * only.
+     */
+    private List<String> pruneServiceBindings(
+            Image image,
+            List<String> imageAddModules,
+            ModuleGraph graph
+    ) throws MojoFailureException {
+        if (imageAddModules == null || imageAddModules.isEmpty()) {
+            throw new MojoFailureException("pruneServiceBindings requires addModules or autoAddModules");
+        }
+        if (graph.getSystemModules().isEmpty()) {
+            throw new MojoFailureException("pruneServiceBindings requires JDK modules in the jmods directory");
+        }
+
+        Set<String> roots = new TreeSet<>(imageAddModules);
+        if (roots.remove(ImageOverlay.ALL_MODULE_PATH)) {
+            roots.addAll(graph.getAppModules().keySet());
+        }
+        ServiceBinder binder = new ServiceBinder(graph, image.getLimitModules());
+        Set<String> bound = image.getBoundServices() == null ?
+                Collections.emptySet() : new TreeSet<>(image.getBoundServices());
+
+        Set<String> withoutBinding = binder.resolve(roots, s -> false).getModules();
+        ServiceBinder.Resolution full = binder.resolve(roots, s -> true);
+        getLog().info("Service bindings: " + withoutBinding.size() + " modules without binding ("
+                + formatSize(modulesSize(graph, withoutBinding)) + "), " + full.getModules().size()
+                + " modules with all services bound (" + formatSize(modulesSize(graph, full.getModules())) + ")");
+        for (Map.Entry<String, Set<String>> entry : binder.contributions(roots).entrySet()) {
+            getLog().info("  " + (bound.contains(entry.getKey()) ? "[bound]  " : "[pruned] ") + entry.getKey()
+                    + ": +" + formatSize(modulesSize(graph, entry.getValue())) + " "
+                    + String.join(",", entry.getValue()));
+        }
+        for (String service : bound) {
+            if (!full.getBindings().containsKey(service)) {
+                getLog().warn("Bound service " + service + " is not used by resolved modules or has no providers");
+            }
+        }
+
+        Set<String> prunedRoots = binder.roots(roots, bound);
+        Set<String> pruned = binder.resolve(prunedRoots, s -> false).getModules();
+        getLog().info("Pruned service bindings: " + pruned.size() + " modules ("
+                + formatSize(modulesSize(graph, pruned)) + ")");
+        return new ArrayList<>(prunedRoots);
+    }
+
+    /**
+     * Returns total size of module files, sizes of JDK modules are sizes of their jmod files.
+     */
+    private long modulesSize(ModuleGraph graph, Collection<String> modules) {
+        long total = 0;
+        for (String name : modules) {
+            ModuleInfo m = graph.find(name);
+            if (m == null || m.getLocation() == null) {
+                continue;
+            }
+            try {
+                total += Files.isDirectory(m.getLocation()) ?
+                        FileUtil.directorySize(m.getLocation()) : Files.size(m.getLocation());
+            } catch (IOException ex) {
+                getLog().debug("Failed to get size of " + m.getLocation() + ": " + ex.getMessage());
+            }
+        }
+        return total;
+    }
+
     private void addMandatoryParameter(
             Commandline commandline,
             @SuppressWarnings("SameParameterValue") CommandLineParameter parameter,
@@ -447,9 +2207,9 @@ public class JLinkMojo extends AbstractMojo {
     private void addParameter(
             Commandline commandline,
             CommandLineParameter parameter,
-            boolean value
+            Boolean value
     ) {
-        if (!value) {
+        if (value == null || !value) {
             return;
         }
 
@@ -468,4 +2228,73 @@ public class JLinkMojo extends AbstractMojo {
 
         addParameter(commandline, parameter, value.getValue());
     }
+
+    /**
+     * Result of the image build.
+     */
+    static final class ImageResult {
+        enum Status {
+            UP_TO_DATE("up to date"),
+            RESTORED("cached"),
+            LINKED("linked"),
+            FAILED("failed");
+
+            private final String text;
+
+            Status(String text) {
+                this.text = text;
+            }
+
+            @Override
+            public String toString() {
+                return text;
+            }
+        }
+
+        private final Status status;
+        private final long time;
+        private final Throwable failure;
+
+        ImageResult(Status status, long start) {
+            this.status = status;
+            this.time = System.currentTimeMillis() - start;
+            this.failure = null;
+        }
+
+        ImageResult(Throwable failure) {
+            this.status = Status.FAILED;
+            this.time = 0;
+            this.failure = failure;
+        }
+
+        Status getStatus() {
+            return status;
+        }
+
+        /**
+         * Returns build time in milliseconds.
+         */
+        long getTime() {
+            return time;
+        }
+
+        boolean isFailed() {
+            return failure != null;
+        }
+
+        Throwable getFailure() {
+            return failure;
+        }
+    }
+
+    private static final class ImageThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "jlink-image-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Content of the <code>release</code> file of JDK or runtime image.
+ */
+final class JavaRelease {
+    private static final String RELEASE = "release";
+
+    private final Properties properties;
+
+    private JavaRelease(Properties properties) {
+        this.properties = properties;
+    }
+
+    static Optional<JavaRelease> read(Path home) {
+        Path file = home.resolve(RELEASE);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(new JavaRelease(SessionCache.getInstance().get(RELEASE, file, () -> {
+                Properties properties = new Properties();
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                }
+                return properties;
+            })));
+        } catch (IOException | IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns home directory of the JDK that contains the executable, i.e. parent of its <code>bin</code>
+     * directory.
+     */
+    static Path homeOf(String executable) {
+        Path bin = Paths.get(executable).toAbsolutePath().getParent();
+        return bin.getParent() == null ? bin : bin.getParent();
+    }
+
+    String getValue(String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    String getVersion() {
+        return getValue("JAVA_VERSION");
+    }
+
+    String getRuntimeVersion() {
+        return getValue("JAVA_RUNTIME_VERSION");
+    }
+
+    String getImplementor() {
+        return getValue("IMPLEMENTOR");
+    }
+
+    /**
+     * Returns feature version, e.g. 8 for "1.8.0_392" or 21 for "21.0.2".
+     */
+    int getFeatureVersion() {
+        return featureVersion(getVersion());
+    }
+
+    static int featureVersion(String version) {
+        if (version == null || version.isEmpty()) {
+            return 0;
+        }
+        String[] parts = version.split("[._+-]");
+        try {
+            int first = Integer.parseInt(parts[0]);
+            return first == 1 && parts.length > 1 ? Integer.parseInt(parts[1]) : first;
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns version description that identifies the JDK build.
+     */
+    String describe() {
+        StringBuilder b = new StringBuilder();
+        String runtimeVersion = getRuntimeVersion();
+        b.append(runtimeVersion != null ? runtimeVersion : getVersion());
+        String implementor = getImplementor();
+        if (implementor != null) {
+            b.append(" (").append(implementor).append(")");
+        }
+        return b.toString();
+    }
+}
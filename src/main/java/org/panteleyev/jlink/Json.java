@@ -0,0 +1,321 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Minimal JSON writer and parser for plugin reports. Supports maps, collections, strings, numbers, booleans and
+ * nulls. Parsed objects are returned as {@link LinkedHashMap}, arrays as {@link ArrayList}, numbers as
+ * {@link Double}.
+ */
+final class Json {
+    private Json() {
+    }
+
+    static String toJson(Object value) {
+        StringBuilder out = new StringBuilder();
+        write(out, value, 0);
+        return out.append('\n').toString();
+    }
+
+    static void write(Path file, Object value) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, toJson(value).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Object read(Path file) throws IOException {
+        return parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses JSON text.
+     *
+     * @throws IOException if text is not valid JSON
+     */
+    static Object parse(String text) throws IOException {
+        Parser parser = new Parser(text);
+        Object value = parser.value();
+        parser.skipWhitespace();
+        if (parser.pos != text.length()) {
+            throw parser.error("Unexpected content");
+        }
+        return value;
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Object value() throws IOException {
+            skipWhitespace();
+            if (pos >= text.length()) {
+                throw error("Unexpected end of text");
+            }
+            char c = text.charAt(pos);
+            switch (c) {
+                case '{':
+                    return object();
+                case '[':
+                    return array();
+                case '"':
+                    return string();
+                case 't':
+                    return literal("true", Boolean.TRUE);
+                case 'f':
+                    return literal("false", Boolean.FALSE);
+                case 'n':
+                    return literal("null", null);
+                default:
+                    return number();
+            }
+        }
+
+        private Map<String, Object> object() throws IOException {
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return map;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw error("Expected string");
+                }
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                map.put(key, value());
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect('}');
+                    return map;
+                }
+            }
+        }
+
+        private List<Object> array() throws IOException {
+            List<Object> list = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return list;
+            }
+            while (true) {
+                list.add(value());
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect(']');
+                    return list;
+                }
+            }
+        }
+
+        private String string() throws IOException {
+            StringBuilder b = new StringBuilder();
+            pos++;
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return b.toString();
+                }
+                if (c != '\\') {
+                    b.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) {
+                    break;
+                }
+                char e = text.charAt(pos++);
+                switch (e) {
+                    case 'b':
+                        b.append('\b');
+                        break;
+                    case 'f':
+                        b.append('\f');
+                        break;
+                    case 'n':
+                        b.append('\n');
+                        break;
+                    case 'r':
+                        b.append('\r');
+                        break;
+                    case 't':
+                        b.append('\t');
+                        break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw error("Invalid escape");
+                        }
+                        try {
+                            b.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw error("Invalid escape");
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        b.append(e);
+                        break;
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private Double number() throws IOException {
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            try {
+                return Double.valueOf(text.substring(start, pos));
+            } catch (NumberFormatException ex) {
+                pos = start;
+                throw error("Unexpected character");
+            }
+        }
+
+        private Object literal(String literal, Object value) throws IOException {
+            if (!text.startsWith(literal, pos)) {
+                throw error("Unexpected character");
+            }
+            pos += literal.length();
+            return value;
+        }
+
+        private char peek() throws IOException {
+            if (pos >= text.length()) {
+                throw error("Unexpected end of text");
+            }
+            return text.charAt(pos);
+        }
+
+        private void expect(char c) throws IOException {
+            if (peek() != c) {
+                throw error("Expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        IOException error(String message) {
+            return new IOException(message + " at position " + pos);
+        }
+    }
+
+    private static void write(StringBuilder out, Object value, int indent) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            if (map.isEmpty()) {
+                out.append("{}");
+                return;
+            }
+            out.append("{\n");
+            int i = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                indent(out, indent + 1);
+                writeString(out, String.valueOf(entry.getKey()));
+                out.append(": ");
+                write(out, entry.getValue(), indent + 1);
+                out.append(++i < map.size() ? ",\n" : "\n");
+            }
+            indent(out, indent);
+            out.append('}');
+        } else if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            if (collection.isEmpty()) {
+                out.append("[]");
+                return;
+            }
+            out.append("[\n");
+            int i = 0;
+            for (Object item : collection) {
+                indent(out, indent + 1);
+                write(out, item, indent + 1);
+                out.append(++i < collection.size() ? ",\n" : "\n");
+            }
+            indent(out, indent);
+            out.append(']');
+        } else if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                out.append("null");
+            } else {
+                out.append(String.format(Locale.ROOT, "%.3f", d));
+            }
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else {
+            writeString(out, value.toString());
+        }
+    }
+
+    private static void writeString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                    break;
+            }
+        }
+        out.append('"');
+    }
+
+    private static void indent(StringBuilder out, int indent) {
+        for (int i = 0; i < indent; i++) {
+            out.append("  ");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reports and baselines of goals that measure images. Both are JSON objects with results by image name.
+ */
+final class JsonReport {
+    static final String UPDATE_BASELINE_PROPERTY = "jlink.updateBaseline";
+
+    private JsonReport() {
+    }
+
+    /**
+     * Reads baseline results.
+     *
+     * @return results by image name or empty value if baseline does not exist
+     * @throws MojoExecutionException if baseline cannot be read or is not a JSON object
+     */
+    static Optional<Map<?, ?>> readBaseline(Path file, Log log) throws MojoExecutionException {
+        if (!Files.isRegularFile(file)) {
+            log.info("Baseline " + file + " not found, use -D" + UPDATE_BASELINE_PROPERTY + "=true to create it");
+            return Optional.empty();
+        }
+        try {
+            Object json = Json.read(file);
+            if (!(json instanceof Map)) {
+                throw new IOException("Object expected");
+            }
+            return Optional.of((Map<?, ?>) json);
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Failed to read baseline " + file + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    static void write(Path file, Object report) throws MojoExecutionException {
+        try {
+            Json.write(file, report);
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Failed to write " + file + ": " + ex.getMessage(), ex);
+        }
+    }
+}
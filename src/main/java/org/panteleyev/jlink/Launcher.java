@@ -1,11 +1,15 @@
 /*
- Copyright © 2024 Petr Panteleyev <petr@panteleyev.org>
+ Copyright © 2024-2026 Petr Panteleyev <petr@panteleyev.org>
  SPDX-License-Identifier: BSD-2-Clause
  */
 package org.panteleyev.jlink;
 
 import org.apache.maven.plugin.MojoFailureException;
 
+import java.nio.file.Path;
+
+import static org.panteleyev.jlink.OsUtil.isWindows;
+
 public class Launcher {
     private String name;
     private String module;
@@ -47,6 +51,13 @@ public class Launcher {
         }
     }
 
+    /**
+     * Returns launcher script generated in the image.
+     */
+    Path getScript(Path image) {
+        return image.resolve("bin").resolve(isWindows() ? name + ".bat" : name);
+    }
+
     public String toString() {
         StringBuilder b = new StringBuilder(name)
                 .append("=")
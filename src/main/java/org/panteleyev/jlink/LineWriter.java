@@ -0,0 +1,48 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.io.Writer;
+import java.util.function.Consumer;
+
+/**
+ * Writer that passes each written line to the consumer as soon as the line is complete.
+ */
+final class LineWriter extends Writer {
+    private final StringBuilder line = new StringBuilder();
+    private final Consumer<String> consumer;
+
+    LineWriter(Consumer<String> consumer) {
+        this.consumer = consumer;
+    }
+
+    @Override
+    public synchronized void write(char[] buffer, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            char c = buffer[i];
+            if (c == '\n') {
+                emit();
+            } else if (c != '\r') {
+                line.append(c);
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public synchronized void close() {
+        if (line.length() > 0) {
+            emit();
+        }
+    }
+
+    private void emit() {
+        consumer.accept(line.toString());
+        line.setLength(0);
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.panteleyev.jlink.StringUtil.formatSize;
+
+/**
+ * <p>Memory footprint of a running JVM: resident set size and committed memory reported by Native Memory Tracking
+ * summary.</p>
+ * <p>Sizes are in bytes, classes and threads are counts. Newer JDK versions report metaspace as a separate NMT
+ * category, committed memory of the Class category is used for older versions.</p>
+ */
+final class MemoryFootprint {
+    static final String RSS = "rss";
+    static final String COMMITTED = "committed";
+    static final String HEAP = "heap";
+    static final String METASPACE = "metaspace";
+    static final String CODE_CACHE = "codeCache";
+    static final String CLASSES = "classes";
+    static final String THREADS = "threads";
+
+    static final List<String> METRICS = Collections.unmodifiableList(
+            Arrays.asList(RSS, COMMITTED, HEAP, METASPACE, CODE_CACHE, CLASSES, THREADS));
+
+    private static final List<String> COUNTS = Arrays.asList(CLASSES, THREADS);
+
+    private static final String SIZE = "(\\d+)([KMG]?B)";
+    private static final Pattern TOTAL = Pattern.compile("^Total: reserved=" + SIZE + ", committed=" + SIZE);
+    private static final Pattern CATEGORY =
+            Pattern.compile("^-\\s*(.+?)\\s*\\(reserved=" + SIZE + ", committed=" + SIZE + "\\)");
+    private static final Pattern COUNT = Pattern.compile("^\\((classes|thread) #(\\d+)\\)");
+
+    private final Map<String, Long> values = new LinkedHashMap<>();
+
+    /**
+     * Parses output of <code>jcmd &lt;pid&gt; VM.native_memory summary</code>.
+     *
+     * @throws IllegalArgumentException if output does not contain NMT summary
+     */
+    static MemoryFootprint parse(List<String> lines) {
+        Map<String, Long> found = new LinkedHashMap<>();
+        Long classMemory = null;
+        for (String line : lines) {
+            line = line.trim();
+            Matcher matcher = TOTAL.matcher(line);
+            if (matcher.find()) {
+                found.put(COMMITTED, bytes(matcher.group(3), matcher.group(4)));
+                continue;
+            }
+            matcher = CATEGORY.matcher(line);
+            if (matcher.find()) {
+                long committed = bytes(matcher.group(4), matcher.group(5));
+                switch (matcher.group(1)) {
+                    case "Java Heap":
+                        found.put(HEAP, committed);
+                        break;
+                    case "Metaspace":
+                        found.put(METASPACE, committed);
+                        break;
+                    case "Class":
+                        classMemory = committed;
+                        break;
+                    case "Code":
+                        found.put(CODE_CACHE, committed);
+                        break;
+                    default:
+                        break;
+                }
+                continue;
+            }
+            matcher = COUNT.matcher(line);
+            if (matcher.find()) {
+                found.put(matcher.group(1).equals("thread") ? THREADS : CLASSES, Long.parseLong(matcher.group(2)));
+            }
+        }
+        if (!found.containsKey(COMMITTED)) {
+            throw new IllegalArgumentException("Native memory tracking summary not found");
+        }
+        if (!found.containsKey(METASPACE) && classMemory != null) {
+            found.put(METASPACE, classMemory);
+        }
+
+        MemoryFootprint footprint = new MemoryFootprint();
+        for (String metric : METRICS) {
+            if (found.containsKey(metric)) {
+                footprint.values.put(metric, found.get(metric));
+            }
+        }
+        return footprint;
+    }
+
+    void setRss(long rss) {
+        Map<String, Long> copy = new LinkedHashMap<>(values);
+        values.clear();
+        values.put(RSS, rss);
+        values.putAll(copy);
+    }
+
+    /**
+     * Returns measured values in the order of {@link #METRICS}.
+     */
+    Map<String, Long> getValues() {
+        return Collections.unmodifiableMap(values);
+    }
+
+    Map<String, Object> toMap() {
+        return new LinkedHashMap<>(values);
+    }
+
+    /**
+     * Returns violations of budgets.
+     *
+     * @param budgets maximum values by metric name
+     */
+    List<String> checkBudgets(Map<String, Long> budgets) {
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : budgets.entrySet()) {
+            Long value = values.get(entry.getKey());
+            if (value != null && value > entry.getValue()) {
+                violations.add(entry.getKey() + " " + format(entry.getKey(), value) + " exceeds budget "
+                        + format(entry.getKey(), entry.getValue()));
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Returns change of each metric against baseline, percent. Metrics missing in the baseline are skipped.
+     */
+    Map<String, Double> compare(Map<?, ?> baseline) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            Object expected = baseline.get(entry.getKey());
+            if (expected instanceof Number) {
+                double base = ((Number) expected).doubleValue();
+                result.put(entry.getKey(), base > 0 ? (entry.getValue() - base) * 100 / base : 0);
+            }
+        }
+        return result;
+    }
+
+    static String format(String metric, long value) {
+        return COUNTS.contains(metric) ? Long.toString(value) : formatSize(value);
+    }
+
+    @Override
+    public String toString() {
+        List<String> parts = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            parts.add(entry.getKey() + " " + format(entry.getKey(), entry.getValue()));
+        }
+        return String.join(", ", parts);
+    }
+
+    private static long bytes(String value, String unit) {
+        long result = Long.parseLong(value);
+        switch (unit) {
+            case "KB":
+                return result * 1024;
+            case "MB":
+                return result * 1024 * 1024;
+            case "GB":
+                return result * 1024 * 1024 * 1024;
+            default:
+                return result;
+        }
+    }
+}
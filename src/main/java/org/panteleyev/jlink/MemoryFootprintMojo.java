@@ -0,0 +1,254 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.panteleyev.jlink.OsUtil.isWindows;
+import static org.panteleyev.jlink.StringUtil.parseSize;
+
+/**
+ * <p>Measures memory footprint of the launcher of generated images.</p>
+ * <p>Launcher is executed with Native Memory Tracking enabled until it prints a steady state marker or until
+ * timeout. Resident set size, committed heap, metaspace and code cache, numbers of classes and threads are
+ * collected with jcmd of the same JDK. Build fails if any value exceeds its budget or regresses against the stored
+ * baseline.</p>
+ */
+@Mojo(name = MemoryFootprintMojo.GOAL, defaultPhase = LifecyclePhase.NONE)
+public class MemoryFootprintMojo extends JLinkMojo {
+    public static final String GOAL = "memory-footprint";
+
+
+    /**
+     * <p>Name of the launcher to measure. Defaults to the first launcher of the image.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.memoryLauncher")
+    private String memoryLauncher;
+
+    /**
+     * <p>Arguments passed to the launcher.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter
+    private List<String> memoryArguments;
+
+    /**
+     * <p>Additional JVM options, e.g. heap size. Options are passed via <code>JDK_JAVA_OPTIONS</code> environment
+     * variable together with options of the launcher script.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter
+    private List<String> memoryJvmOptions;
+
+    /**
+     * <p>If set, footprint is measured when this text appears in the launcher standard output. Otherwise it is
+     * measured when memoryTimeout expires.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.memoryMarker")
+    private String memoryMarker;
+
+    /**
+     * <p>Time to wait for the marker or time to run the application before measurement, seconds.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.memoryTimeout", defaultValue = "30")
+    private int memoryTimeout;
+
+    /**
+     * <p>Maximum values of metrics. Sizes may have K, M or G suffix.</p>
+     * <pre>
+     * &lt;memoryBudgets&gt;
+     *     &lt;rss&gt;64M&lt;/rss&gt;
+     *     &lt;classes&gt;3000&lt;/classes&gt;
+     * &lt;/memoryBudgets&gt;
+     * </pre>
+     *
+     * @since 1.2.0
+     */
+    @Parameter
+    private Map<String, String> memoryBudgets;
+
+    /**
+     * <p>Baseline results. Usually stored in the version control system.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(defaultValue = "${project.basedir}/memory-baseline.json")
+    private File memoryBaseline;
+
+    /**
+     * <p>Maximum allowed increase of any metric against baseline, percent.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.regressionThreshold", defaultValue = "10")
+    private double regressionThreshold;
+
+    /**
+     * <p>Stores results as the new baseline instead of checking them against the baseline.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.updateBaseline", defaultValue = "false")
+    private boolean updateBaseline;
+
+    /**
+     * <p>Memory footprint report.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(defaultValue = "${project.build.directory}/jlink-memory.json")
+    private File memoryReport;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (isSkip()) {
+            getLog().info("Skipping plugin execution");
+            return;
+        }
+
+        Map<String, Long> budgets = new LinkedHashMap<>();
+        if (memoryBudgets != null) {
+            for (Map.Entry<String, String> entry : memoryBudgets.entrySet()) {
+                if (!MemoryFootprint.METRICS.contains(entry.getKey())) {
+                    throw new MojoFailureException("Unknown memoryBudgets metric " + entry.getKey()
+                            + ", supported: " + String.join(", ", MemoryFootprint.METRICS));
+                }
+                try {
+                    budgets.put(entry.getKey(), parseSize(entry.getValue()));
+                } catch (IllegalArgumentException ex) {
+                    throw new MojoFailureException("Invalid memoryBudgets/" + entry.getKey() + ": "
+                            + ex.getMessage());
+                }
+            }
+        }
+
+        Path jcmd = JavaRelease.homeOf(getExecutable()).resolve("bin").resolve(isWindows() ? "jcmd.exe" : "jcmd");
+        if (!Files.isRegularFile(jcmd)) {
+            throw new MojoFailureException(jcmd + " not found");
+        }
+
+        Map<String, MemoryFootprint> results = new LinkedHashMap<>();
+        Map<String, Object> report = new LinkedHashMap<>();
+        for (Image image : getImages()) {
+            Launcher launcher = image.getLauncher(memoryLauncher);
+            Path output = image.getOutput().toPath().toAbsolutePath();
+            Path script = launcher.getScript(output);
+            if (!Files.isRegularFile(script)) {
+                throw new MojoFailureException("Launcher " + script + " not found, image must be built first");
+            }
+
+            getLog().info("Measuring memory footprint of " + image.getName() + " launcher " + launcher.getName()
+                    + (memoryMarker == null ? " after " + memoryTimeout + " s" : " at marker"));
+            MemoryFootprint footprint = measure(script, jcmd);
+            getLog().info("  " + footprint);
+            results.put(image.getName(), footprint);
+
+            Map<String, Object> imageReport = new LinkedHashMap<>();
+            imageReport.put("launcher", launcher.getName());
+            imageReport.put("marker", memoryMarker);
+            imageReport.putAll(footprint.toMap());
+            report.put(image.getName(), imageReport);
+        }
+
+        Path reportFile = memoryReport.toPath();
+        JsonReport.write(reportFile, report);
+        getLog().info("Report: " + reportFile);
+
+        Path baselineFile = memoryBaseline.toPath();
+        if (updateBaseline) {
+            JsonReport.write(baselineFile, report);
+            getLog().info("Baseline updated: " + baselineFile);
+            return;
+        }
+
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, MemoryFootprint> entry : results.entrySet()) {
+            for (String violation : entry.getValue().checkBudgets(budgets)) {
+                violations.add(entry.getKey() + ": " + violation);
+            }
+        }
+        violations.addAll(checkBaseline(baselineFile, results));
+
+        if (!violations.isEmpty()) {
+            throw new MojoFailureException("Memory footprint check failed:\n" + String.join("\n", violations));
+        }
+    }
+
+    private List<String> checkBaseline(Path baselineFile, Map<String, MemoryFootprint> results)
+            throws MojoExecutionException {
+        List<String> violations = new ArrayList<>();
+        Optional<Map<?, ?>> baseline = JsonReport.readBaseline(baselineFile, getLog());
+        if (!baseline.isPresent()) {
+            return violations;
+        }
+
+        for (Map.Entry<String, MemoryFootprint> entry : results.entrySet()) {
+            Object imageBaseline = baseline.get().get(entry.getKey());
+            if (!(imageBaseline instanceof Map)) {
+                getLog().info("No baseline for " + entry.getKey());
+                continue;
+            }
+            Map<?, ?> expected = (Map<?, ?>) imageBaseline;
+            for (Map.Entry<String, Double> change : entry.getValue().compare(expected).entrySet()) {
+                String metric = change.getKey();
+                String message = String.format("%s: %s %s, baseline %s, change %+.1f%%", entry.getKey(), metric,
+                        MemoryFootprint.format(metric, entry.getValue().getValues().get(metric)),
+                        MemoryFootprint.format(metric, ((Number) expected.get(metric)).longValue()),
+                        change.getValue());
+                if (change.getValue() > regressionThreshold) {
+                    violations.add(message + " exceeds threshold " + regressionThreshold + "%");
+                } else {
+                    getLog().info(message);
+                }
+            }
+        }
+        return violations;
+    }
+
+    private MemoryFootprint measure(Path script, Path jcmd) throws MojoExecutionException {
+        List<String> command = new ArrayList<>();
+        command.add(script.toString());
+        if (memoryArguments != null) {
+            command.addAll(memoryArguments);
+        }
+        try {
+            return new MemoryProfiler(command, jcmd)
+                    .marker(memoryMarker)
+                    .jvmOptions(memoryJvmOptions)
+                    .timeout(memoryTimeout, TimeUnit.SECONDS)
+                    .run();
+        } catch (IOException | TimeoutException ex) {
+            throw new MojoExecutionException("Failed to measure memory footprint of " + script + ": "
+                    + ex.getMessage(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted", ex);
+        }
+    }
+}
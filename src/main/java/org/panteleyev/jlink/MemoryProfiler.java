@@ -0,0 +1,179 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.panteleyev.jlink.OsUtil.isWindows;
+
+/**
+ * <p>Measures memory footprint of a JVM started by a command, usually a launcher script of the image.</p>
+ * <p>Native Memory Tracking is enabled via <code>JDK_JAVA_OPTIONS</code> environment variable, so options of the
+ * launcher script are preserved. Footprint is measured when the marker line is printed to the standard output or,
+ * if marker is not set, when timeout expires. Then the process is terminated.</p>
+ */
+final class MemoryProfiler {
+    private static final int OUTPUT_TAIL_LINES = 20;
+    private static final long POLL_INTERVAL = 100;
+    private static final long JCMD_TIMEOUT = 60;
+    private static final String NMT_OPTION = "-XX:NativeMemoryTracking=summary";
+
+    private final List<String> command;
+    private final Path jcmd;
+    private final List<String> jvmOptions = new ArrayList<>();
+    private String marker;
+    private long timeoutMillis;
+
+    /**
+     * Creates profiler.
+     *
+     * @param command command that starts JVM
+     * @param jcmd    jcmd executable of the JDK the image was linked from
+     */
+    MemoryProfiler(List<String> command, Path jcmd) {
+        this.command = new ArrayList<>(command);
+        this.jcmd = jcmd;
+    }
+
+    /**
+     * Sets standard output marker of the steady state, <code>null</code> means footprint is measured after
+     * timeout.
+     */
+    MemoryProfiler marker(String marker) {
+        this.marker = marker;
+        return this;
+    }
+
+    MemoryProfiler timeout(long timeout, TimeUnit unit) {
+        this.timeoutMillis = unit.toMillis(timeout);
+        return this;
+    }
+
+    MemoryProfiler jvmOptions(List<String> options) {
+        if (options != null) {
+            jvmOptions.addAll(options);
+        }
+        return this;
+    }
+
+    MemoryFootprint run() throws IOException, InterruptedException, TimeoutException {
+        TailBuffer tail = new TailBuffer(OUTPUT_TAIL_LINES);
+        CountDownLatch markerFound = new CountDownLatch(1);
+
+        List<String> options = new ArrayList<>(jvmOptions);
+        options.add(NMT_OPTION);
+        ProcessRunner runner = new ProcessRunner(command)
+                .environment("JDK_JAVA_OPTIONS", String.join(" ", options))
+                .out(line -> {
+                    tail.add(line);
+                    if (marker != null && line.contains(marker)) {
+                        markerFound.countDown();
+                    }
+                })
+                .err(tail::add);
+
+        Process process = runner.start();
+        try {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (process.isAlive() && markerFound.getCount() > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    break;
+                }
+                markerFound.await(Math.min(remaining, POLL_INTERVAL), TimeUnit.MILLISECONDS);
+            }
+            if (!process.isAlive()) {
+                throw new IOException("Process exited with code " + process.exitValue()
+                        + " before memory footprint was measured\n" + tail);
+            }
+            if (marker != null && markerFound.getCount() > 0) {
+                throw new TimeoutException("Marker \"" + marker + "\" was not found in the output in "
+                        + timeoutMillis + " ms\n" + tail);
+            }
+
+            String java = isWindows() ? "java.exe" : "java";
+            OptionalLong pid = ProcessRunner.findPid(process, path -> Paths.get(path).getFileName().toString()
+                    .equalsIgnoreCase(java));
+            if (!pid.isPresent()) {
+                throw new IOException("JVM process not found, Maven must run on Java 9 or later");
+            }
+
+            MemoryFootprint footprint;
+            try {
+                footprint = MemoryFootprint.parse(jcmd(pid.getAsLong(), "VM.native_memory", "summary"));
+            } catch (IllegalArgumentException ex) {
+                throw new IOException(ex.getMessage() + ", " + NMT_OPTION + " is not applied");
+            }
+            OptionalLong rss = rss(pid.getAsLong());
+            if (rss.isPresent()) {
+                footprint.setRss(rss.getAsLong());
+            }
+            return footprint;
+        } finally {
+            ProcessRunner.destroy(process);
+            runner.waitFor(process);
+        }
+    }
+
+    private List<String> jcmd(long pid, String... arguments)
+            throws IOException, InterruptedException, TimeoutException {
+        List<String> jcmdCommand = new ArrayList<>();
+        jcmdCommand.add(jcmd.toString());
+        jcmdCommand.add(Long.toString(pid));
+        jcmdCommand.addAll(Arrays.asList(arguments));
+
+        List<String> output = new ArrayList<>();
+        int exitCode = new ProcessRunner(jcmdCommand)
+                .out(output::add)
+                .err(output::add)
+                .timeout(JCMD_TIMEOUT, TimeUnit.SECONDS)
+                .run();
+        if (exitCode != 0) {
+            throw new IOException(jcmd + " failed, exit code " + exitCode + "\n" + String.join("\n", output));
+        }
+        return output;
+    }
+
+    /**
+     * Returns resident set size of the process on Linux and other Unix systems.
+     */
+    private static OptionalLong rss(long pid) throws IOException, InterruptedException, TimeoutException {
+        if (isWindows()) {
+            return OptionalLong.empty();
+        }
+        Path status = Paths.get("/proc", Long.toString(pid), "status");
+        if (Files.isReadable(status)) {
+            for (String line : Files.readAllLines(status, StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmRSS:")) {
+                    return OptionalLong.of(parseKilobytes(line.substring("VmRSS:".length())));
+                }
+            }
+            return OptionalLong.empty();
+        }
+
+        List<String> output = new ArrayList<>();
+        int exitCode = new ProcessRunner(Arrays.asList("ps", "-o", "rss=", "-p", Long.toString(pid)))
+                .out(output::add)
+                .timeout(JCMD_TIMEOUT, TimeUnit.SECONDS)
+                .run();
+        return exitCode == 0 && !output.isEmpty() ?
+                OptionalLong.of(parseKilobytes(output.get(0))) : OptionalLong.empty();
+    }
+
+    static long parseKilobytes(String value) {
+        return Long.parseLong(value.trim().replaceAll("(?i)\\s*kb$", "")) * 1024;
+    }
+}
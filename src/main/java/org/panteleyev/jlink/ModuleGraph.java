@@ -0,0 +1,356 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Observable modules: application modules found in the module path and system modules of the JDK.
+ */
+final class ModuleGraph {
+    private static final int MAX_LISTED_PACKAGES = 5;
+
+    /**
+     * Resolved modules and problems found during resolution.
+     */
+    static final class Resolution {
+        private final Set<String> modules;
+        private final List<String> problems;
+
+        private Resolution(Set<String> modules, List<String> problems) {
+            this.modules = modules;
+            this.problems = problems;
+        }
+
+        Set<String> getModules() {
+            return modules;
+        }
+
+        List<String> getProblems() {
+            return problems;
+        }
+    }
+
+    private final Map<String, ModuleInfo> appModules = new LinkedHashMap<>();
+    private final Map<String, ModuleInfo> systemModules = new LinkedHashMap<>();
+    private final Map<String, String> packageOwners = new HashMap<>();
+    private final Map<String, List<Path>> duplicates = new HashMap<>();
+
+    /**
+     * Creates module graph. If several application modules have the same name the first one is used like the
+     * module system does.
+     */
+    ModuleGraph(Collection<ModuleInfo> appModules, Collection<ModuleInfo> systemModules) {
+        for (ModuleInfo m : systemModules) {
+            this.systemModules.putIfAbsent(m.getName(), m);
+        }
+        for (ModuleInfo m : appModules) {
+            if (this.systemModules.containsKey(m.getName())) {
+                continue;
+            }
+            ModuleInfo first = this.appModules.putIfAbsent(m.getName(), m);
+            // Module finder fails if the same directory contains several modules with the same name
+            if (first != null && isSameDirectory(first.getLocation(), m.getLocation())) {
+                duplicates.computeIfAbsent(m.getName(), k -> new ArrayList<>(Collections.singletonList(
+                        first.getLocation()))).add(m.getLocation());
+            }
+        }
+        for (ModuleInfo m : this.systemModules.values()) {
+            for (String p : m.getPackages()) {
+                packageOwners.putIfAbsent(p, m.getName());
+            }
+        }
+        for (ModuleInfo m : this.appModules.values()) {
+            for (String p : m.getPackages()) {
+                packageOwners.putIfAbsent(p, m.getName());
+            }
+        }
+    }
+
+    Map<String, ModuleInfo> getAppModules() {
+        return appModules;
+    }
+
+    Map<String, ModuleInfo> getSystemModules() {
+        return systemModules;
+    }
+
+    ModuleInfo find(String name) {
+        ModuleInfo m = appModules.get(name);
+        return m != null ? m : systemModules.get(name);
+    }
+
+    /**
+     * Returns module that contains the package or <code>null</code>.
+     */
+    String ownerOf(String packageName) {
+        return packageOwners.get(packageName);
+    }
+
+    /**
+     * Returns modules read by the module. Dependencies of automatic modules are modules that own packages referenced
+     * by their classes. Static dependencies are not included as they are not resolved at run time.
+     */
+    Set<String> dependencies(ModuleInfo module) {
+        Set<String> result = new TreeSet<>();
+        for (ModuleInfo.Requires r : module.getRequires()) {
+            if (!r.isStatic()) {
+                result.add(r.getName());
+            }
+        }
+        for (String p : module.getReferencedPackages()) {
+            String owner = packageOwners.get(p);
+            if (owner != null && !owner.equals(module.getName())) {
+                result.add(owner);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * <p>Computes minimal set of root modules for <code>--add-modules</code>.</p>
+     * <p>Roots are application modules that are not required by other application modules plus system modules
+     * needed by automatic modules that are not already reachable from those roots.</p>
+     */
+    Set<String> minimalRoots() {
+        Set<String> required = new HashSet<>();
+        for (ModuleInfo m : appModules.values()) {
+            for (String d : dependencies(m)) {
+                if (appModules.containsKey(d)) {
+                    required.add(d);
+                }
+            }
+        }
+
+        Set<String> roots = new TreeSet<>();
+        for (String name : appModules.keySet()) {
+            if (!required.contains(name)) {
+                roots.add(name);
+            }
+        }
+
+        // System modules used by automatic modules cannot be declared in their descriptors
+        Set<String> reachable = closure(roots, false);
+        for (ModuleInfo m : appModules.values()) {
+            if (!m.isAutomatic()) {
+                continue;
+            }
+            for (String d : dependencies(m)) {
+                if (systemModules.containsKey(d) && !reachable.contains(d)) {
+                    roots.add(d);
+                    reachable.addAll(closure(Collections.singleton(d), false));
+                }
+            }
+        }
+
+        if (roots.isEmpty()) {
+            roots.add(ModuleInfo.JAVA_BASE);
+        }
+        return roots;
+    }
+
+    /**
+     * <p>Resolves root modules like {@code Configuration.resolve} does and reports problems that make jlink fail:
+     * missing modules, automatic modules, several modules with the same name in a directory, packages contained in
+     * several modules read by the same module and cyclic dependencies.</p>
+     * <p>Like jlink, limit modules restrict observable modules to their dependencies and root modules.</p>
+     *
+     * @param roots          root modules
+     * @param limitModules   modules that limit the universe of observable modules, empty if not limited
+     * @param allowAutomatic whether automatic modules may be resolved
+     */
+    Resolution resolve(Collection<String> roots, Collection<String> limitModules, boolean allowAutomatic) {
+        List<String> problems = new ArrayList<>();
+        Set<String> observable = null;
+        if (limitModules != null && !limitModules.isEmpty()) {
+            for (String name : limitModules) {
+                if (find(name) == null) {
+                    problems.add("Module " + name + " of limitModules not found");
+                }
+            }
+            observable = closure(limitModules, true);
+            observable.addAll(roots);
+        }
+
+        Set<String> modules = new TreeSet<>();
+        Map<String, String> requiredBy = new HashMap<>();
+        Deque<String> queue = new ArrayDeque<>(roots);
+        if (!roots.isEmpty()) {
+            queue.add(ModuleInfo.JAVA_BASE);
+        }
+        while (!queue.isEmpty()) {
+            String name = queue.poll();
+            if (!modules.add(name)) {
+                continue;
+            }
+            ModuleInfo m = observable == null || observable.contains(name) ? find(name) : null;
+            if (m == null) {
+                String by = requiredBy.get(name);
+                problems.add("Module " + name + " not found" + (by == null ? "" : ", required by " + by));
+                continue;
+            }
+            if (m.isAutomatic() && !allowAutomatic) {
+                problems.add("Module " + name + " is an automatic module" + (m.getLocation() == null ?
+                        "" : " (" + m.getLocation() + ")") + ", automatic modules cannot be linked");
+            }
+            List<Path> locations = duplicates.get(name);
+            if (locations != null) {
+                problems.add("Several modules " + name + " found in the same directory: " + locations);
+            }
+            for (String d : dependencies(m)) {
+                requiredBy.putIfAbsent(d, name);
+                queue.add(d);
+            }
+        }
+
+        // Like the module layer does, a module and modules it reads must not contain the same package
+        Map<String, Set<String>> splitPackages = new TreeMap<>();
+        for (String name : modules) {
+            Map<String, String> owners = new HashMap<>();
+            for (String read : reads(name, modules)) {
+                ModuleInfo m = find(read);
+                if (m == null) {
+                    continue;
+                }
+                for (String p : m.getPackages()) {
+                    String owner = owners.putIfAbsent(p, read);
+                    if (owner != null) {
+                        String first = owner.compareTo(read) < 0 ? owner : read;
+                        String second = first.equals(owner) ? read : owner;
+                        splitPackages.computeIfAbsent("Modules " + first + " and " + second
+                                + " contain the same packages: ", k -> new TreeSet<>()).add(p);
+                    }
+                }
+            }
+        }
+        for (Map.Entry<String, Set<String>> entry : splitPackages.entrySet()) {
+            List<String> packages = new ArrayList<>(entry.getValue());
+            problems.add(entry.getKey() + String.join(", ",
+                    packages.subList(0, Math.min(MAX_LISTED_PACKAGES, packages.size())))
+                    + (packages.size() > MAX_LISTED_PACKAGES ?
+                    " and " + (packages.size() - MAX_LISTED_PACKAGES) + " more" : ""));
+        }
+
+        List<String> cycle = findCycle(modules);
+        if (!cycle.isEmpty()) {
+            problems.add("Cyclic module dependency: " + String.join(" -> ", cycle));
+        }
+        return new Resolution(modules, problems);
+    }
+
+    /**
+     * Returns the module followed by resolved modules it reads, including modules read via requires transitive.
+     */
+    private Set<String> reads(String name, Set<String> modules) {
+        Set<String> result = new LinkedHashSet<>();
+        result.add(name);
+        ModuleInfo m = find(name);
+        if (m == null) {
+            return result;
+        }
+        Deque<String> queue = new ArrayDeque<>(dependencies(m));
+        queue.add(ModuleInfo.JAVA_BASE);
+        while (!queue.isEmpty()) {
+            String read = queue.poll();
+            if (!modules.contains(read) || !result.add(read)) {
+                continue;
+            }
+            ModuleInfo r = find(read);
+            if (r == null) {
+                continue;
+            }
+            for (ModuleInfo.Requires requires : r.getRequires()) {
+                if (requires.isTransitive()) {
+                    queue.add(requires.getName());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the first cycle of requires between explicit modules or empty list.
+     */
+    private List<String> findCycle(Set<String> modules) {
+        Set<String> visited = new HashSet<>();
+        for (String name : modules) {
+            List<String> path = new ArrayList<>();
+            List<String> cycle = findCycle(name, modules, visited, path);
+            if (!cycle.isEmpty()) {
+                return cycle;
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private List<String> findCycle(String name, Set<String> modules, Set<String> visited, List<String> path) {
+        int index = path.indexOf(name);
+        if (index >= 0) {
+            List<String> cycle = new ArrayList<>(path.subList(index, path.size()));
+            cycle.add(name);
+            return cycle;
+        }
+        ModuleInfo m = find(name);
+        if (!visited.add(name) || m == null || m.isAutomatic()) {
+            return Collections.emptyList();
+        }
+        path.add(name);
+        for (ModuleInfo.Requires r : m.getRequires()) {
+            if (!r.isStatic() && modules.contains(r.getName())) {
+                List<String> cycle = findCycle(r.getName(), modules, visited, path);
+                if (!cycle.isEmpty()) {
+                    return cycle;
+                }
+            }
+        }
+        path.remove(path.size() - 1);
+        return Collections.emptyList();
+    }
+
+    private static boolean isSameDirectory(Path first, Path second) {
+        return first != null && second != null && Objects.equals(first.getParent(), second.getParent());
+    }
+
+    /**
+     * Returns modules reachable from roots.
+     *
+     * @param roots            root modules
+     * @param includeAutomatic whether dependencies of automatic modules are followed
+     */
+    Set<String> closure(Collection<String> roots, boolean includeAutomatic) {
+        Set<String> result = new TreeSet<>();
+        Deque<String> queue = new ArrayDeque<>(roots);
+        while (!queue.isEmpty()) {
+            String name = queue.poll();
+            if (!result.add(name)) {
+                continue;
+            }
+            ModuleInfo m = find(name);
+            if (m == null || (m.isAutomatic() && !includeAutomatic)) {
+                continue;
+            }
+            queue.addAll(dependencies(m));
+        }
+        if (!result.isEmpty()) {
+            result.add(ModuleInfo.JAVA_BASE);
+        }
+        return result;
+    }
+}
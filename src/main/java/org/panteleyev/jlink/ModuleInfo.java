@@ -0,0 +1,202 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Module descriptor read from <code>module-info.class</code> or derived for automatic module.
+ */
+final class ModuleInfo {
+    static final String JAVA_BASE = "java.base";
+
+    private static final String NAME = "name";
+    private static final String VERSION = "version";
+    private static final String AUTOMATIC = "automatic";
+    private static final String MAIN_CLASS = "mainClass";
+    private static final String REQUIRES = "requires";
+    private static final String PACKAGES = "packages";
+    private static final String USES = "uses";
+    private static final String PROVIDES = "provides";
+    private static final String REFERENCED_PACKAGES = "referencedPackages";
+
+    static final class Requires {
+        private final String name;
+        private final boolean transitive;
+        private final boolean isStatic;
+
+        Requires(String name, boolean transitive, boolean isStatic) {
+            this.name = name;
+            this.transitive = transitive;
+            this.isStatic = isStatic;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        boolean isTransitive() {
+            return transitive;
+        }
+
+        boolean isStatic() {
+            return isStatic;
+        }
+    }
+
+    private final String name;
+    private String version;
+    private boolean automatic;
+    private String mainClass;
+    private final List<Requires> requires = new ArrayList<>();
+    private final Set<String> packages = new TreeSet<>();
+    private final Set<String> uses = new TreeSet<>();
+    private final Map<String, List<String>> provides = new LinkedHashMap<>();
+    private final Set<String> referencedPackages = new TreeSet<>();
+    private Path location;
+
+    ModuleInfo(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getVersion() {
+        return version;
+    }
+
+    void setVersion(String version) {
+        this.version = version;
+    }
+
+    boolean isAutomatic() {
+        return automatic;
+    }
+
+    void setAutomatic(boolean automatic) {
+        this.automatic = automatic;
+    }
+
+    String getMainClass() {
+        return mainClass;
+    }
+
+    void setMainClass(String mainClass) {
+        this.mainClass = mainClass;
+    }
+
+    List<Requires> getRequires() {
+        return requires;
+    }
+
+    /**
+     * Returns all packages of the module.
+     */
+    Set<String> getPackages() {
+        return packages;
+    }
+
+    /**
+     * Returns used services. For automatic modules contains services loaded by their classes.
+     */
+    Set<String> getUses() {
+        return uses;
+    }
+
+    Map<String, List<String>> getProvides() {
+        return provides;
+    }
+
+    /**
+     * Returns packages referenced by the module classes. Filled only for automatic modules as their dependencies
+     * are not declared.
+     */
+    Set<String> getReferencedPackages() {
+        return referencedPackages;
+    }
+
+    /**
+     * Returns module location, i.e. jar file, jmod file or exploded module directory.
+     */
+    Path getLocation() {
+        return location;
+    }
+
+    void setLocation(Path location) {
+        this.location = location;
+    }
+
+    void store(Properties properties) {
+        properties.setProperty(NAME, name);
+        if (version != null) {
+            properties.setProperty(VERSION, version);
+        }
+        properties.setProperty(AUTOMATIC, Boolean.toString(automatic));
+        if (mainClass != null) {
+            properties.setProperty(MAIN_CLASS, mainClass);
+        }
+
+        List<String> requiresList = new ArrayList<>();
+        for (Requires r : requires) {
+            requiresList.add(r.name + ":" + (r.transitive ? "t" : "") + (r.isStatic ? "s" : ""));
+        }
+        properties.setProperty(REQUIRES, String.join(",", requiresList));
+        properties.setProperty(PACKAGES, String.join(",", packages));
+        properties.setProperty(USES, String.join(",", uses));
+
+        List<String> providesList = new ArrayList<>();
+        for (Map.Entry<String, List<String>> entry : provides.entrySet()) {
+            providesList.add(entry.getKey() + "=" + String.join("|", entry.getValue()));
+        }
+        properties.setProperty(PROVIDES, String.join(",", providesList));
+        properties.setProperty(REFERENCED_PACKAGES, String.join(",", referencedPackages));
+    }
+
+    static ModuleInfo load(Properties properties) {
+        ModuleInfo info = new ModuleInfo(properties.getProperty(NAME));
+        info.version = properties.getProperty(VERSION);
+        info.automatic = Boolean.parseBoolean(properties.getProperty(AUTOMATIC));
+        info.mainClass = properties.getProperty(MAIN_CLASS);
+
+        for (String r : split(properties.getProperty(REQUIRES))) {
+            int index = r.indexOf(':');
+            String flags = r.substring(index + 1);
+            info.requires.add(new Requires(r.substring(0, index), flags.contains("t"), flags.contains("s")));
+        }
+        info.packages.addAll(split(properties.getProperty(PACKAGES)));
+        info.uses.addAll(split(properties.getProperty(USES)));
+        for (String p : split(properties.getProperty(PROVIDES))) {
+            int index = p.indexOf('=');
+            List<String> providers = new ArrayList<>();
+            Collections.addAll(providers, p.substring(index + 1).split("\\|"));
+            info.provides.put(p.substring(0, index), providers);
+        }
+        info.referencedPackages.addAll(split(properties.getProperty(REFERENCED_PACKAGES)));
+        return info;
+    }
+
+    private static List<String> split(String value) {
+        List<String> result = new ArrayList<>();
+        if (value != null && !value.isEmpty()) {
+            Collections.addAll(result, value.split(","));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return name + (automatic ? " (automatic)" : "") + (location != null ? " " + location : "");
+    }
+}
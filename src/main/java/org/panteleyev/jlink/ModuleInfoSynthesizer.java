@@ -0,0 +1,295 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * <p>Converts automatic modules into explicit modules that can be linked by jlink.</p>
+ * <p>Module descriptor is derived from the class references found by the module path scan. Jars are repackaged with
+ * generated <code>module-info.class</code> and cached by content hash of the original jar and the descriptor, so each
+ * jar is processed only once.</p>
+ */
+final class ModuleInfoSynthesizer {
+    private static final String MODULE_INFO = "module-info.class";
+    private static final Pattern SIGNATURE = Pattern.compile("META-INF/([^/]+\\.(SF|RSA|DSA|EC)|SIG-[^/]+)",
+            Pattern.CASE_INSENSITIVE);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList(
+            "abstract", "assert", "boolean", "break", "byte", "case", "catch", "char", "class", "const", "continue",
+            "default", "do", "double", "else", "enum", "extends", "final", "finally", "float", "for", "goto", "if",
+            "implements", "import", "instanceof", "int", "interface", "long", "native", "new", "package", "private",
+            "protected", "public", "return", "short", "static", "strictfp", "super", "switch", "synchronized", "this",
+            "throw", "throws", "transient", "try", "void", "volatile", "while", "true", "false", "null", "_"));
+
+    private final Path cacheDirectory;
+    private final FileHashIndex index;
+    private final Log log;
+    private final AtomicInteger created = new AtomicInteger();
+
+    /**
+     * Creates synthesizer.
+     *
+     * @param cacheDirectory directory of repackaged jars
+     * @param index          index of file hashes
+     * @param log            log
+     */
+    ModuleInfoSynthesizer(Path cacheDirectory, FileHashIndex index, Log log) {
+        this.cacheDirectory = cacheDirectory;
+        this.index = index;
+        this.log = log;
+    }
+
+    /**
+     * Returns automatic modules that can be converted. Modules with split packages or cyclic dependencies are
+     * skipped as explicit modules cannot have them.
+     */
+    static List<ModuleInfo> candidates(ModuleGraph graph, Log log) {
+        List<ModuleInfo> result = new ArrayList<>();
+        for (ModuleInfo m : graph.getAppModules().values()) {
+            if (!m.isAutomatic() || m.getLocation() == null || !Files.isRegularFile(m.getLocation())) {
+                continue;
+            }
+
+            String invalidPackage = null;
+            for (String p : m.getPackages()) {
+                if (!isValidName(p)) {
+                    invalidPackage = p;
+                    break;
+                }
+            }
+            if (invalidPackage != null) {
+                log.warn("Module " + m.getName() + " is not converted: invalid package name " + invalidPackage);
+                continue;
+            }
+
+            String splitPackage = null;
+            for (String p : m.getPackages()) {
+                if (!m.getName().equals(graph.ownerOf(p))) {
+                    splitPackage = p;
+                    break;
+                }
+            }
+            if (splitPackage != null) {
+                log.warn("Module " + m.getName() + " is not converted: package " + splitPackage
+                        + " is also found in module " + graph.ownerOf(splitPackage));
+                continue;
+            }
+
+            if (graph.closure(graph.dependencies(m), true).contains(m.getName())) {
+                log.warn("Module " + m.getName() + " is not converted: cyclic dependency");
+                continue;
+            }
+            result.add(m);
+        }
+        return result;
+    }
+
+    /**
+     * <p>Creates descriptor of the explicit module equivalent to the automatic module.</p>
+     * <p>Module requires all modules owning referenced packages transitively as it is not known which of them
+     * are exposed by the module API. Module is open and exports all packages like automatic module. Used services
+     * are class literals passed to <code>ServiceLoader</code> and services defined in the module packages that are
+     * provided by modules found in the module path.</p>
+     */
+    static ModuleInfo describe(ModuleInfo automatic, ModuleGraph graph) {
+        ModuleInfo info = new ModuleInfo(automatic.getName());
+        info.setVersion(automatic.getVersion());
+        info.setMainClass(automatic.getMainClass());
+        info.setLocation(automatic.getLocation());
+        info.getPackages().addAll(automatic.getPackages());
+        info.getProvides().putAll(automatic.getProvides());
+
+        for (String d : graph.dependencies(automatic)) {
+            if (!d.equals(ModuleInfo.JAVA_BASE)) {
+                info.getRequires().add(new ModuleInfo.Requires(d, true, false));
+            }
+        }
+
+        // Service type must be accessible to the module
+        Set<String> readable = new HashSet<>(info.getPackages());
+        for (String p : automatic.getReferencedPackages()) {
+            if (graph.ownerOf(p) != null) {
+                readable.add(p);
+            }
+        }
+        for (String service : automatic.getUses()) {
+            if (readable.contains(packageOf(service))) {
+                info.getUses().add(service);
+            }
+        }
+        for (ModuleInfo m : graph.getAppModules().values()) {
+            for (String service : m.getProvides().keySet()) {
+                if (automatic.getPackages().contains(packageOf(service))) {
+                    info.getUses().add(service);
+                }
+            }
+        }
+        return info;
+    }
+
+    /**
+     * Converts modules in parallel.
+     *
+     * @return repackaged jars in the order of modules, failed modules are skipped
+     */
+    List<Path> synthesize(List<ModuleInfo> modules, ModuleGraph graph, int threads) throws InterruptedException {
+        if (modules.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, modules.size())));
+        try {
+            Map<ModuleInfo, Future<Path>> futures = new LinkedHashMap<>();
+            for (ModuleInfo m : modules) {
+                ModuleInfo descriptor = describe(m, graph);
+                futures.put(m, executor.submit(() -> synthesize(descriptor)));
+            }
+
+            List<Path> result = new ArrayList<>();
+            for (Map.Entry<ModuleInfo, Future<Path>> entry : futures.entrySet()) {
+                try {
+                    result.add(entry.getValue().get());
+                } catch (ExecutionException ex) {
+                    log.warn("Module " + entry.getKey().getName() + " is not converted: "
+                            + ex.getCause().getMessage());
+                }
+            }
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns number of jars repackaged since the synthesizer was created, other jars were taken from the cache.
+     */
+    int getCreated() {
+        return created.get();
+    }
+
+    /**
+     * Returns cached modular jar, creates it if necessary.
+     */
+    Path synthesize(ModuleInfo descriptor) throws IOException {
+        Path jar = descriptor.getLocation();
+        byte[] moduleInfo = ClassFileWriter.writeModuleInfo(descriptor, true);
+        Path cached = cacheDirectory.resolve(index.hash(jar) + "-"
+                + FileUtil.toHex(FileUtil.newDigest().digest(moduleInfo)).substring(0, 16))
+                .resolve(jar.getFileName().toString());
+        if (Files.isRegularFile(cached)) {
+            log.debug("Using cached modular jar " + cached);
+            return cached;
+        }
+
+        log.debug("Creating modular jar of " + descriptor.getName() + " from " + jar);
+        Files.createDirectories(cached.getParent());
+        Path tmp = cached.resolveSibling(cached.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            repackage(jar, moduleInfo, tmp);
+            Files.move(tmp, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        created.incrementAndGet();
+        return cached;
+    }
+
+    /**
+     * Copies jar entries adding module descriptor. Signature files are removed as the signature becomes invalid.
+     */
+    static void repackage(Path jar, byte[] moduleInfo, Path target) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream fileIn = Files.newInputStream(jar);
+             ZipInputStream in = new ZipInputStream(fileIn);
+             OutputStream fileOut = Files.newOutputStream(target);
+             ZipOutputStream out = new ZipOutputStream(fileOut)) {
+            ZipEntry entry;
+            boolean descriptorWritten = false;
+            while ((entry = in.getNextEntry()) != null) {
+                String name = entry.getName();
+                if (name.equals(MODULE_INFO) || SIGNATURE.matcher(name).matches()) {
+                    continue;
+                }
+                if (name.endsWith(".class") && name.indexOf('/') < 0) {
+                    throw new IOException("class " + name + " is in the unnamed package");
+                }
+                if (!descriptorWritten && !name.startsWith("META-INF/")) {
+                    // Manifest stays the first entry
+                    writeEntry(out, MODULE_INFO, moduleInfo);
+                    descriptorWritten = true;
+                }
+
+                ZipEntry copy = new ZipEntry(name);
+                copy.setTime(entry.getTime());
+                out.putNextEntry(copy);
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, n);
+                }
+                out.closeEntry();
+            }
+            if (!descriptorWritten) {
+                writeEntry(out, MODULE_INFO, moduleInfo);
+            }
+        }
+    }
+
+    private static void writeEntry(ZipOutputStream out, String name, byte[] content) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        // Fixed time keeps repackaged jar reproducible
+        entry.setTime(0);
+        out.putNextEntry(entry);
+        out.write(content);
+        out.closeEntry();
+    }
+
+    /**
+     * Checks if the dotted name consists of Java identifiers that are not keywords.
+     */
+    static boolean isValidName(String name) {
+        for (String part : name.split("\\.", -1)) {
+            if (part.isEmpty() || KEYWORDS.contains(part) || !Character.isJavaIdentifierStart(part.charAt(0))) {
+                return false;
+            }
+            for (int i = 1; i < part.length(); i++) {
+                if (!Character.isJavaIdentifierPart(part.charAt(i))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static String packageOf(String className) {
+        int index = className.lastIndexOf('.');
+        return index > 0 ? className.substring(0, index) : "";
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * <p>Finds modules in module path entries the same way as <code>java.lang.module.ModuleFinder</code> does: an
+ * entry may be a modular or plain jar, a jmod file, an exploded module or a directory containing them.</p>
+ * <p>Descriptors of jar files are cached by content hash, so classes of automatic modules are scanned for
+ * referenced packages only when jar content changes.</p>
+ */
+final class ModulePathScanner {
+    private static final String MODULE_INFO = "module-info.class";
+    private static final String JMOD_MODULE_INFO = "classes/" + MODULE_INFO;
+    private static final String VERSIONS = "META-INF/versions/";
+    private static final String SERVICES = "META-INF/services/";
+    private static final String AUTOMATIC_MODULE_NAME = "Automatic-Module-Name";
+    private static final String MULTI_RELEASE = "Multi-Release";
+    private static final String CACHE_FORMAT = "2";
+    private static final String CACHE_FORMAT_KEY = "format";
+    private static final String CACHE_FILE_NAME_KEY = "fileName";
+    private static final String SESSION_CACHE_KIND = "module";
+
+    private static final Pattern VERSION = Pattern.compile("-(\\d+(\\.|$))");
+
+    private final Path cacheDirectory;
+    private final FileHashIndex index;
+    private final Log log;
+    private int scanned;
+    private int cached;
+
+    /**
+     * Creates scanner.
+     *
+     * @param cacheDirectory directory of cached descriptors, <code>null</code> disables caching
+     * @param index          index of file hashes
+     * @param log            log
+     */
+    ModulePathScanner(Path cacheDirectory, FileHashIndex index, Log log) {
+        this.cacheDirectory = cacheDirectory;
+        this.index = index;
+        this.log = log;
+    }
+
+    /**
+     * Returns modules found in module path entries in module path order.
+     */
+    List<ModuleInfo> scan(List<Path> modulePath) throws IOException {
+        List<ModuleInfo> result = new ArrayList<>();
+        for (Path entry : modulePath) {
+            if (Files.isRegularFile(entry)) {
+                readModule(entry).ifPresent(result::add);
+            } else if (Files.isRegularFile(entry.resolve(MODULE_INFO))) {
+                result.add(readExplodedModule(entry));
+            } else if (Files.isDirectory(entry)) {
+                for (Path file : listEntries(entry)) {
+                    if (Files.isDirectory(file)) {
+                        if (Files.isRegularFile(file.resolve(MODULE_INFO))) {
+                            result.add(readExplodedModule(file));
+                        }
+                    } else {
+                        readModule(file).ifPresent(result::add);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns number of jar files scanned since the scanner was created.
+     */
+    int getScanned() {
+        return scanned;
+    }
+
+    /**
+     * Returns number of jar files whose descriptors were taken from the cache.
+     */
+    int getCached() {
+        return cached;
+    }
+
+    private Optional<ModuleInfo> readModule(Path file) throws IOException {
+        String fileName = file.getFileName().toString();
+        boolean jmod = fileName.endsWith(".jmod");
+        if (!jmod && !fileName.endsWith(".jar")) {
+            return Optional.empty();
+        }
+
+        // Descriptors are shared by executions in the same process, each execution gets its own copy
+        boolean[] loaded = new boolean[1];
+        Properties properties = SessionCache.getInstance().get(SESSION_CACHE_KIND, file, () -> {
+            loaded[0] = true;
+            Properties p = new Properties();
+            (jmod ? readJmod(file) : readCachedJar(file)).store(p);
+            return p;
+        });
+        if (!loaded[0]) {
+            cached++;
+            if (!jmod && cacheDirectory != null) {
+                // Keep the hash in the index that is stored for the next process
+                index.hash(file);
+            }
+        }
+
+        ModuleInfo info = ModuleInfo.load(properties);
+        info.setLocation(file);
+        return Optional.of(info);
+    }
+
+    private static List<Path> listEntries(Path directory) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            List<Path> entries = new ArrayList<>();
+            for (Path p : stream) {
+                if (!p.getFileName().toString().startsWith(".")) {
+                    entries.add(p);
+                }
+            }
+            entries.sort(null);
+            return entries;
+        }
+    }
+
+    static ModuleInfo readJmod(Path jmod) throws IOException {
+        try (ZipFile zip = new ZipFile(jmod.toFile())) {
+            ZipEntry entry = zip.getEntry(JMOD_MODULE_INFO);
+            if (entry == null) {
+                throw new IOException(JMOD_MODULE_INFO + " not found in " + jmod);
+            }
+            return ClassFileReader.readModuleInfo(read(zip, entry));
+        }
+    }
+
+    static ModuleInfo readExplodedModule(Path directory) throws IOException {
+        ModuleInfo info = ClassFileReader.readModuleInfo(Files.readAllBytes(directory.resolve(MODULE_INFO)));
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".class")).collect(Collectors.toList())) {
+                Path parent = directory.relativize(file).getParent();
+                // META-INF is not a package, e.g. versioned classes in META-INF/versions
+                if (parent != null && !parent.startsWith("META-INF")) {
+                    info.getPackages().add(parent.toString().replace(file.getFileSystem().getSeparator(), "."));
+                }
+            }
+        }
+        info.setLocation(directory);
+        return info;
+    }
+
+    private ModuleInfo readCachedJar(Path jar) throws IOException {
+        if (cacheDirectory == null) {
+            return readJar(jar);
+        }
+
+        String fileName = jar.getFileName().toString();
+        Path cacheFile = cacheDirectory.resolve(index.hash(jar) + ".properties");
+        if (Files.isRegularFile(cacheFile)) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(cacheFile)) {
+                properties.load(in);
+                // Name of automatic module may be derived from the file name
+                if (CACHE_FORMAT.equals(properties.getProperty(CACHE_FORMAT_KEY))
+                        && fileName.equals(properties.getProperty(CACHE_FILE_NAME_KEY))) {
+                    cached++;
+                    return ModuleInfo.load(properties);
+                }
+            } catch (IOException | RuntimeException ex) {
+                log.debug("Ignoring broken cache entry " + cacheFile + ": " + ex.getMessage());
+            }
+        }
+
+        ModuleInfo info = readJar(jar);
+        Properties properties = new Properties();
+        properties.setProperty(CACHE_FORMAT_KEY, CACHE_FORMAT);
+        properties.setProperty(CACHE_FILE_NAME_KEY, fileName);
+        info.store(properties);
+        try {
+            Files.createDirectories(cacheDirectory);
+            Path tmp = Files.createTempFile(cacheDirectory, "entry", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                properties.store(out, jar.toString());
+            }
+            Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            log.warn("Failed to cache module descriptor of " + jar + ": " + ex.getMessage());
+        }
+        return info;
+    }
+
+    /**
+     * Reads descriptor of a modular jar or derives descriptor of an automatic module.
+     */
+    ModuleInfo readJar(Path jar) throws IOException {
+        scanned++;
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            Manifest manifest = jarFile.getManifest();
+            Attributes attributes = manifest == null ? new Attributes() : manifest.getMainAttributes();
+
+            ZipEntry descriptor = jarFile.getEntry(MODULE_INFO);
+            if (descriptor == null && "true".equalsIgnoreCase(attributes.getValue(MULTI_RELEASE))) {
+                descriptor = findVersionedDescriptor(jarFile);
+            }
+
+            Set<String> packages = new HashSet<>();
+            List<String> classes = new ArrayList<>();
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (!name.endsWith(".class") || name.endsWith(MODULE_INFO)) {
+                    continue;
+                }
+                String className = name.startsWith(VERSIONS) ?
+                        name.substring(name.indexOf('/', VERSIONS.length()) + 1) : name;
+                if (className.startsWith("META-INF/")) {
+                    continue;
+                }
+                classes.add(name);
+                int index = className.lastIndexOf('/');
+                if (index > 0) {
+                    packages.add(className.substring(0, index).replace('/', '.'));
+                }
+            }
+
+            if (descriptor != null) {
+                ModuleInfo info = ClassFileReader.readModuleInfo(read(jarFile, descriptor));
+                info.getPackages().addAll(packages);
+                return info;
+            }
+
+            String fileName = jar.getFileName().toString();
+            String baseName = fileName.substring(0, fileName.length() - ".jar".length());
+            String version = null;
+            Matcher matcher = VERSION.matcher(baseName);
+            if (matcher.find()) {
+                version = baseName.substring(matcher.start() + 1);
+                baseName = baseName.substring(0, matcher.start());
+            }
+
+            String name = attributes.getValue(AUTOMATIC_MODULE_NAME);
+            ModuleInfo info = new ModuleInfo(name != null ? name : automaticModuleName(baseName));
+            info.setAutomatic(true);
+            info.setVersion(version);
+            info.setMainClass(attributes.getValue(Attributes.Name.MAIN_CLASS));
+            info.getPackages().addAll(packages);
+
+            for (String className : classes) {
+                ClassFileReader.addReferencedPackages(read(jarFile, jarFile.getEntry(className)),
+                        info.getReferencedPackages(), info.getUses());
+            }
+            info.getReferencedPackages().removeAll(packages);
+
+            entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                String entryName = entry.getName();
+                if (entry.isDirectory() || !entryName.startsWith(SERVICES)
+                        || entryName.indexOf('/', SERVICES.length()) >= 0) {
+                    continue;
+                }
+                List<String> providers = readProviders(read(jarFile, entry));
+                if (!providers.isEmpty()) {
+                    info.getProvides().put(entryName.substring(SERVICES.length()), providers);
+                }
+            }
+            return info;
+        }
+    }
+
+    /**
+     * Derives automatic module name from jar file name without extension and version.
+     */
+    static String automaticModuleName(String baseName) {
+        String name = baseName.replaceAll("[^A-Za-z0-9]", ".")
+                .replaceAll("\\.{2,}", ".");
+        if (name.startsWith(".")) {
+            name = name.substring(1);
+        }
+        if (name.endsWith(".")) {
+            name = name.substring(0, name.length() - 1);
+        }
+        return name;
+    }
+
+    private static ZipEntry findVersionedDescriptor(JarFile jarFile) {
+        ZipEntry result = null;
+        int resultVersion = 0;
+        Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+            JarEntry entry = entries.nextElement();
+            String name = entry.getName();
+            if (name.startsWith(VERSIONS) && name.endsWith("/" + MODULE_INFO)) {
+                try {
+                    int version = Integer.parseInt(name.substring(VERSIONS.length(), name.indexOf('/',
+                            VERSIONS.length())));
+                    if (version > resultVersion) {
+                        result = entry;
+                        resultVersion = version;
+                    }
+                } catch (NumberFormatException ex) {
+                    // Not a version directory
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<String> readProviders(byte[] content) {
+        List<String> providers = new ArrayList<>();
+        for (String line : new String(content, StandardCharsets.UTF_8).split("\n")) {
+            int comment = line.indexOf('#');
+            String provider = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (!provider.isEmpty()) {
+                providers.add(provider);
+            }
+        }
+        return providers;
+    }
+
+    private static byte[] read(ZipFile zip, ZipEntry entry) throws IOException {
+        try (InputStream in = zip.getInputStream(entry)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(32, (int) entry.getSize()));
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+}
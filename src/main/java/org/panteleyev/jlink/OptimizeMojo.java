@@ -0,0 +1,298 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.shared.utils.cli.Commandline;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import static org.panteleyev.jlink.StringUtil.formatSize;
+
+/**
+ * <p>Links the image with different compression levels and stripping options, measures image size and startup time
+ * of the launcher for each combination and recommends Pareto-optimal configuration.</p>
+ * <p>Images are linked in parallel, startup time is measured sequentially to avoid interference between
+ * measurements.</p>
+ */
+@Mojo(name = OptimizeMojo.GOAL, defaultPhase = LifecyclePhase.NONE)
+public class OptimizeMojo extends AbstractStartupMojo {
+    public static final String GOAL = "optimize";
+
+    private static final int ZIP_COMPRESSION_VERSION = 21;
+    private static final int STRIP_JAVA_DEBUG_ATTRIBUTES_VERSION = 13;
+
+    /**
+     * <p>Compression levels to try. Default is <code>zip-0</code>, <code>zip-6</code>, <code>zip-9</code> for JDK 21
+     * and later and <code>0</code>, <code>1</code>, <code>2</code> for earlier versions.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter
+    private List<String> compressions;
+
+    /**
+     * <p>Stripping options to try: NONE, JAVA_DEBUG_ATTRIBUTES, NATIVE_DEBUG_SYMBOLS, DEBUG. Default is NONE,
+     * JAVA_DEBUG_ATTRIBUTES and DEBUG.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter
+    private List<StripMode> stripModes;
+
+    /**
+     * <p>Directory for images and report.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(defaultValue = "${project.build.directory}/jlink-optimize")
+    private File optimizeDirectory;
+
+    /**
+     * Image variant.
+     */
+    static final class Variant {
+        private final String name;
+        private final String compress;
+        private final StripMode stripMode;
+        private Image image;
+        long size;
+        StartupTimer.Statistics startup;
+        private String failure;
+
+        Variant(String name, String compress, StripMode stripMode) {
+            this.name = name;
+            this.compress = compress;
+            this.stripMode = stripMode;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        boolean isMeasured() {
+            return failure == null && startup != null;
+        }
+
+        /**
+         * Checks if this variant is better than the other by one criterion and not worse by another one.
+         */
+        boolean dominates(Variant other) {
+            double time = startup.getMedian();
+            double otherTime = other.startup.getMedian();
+            return size <= other.size && time <= otherTime && (size < other.size || time < otherTime);
+        }
+
+        Map<String, Object> toMap(boolean pareto) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("name", name);
+            map.put("compress", compress);
+            map.put("strip", stripMode.name());
+            if (failure != null) {
+                map.put("failure", failure);
+            } else {
+                map.put("size", size);
+                map.put("startup", startup == null ? null : startup.toMap());
+                map.put("pareto", pareto);
+            }
+            return map;
+        }
+    }
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (isSkip()) {
+            getLog().info("Skipping plugin execution");
+            return;
+        }
+
+        String executable = getExecutable();
+        List<Image> images = getImages();
+        if (images.size() > 1) {
+            getLog().warn("Several images are configured, optimizing the first one");
+        }
+        Image base = images.get(0);
+        Launcher launcher = getStartupLauncher(base);
+
+        int featureVersion = JavaRelease.read(JavaRelease.homeOf(executable))
+                .map(JavaRelease::getFeatureVersion)
+                .orElse(0);
+
+        List<Variant> variants = new ArrayList<>();
+        List<Image> variantImages = new ArrayList<>();
+        for (String compress : getCompressions(featureVersion)) {
+            for (StripMode stripMode : getStripModes(featureVersion)) {
+                String name = "compress-" + compress + "-strip-" + stripMode.name().toLowerCase().replace('_', '-');
+                Variant variant = new Variant(name, compress, stripMode);
+
+                Image image = new Image();
+                image.setName(name);
+                image.setOutput(new File(optimizeDirectory, name));
+                image.setCompress(compress);
+                stripMode.apply(image);
+                variant.image = image.withDefaults(base);
+
+                variants.add(variant);
+                variantImages.add(variant.image);
+            }
+        }
+
+        Map<Image, Commandline> commandLines = buildCommandLines(variantImages, executable);
+        if (isDryRun()) {
+            getLog().warn("Dry-run mode, not executing " + EXECUTABLE);
+            return;
+        }
+        Map<Image, ImageResult> results;
+        try {
+            results = linkImages(commandLines, executable);
+        } catch (MojoExecutionException | MojoFailureException ex) {
+            // Failure of a single image is thrown instead of being reported in results
+            if (variantImages.size() > 1) {
+                throw ex;
+            }
+            results = Collections.singletonMap(variantImages.get(0), new ImageResult(ex));
+        }
+
+        for (Variant variant : variants) {
+            ImageResult result = results.get(variant.image);
+            if (result == null || result.isFailed()) {
+                variant.failure = result == null ? "image was not built" : result.getFailure().getMessage();
+                getLog().warn(variant.name + ": " + variant.failure);
+                continue;
+            }
+            Path output = variant.image.getOutput().toPath().toAbsolutePath();
+            try {
+                variant.size = FileUtil.directorySize(output);
+                getLog().info("Measuring startup time of " + variant.name);
+                variant.startup = measureStartup(launcher.getScript(output));
+            } catch (IOException | TimeoutException ex) {
+                getLog().warn(variant.name + ": " + ex.getMessage());
+                variant.failure = ex.getMessage();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new MojoExecutionException("Interrupted", ex);
+            }
+        }
+
+        List<Variant> pareto = paretoOptimal(variants);
+        if (pareto.isEmpty()) {
+            StringBuilder message = new StringBuilder("No image variant was built and measured successfully");
+            for (Variant v : variants) {
+                message.append("\n").append(v.name).append(": ").append(v.failure);
+            }
+            throw new MojoExecutionException(message.toString());
+        }
+        Variant recommended = recommend(pareto);
+        report(variants, pareto, recommended, launcher);
+    }
+
+    private List<String> getCompressions(int featureVersion) {
+        if (compressions != null && !compressions.isEmpty()) {
+            return compressions;
+        }
+        return featureVersion >= ZIP_COMPRESSION_VERSION ?
+                Arrays.asList("zip-0", "zip-6", "zip-9") : Arrays.asList("0", "1", "2");
+    }
+
+    private List<StripMode> getStripModes(int featureVersion) {
+        if (stripModes != null && !stripModes.isEmpty()) {
+            return stripModes;
+        }
+        return featureVersion > 0 && featureVersion < STRIP_JAVA_DEBUG_ATTRIBUTES_VERSION ?
+                Arrays.asList(StripMode.NONE, StripMode.DEBUG) :
+                Arrays.asList(StripMode.NONE, StripMode.JAVA_DEBUG_ATTRIBUTES, StripMode.DEBUG);
+    }
+
+    /**
+     * Returns measured variants that are not dominated by any other variant, sorted by size.
+     */
+    static List<Variant> paretoOptimal(List<Variant> variants) {
+        List<Variant> result = new ArrayList<>();
+        for (Variant v : variants) {
+            if (!v.isMeasured()) {
+                continue;
+            }
+            boolean dominated = false;
+            for (Variant other : variants) {
+                if (other != v && other.isMeasured() && other.dominates(v)) {
+                    dominated = true;
+                    break;
+                }
+            }
+            if (!dominated) {
+                result.add(v);
+            }
+        }
+        result.sort(Comparator.comparingLong(v -> v.size));
+        return result;
+    }
+
+    /**
+     * Returns Pareto-optimal variant with the smallest sum of size and startup time relative to their minimums.
+     */
+    static Variant recommend(List<Variant> pareto) {
+        long minSize = pareto.stream().mapToLong(v -> v.size).min().orElse(1);
+        double minTime = pareto.stream().mapToDouble(v -> v.startup.getMedian()).min().orElse(1);
+        return pareto.stream()
+                .min(Comparator.comparingDouble(v ->
+                        (double) v.size / Math.max(1, minSize) + v.startup.getMedian() / Math.max(0.001, minTime)))
+                .orElseThrow(IllegalArgumentException::new);
+    }
+
+    private void report(
+            List<Variant> variants,
+            List<Variant> pareto,
+            Variant recommended,
+            Launcher launcher
+    ) throws MojoExecutionException {
+        getLog().info("Image variants:");
+        getLog().info(String.format("  %-50s %10s %12s %12s", "Variant", "Size", "Median, ms", "p90, ms"));
+        for (Variant v : variants) {
+            if (v.isMeasured()) {
+                getLog().info(String.format("  %-50s %10s %12.1f %12.1f %s", v.name, formatSize(v.size),
+                        v.startup.getMedian(), v.startup.getP90(),
+                        v == recommended ? "recommended" : pareto.contains(v) ? "pareto" : ""));
+            } else {
+                getLog().warn(String.format("  %-50s FAILED", v.name));
+            }
+        }
+        getLog().info("Recommended configuration: compress " + recommended.compress + ", strip "
+                + recommended.stripMode);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("launcher", launcher.getName());
+        report.put("warmupRuns", getWarmupRuns());
+        report.put("measuredRuns", getMeasuredRuns());
+        report.put("marker", getStartupMarker());
+        List<Object> variantList = new ArrayList<>();
+        for (Variant v : variants) {
+            variantList.add(v.toMap(pareto.contains(v)));
+        }
+        report.put("variants", variantList);
+        report.put("recommended", recommended.toMap(true));
+
+        Path reportFile = optimizeDirectory.toPath().resolve("report.json");
+        try {
+            Json.write(reportFile, report);
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Failed to write report: " + ex.getMessage(), ex);
+        }
+        getLog().info("Report: " + reportFile);
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * <p>Writes raw deflate stream compressing blocks of input in parallel.</p>
+ * <p>Each block is compressed independently with the last 32 KB of the previous block as a preset dictionary and
+ * ends with sync flush, so compressed blocks concatenated in order form a single deflate stream. Compression ratio
+ * is close to the single-threaded one. Input of a single block is compressed by the calling thread.</p>
+ * <p>Stream does not close the underlying stream.</p>
+ */
+final class ParallelDeflaterOutputStream extends OutputStream {
+    static final int BLOCK_SIZE = 128 * 1024;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    private final OutputStream out;
+    private final ExecutorService executor;
+    private final int maxPending;
+    private final int level;
+    private final CRC32 crc = new CRC32();
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+
+    private byte[] block = new byte[BLOCK_SIZE];
+    private int blockLength;
+    private byte[] previous;
+    private long bytesIn;
+    private long bytesOut;
+    private boolean finished;
+
+    /**
+     * Creates stream.
+     *
+     * @param out      underlying stream
+     * @param executor executor that compresses blocks
+     * @param threads  number of executor threads, limits number of blocks kept in memory
+     * @param level    compression level
+     */
+    ParallelDeflaterOutputStream(OutputStream out, ExecutorService executor, int threads, int level) {
+        this.out = out;
+        this.executor = executor;
+        this.maxPending = Math.max(1, threads) * 2;
+        this.level = level;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (finished) {
+            throw new IOException("Stream is finished");
+        }
+        crc.update(b, off, len);
+        bytesIn += len;
+        while (len > 0) {
+            if (blockLength == BLOCK_SIZE) {
+                // Block is submitted only when more input arrives, the last block is finished instead
+                submit(false);
+            }
+            int n = Math.min(len, BLOCK_SIZE - blockLength);
+            System.arraycopy(b, off, block, blockLength, n);
+            blockLength += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Completes deflate stream and writes all compressed data to the underlying stream.
+     */
+    void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (pending.isEmpty() && previous == null) {
+            writeCompressed(compress(block, blockLength, null, level, true));
+        } else {
+            submit(true);
+            while (!pending.isEmpty()) {
+                writeNext();
+            }
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            for (Future<byte[]> future : pending) {
+                future.cancel(true);
+            }
+            pending.clear();
+        }
+    }
+
+    /**
+     * Returns CRC-32 of the uncompressed data.
+     */
+    long getCrc() {
+        return crc.getValue();
+    }
+
+    long getBytesIn() {
+        return bytesIn;
+    }
+
+    long getBytesOut() {
+        return bytesOut;
+    }
+
+    private void submit(boolean last) throws IOException {
+        byte[] data = block;
+        int length = blockLength;
+        byte[] dictionary = previous == null ? null :
+                Arrays.copyOfRange(previous, BLOCK_SIZE - DICTIONARY_SIZE, BLOCK_SIZE);
+        pending.add(executor.submit(() -> compress(data, length, dictionary, level, last)));
+        previous = data;
+        block = new byte[BLOCK_SIZE];
+        blockLength = 0;
+
+        while (pending.size() > maxPending || (!pending.isEmpty() && pending.peek().isDone())) {
+            writeNext();
+        }
+    }
+
+    private void writeNext() throws IOException {
+        try {
+            writeCompressed(pending.remove().get());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted");
+        } catch (ExecutionException ex) {
+            throw new IOException("Compression failed: " + ex.getCause().getMessage(), ex.getCause());
+        }
+    }
+
+    private void writeCompressed(byte[] compressed) throws IOException {
+        out.write(compressed);
+        bytesOut += compressed.length;
+    }
+
+    static byte[] compress(byte[] data, int length, byte[] dictionary, int level, boolean last) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(data, 0, length);
+            ByteArrayOutputStream result = new ByteArrayOutputStream(length / 2 + 64);
+            byte[] buffer = new byte[16 * 1024];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    int n = deflater.deflate(buffer);
+                    result.write(buffer, 0, n);
+                }
+            } else {
+                // Sync flush aligns compressed block to a byte boundary without marking it final
+                int n;
+                do {
+                    n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    result.write(buffer, 0, n);
+                } while (n == buffer.length);
+            }
+            return result.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * <p>Executes external process without intermediate shell. Output lines are passed to consumers as soon as they are
+ * produced.</p>
+ * <p>Process is terminated if it does not finish in time, when current thread is interrupted or when JVM shuts
+ * down.</p>
+ */
+final class ProcessRunner {
+    private static final long PUMP_JOIN_TIMEOUT = 5000;
+
+    private final List<String> command;
+    private Consumer<String> out = line -> {
+    };
+    private Consumer<String> err = line -> {
+    };
+    private File directory;
+    private final Map<String, String> environment = new LinkedHashMap<>();
+    private long timeoutMillis;
+    private final List<Thread> pumps = new ArrayList<>();
+
+    ProcessRunner(List<String> command) {
+        this.command = new ArrayList<>(command);
+    }
+
+    ProcessRunner out(Consumer<String> out) {
+        this.out = out;
+        return this;
+    }
+
+    ProcessRunner err(Consumer<String> err) {
+        this.err = err;
+        return this;
+    }
+
+    ProcessRunner directory(File directory) {
+        this.directory = directory;
+        return this;
+    }
+
+    ProcessRunner environment(String name, String value) {
+        environment.put(name, value);
+        return this;
+    }
+
+    /**
+     * Sets execution timeout, zero means no timeout.
+     */
+    ProcessRunner timeout(long timeout, TimeUnit unit) {
+        this.timeoutMillis = unit.toMillis(timeout);
+        return this;
+    }
+
+    List<String> getCommand() {
+        return command;
+    }
+
+    /**
+     * Executes process and waits for its completion.
+     *
+     * @return process exit code
+     * @throws TimeoutException if process was terminated after timeout
+     */
+    int run() throws IOException, InterruptedException, TimeoutException {
+        Process process = start();
+        try {
+            return waitFor(process);
+        } finally {
+            destroy(process);
+        }
+    }
+
+    /**
+     * Starts process. Caller is responsible for waiting and destroying the process.
+     */
+    Process start() throws IOException {
+        ProcessBuilder builder = new ProcessBuilder(command);
+        if (directory != null) {
+            builder.directory(directory);
+        }
+        builder.environment().putAll(environment);
+        Process process = builder.start();
+        process.getOutputStream().close();
+        pumps.clear();
+        pumps.add(pump(process.getInputStream(), out, "stdout"));
+        pumps.add(pump(process.getErrorStream(), err, "stderr"));
+        return process;
+    }
+
+    int waitFor(Process process) throws InterruptedException, TimeoutException {
+        Thread hook = new Thread(() -> destroy(process));
+        Runtime.getRuntime().addShutdownHook(hook);
+        try {
+            if (timeoutMillis > 0) {
+                if (!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    destroy(process);
+                    throw new TimeoutException("Process did not finish in " + timeoutMillis + " ms");
+                }
+            } else {
+                process.waitFor();
+            }
+            // Let consumers receive the remaining output
+            for (Thread pump : pumps) {
+                pump.join(PUMP_JOIN_TIMEOUT);
+            }
+            return process.exitValue();
+        } finally {
+            try {
+                Runtime.getRuntime().removeShutdownHook(hook);
+            } catch (IllegalStateException ex) {
+                // JVM is shutting down
+            }
+        }
+    }
+
+    /**
+     * Terminates process and its descendants, e.g. JVM started by a launcher script.
+     */
+    static void destroy(Process process) {
+        if (process.isAlive()) {
+            destroyDescendants(process);
+            process.destroyForcibly();
+        }
+    }
+
+    /**
+     * Returns pid of the process or of its first descendant which executable matches the filter, e.g. JVM started
+     * by a launcher script. Returns empty value if such process is not found or Java version is older than 9.
+     */
+    static OptionalLong findPid(Process process, Predicate<String> executable) {
+        try {
+            // ProcessHandle is available since Java 9
+            Class<?> handleClass = Class.forName("java.lang.ProcessHandle");
+            Method pid = handleClass.getMethod("pid");
+            Method info = handleClass.getMethod("info");
+            Method command = Class.forName("java.lang.ProcessHandle$Info").getMethod("command");
+            Object handle = Process.class.getMethod("toHandle").invoke(process);
+
+            List<Object> handles = new ArrayList<>();
+            handles.add(handle);
+            handles.addAll(Arrays.asList(((Stream<?>) handleClass.getMethod("descendants").invoke(handle)).toArray()));
+            for (Object h : handles) {
+                Optional<?> path = (Optional<?>) command.invoke(info.invoke(h));
+                if (path.isPresent() && executable.test(path.get().toString())) {
+                    return OptionalLong.of((Long) pid.invoke(h));
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            // Process handles are not available
+        }
+        return OptionalLong.empty();
+    }
+
+    private static void destroyDescendants(Process process) {
+        try {
+            // Process.descendants() is available since Java 9
+            Method descendants = Process.class.getMethod("descendants");
+            Method destroyForcibly = Class.forName("java.lang.ProcessHandle").getMethod("destroyForcibly");
+            for (Object handle : ((Stream<?>) descendants.invoke(process)).toArray()) {
+                destroyForcibly.invoke(handle);
+            }
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            // Only the process itself can be terminated
+        }
+    }
+
+    private static Thread pump(InputStream stream, Consumer<String> consumer, String name) {
+        Thread thread = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(stream, Charset.defaultCharset()))
+            ) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    consumer.accept(line);
+                }
+            } catch (IOException ex) {
+                // Stream is closed when process is destroyed
+            }
+        }, "process-" + name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * <p>Creates list of classes loaded by the training run of the image. The list is passed to
+ * <code>--order-resources</code>, so classes loaded at startup are stored together in <code>lib/modules</code>.</p>
+ * <p>List is stored with the fingerprint of the image inputs and is reused until inputs change. If image cache is
+ * enabled lists are stored in the cache directory under the fingerprint, so they survive removal of the build
+ * directory, otherwise the list is stored next to the image.</p>
+ */
+final class ResourceOrder {
+    private static final String SUFFIX = ".jlink-order";
+    private static final String FINGERPRINT_PREFIX = "# fingerprint ";
+    private static final String JRT_SOURCE = "jrt:/";
+    private static final String CDS_SOURCE = "shared objects file";
+
+    private final TrainingRun trainingRun;
+    private final Log log;
+
+    ResourceOrder(Training training, Log log) {
+        this.trainingRun = new TrainingRun(training, log);
+        this.log = log;
+    }
+
+    static Path orderFile(Path output) {
+        return output.resolveSibling(output.getFileName() + SUFFIX);
+    }
+
+    /**
+     * Returns list file stored in the cache directory for the image inputs.
+     */
+    static Path orderFile(Path cacheDirectory, String fingerprint) {
+        return cacheDirectory.resolve(fingerprint + SUFFIX);
+    }
+
+    /**
+     * Returns jlink option value that orders module descriptors first, then classes of the list.
+     */
+    static String optionValue(Path orderFile) {
+        return "**module-info.class,@" + orderFile.toAbsolutePath();
+    }
+
+    /**
+     * Checks if the list was created for the same inputs.
+     */
+    static boolean isCurrent(Path orderFile, String fingerprint) throws IOException {
+        if (!Files.isRegularFile(orderFile)) {
+            return false;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(orderFile, StandardCharsets.UTF_8)) {
+            return (FINGERPRINT_PREFIX + fingerprint).equals(reader.readLine());
+        }
+    }
+
+    /**
+     * Executes training launcher with class loading logging and writes list of loaded classes.
+     *
+     * @param image       linked image
+     * @param definition  image definition
+     * @param orderFile   list file
+     * @param fingerprint fingerprint of the image inputs
+     */
+    void record(Path image, Image definition, Path orderFile, String fingerprint) throws Exception {
+        Launcher launcher = trainingRun.findLauncher(definition);
+        Files.createDirectories(orderFile.getParent());
+        Path logFile = Files.createTempFile(orderFile.getParent(), "class-load", ".log");
+        Path tmp = orderFile.resolveSibling(orderFile.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            log.info("Training run of launcher " + launcher.getName() + ", recording loaded classes");
+            // Decorators are disabled so that each line starts with the class name, existing log file is not rotated
+            trainingRun.execute(image, launcher, true,
+                    "-Xlog:class+load=info:file=\"" + logFile.toAbsolutePath() + "\":none:filecount=0");
+            List<String> classes = parseClassLoadLog(Files.readAllLines(logFile, StandardCharsets.UTF_8));
+            if (classes.isEmpty()) {
+                throw new MojoExecutionException("Training run did not load any classes from the image");
+            }
+
+            List<String> lines = new ArrayList<>(classes.size() + 1);
+            lines.add(FINGERPRINT_PREFIX + fingerprint);
+            lines.addAll(classes);
+            // List may be shared by concurrent builds via the cache directory
+            Files.write(tmp, lines, StandardCharsets.UTF_8);
+            Files.move(tmp, orderFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Resource order of " + classes.size() + " classes written to " + orderFile);
+        } finally {
+            Files.deleteIfExists(logFile);
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Extracts classes loaded from the image in the order of loading. Hidden and generated classes and classes of
+     * the class path are skipped.
+     *
+     * @param lines output of <code>-Xlog:class+load=info</code> without decorators
+     * @return class names in the internal form
+     */
+    static List<String> parseClassLoadLog(List<String> lines) {
+        Set<String> classes = new LinkedHashSet<>();
+        for (String line : lines) {
+            int index = line.indexOf(" source: ");
+            if (index <= 0) {
+                continue;
+            }
+            String name = line.substring(0, index).trim();
+            String source = line.substring(index + " source: ".length());
+            // Hidden classes have names like Foo$$Lambda/0x0000000800c03000
+            if (name.contains("/") || name.contains(" ")) {
+                continue;
+            }
+            if (source.startsWith(JRT_SOURCE) || source.startsWith(CDS_SOURCE)) {
+                classes.add(name.replace('.', '/'));
+            }
+        }
+        return new ArrayList<>(classes);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * <p>Resolves root modules and binds services like {@code Configuration.resolveAndBind} does: providers of services
+ * used by resolved modules are added to the configuration together with their dependencies until no new modules
+ * are added.</p>
+ * <p>Binding may be restricted to selected services, so <code>--bind-services</code> can be replaced by explicit
+ * root modules that include only providers of required services.</p>
+ */
+final class ServiceBinder {
+    /**
+     * Resolved modules and service bindings.
+     */
+    static final class Resolution {
+        private final Set<String> modules;
+        private final Map<String, Set<String>> bindings;
+
+        private Resolution(Set<String> modules, Map<String, Set<String>> bindings) {
+            this.modules = modules;
+            this.bindings = bindings;
+        }
+
+        Set<String> getModules() {
+            return modules;
+        }
+
+        /**
+         * Returns provider modules of each bound service.
+         */
+        Map<String, Set<String>> getBindings() {
+            return bindings;
+        }
+    }
+
+    private final ModuleGraph graph;
+    private final Set<String> observable;
+    private final Map<String, Set<String>> providers = new TreeMap<>();
+
+    /**
+     * Creates binder.
+     *
+     * @param limitModules modules that limit the universe of observable modules, empty if not limited
+     */
+    ServiceBinder(ModuleGraph graph, Collection<String> limitModules) {
+        this.graph = graph;
+        this.observable = limitModules == null || limitModules.isEmpty() ?
+                null : graph.closure(limitModules, true);
+        addProviders(graph.getSystemModules().values());
+        addProviders(graph.getAppModules().values());
+    }
+
+    /**
+     * Resolves root modules and binds services accepted by the filter.
+     *
+     * @param roots   root modules
+     * @param binding filter of bound services
+     */
+    Resolution resolve(Collection<String> roots, Predicate<String> binding) {
+        Set<String> modules = new TreeSet<>(graph.closure(roots, true));
+        Map<String, Set<String>> bindings = new TreeMap<>();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (String service : uses(modules)) {
+                if (!binding.test(service)) {
+                    continue;
+                }
+                for (String provider : providers.getOrDefault(service, Collections.emptySet())) {
+                    if (observable != null && !observable.contains(provider)) {
+                        continue;
+                    }
+                    bindings.computeIfAbsent(service, k -> new TreeSet<>()).add(provider);
+                    if (!modules.contains(provider)) {
+                        modules.addAll(graph.closure(Collections.singleton(provider), true));
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return new Resolution(modules, bindings);
+    }
+
+    /**
+     * Returns modules added to the configuration only because of the service binding for each bound service.
+     * Services that do not add modules are not included.
+     *
+     * @param roots root modules
+     */
+    Map<String, Set<String>> contributions(Collection<String> roots) {
+        Resolution full = resolve(roots, s -> true);
+        Map<String, Set<String>> result = new LinkedHashMap<>();
+        for (String service : full.getBindings().keySet()) {
+            Set<String> added = new TreeSet<>(full.getModules());
+            added.removeAll(resolve(roots, s -> !s.equals(service)).getModules());
+            if (!added.isEmpty()) {
+                result.put(service, added);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns root modules equivalent to the resolution with binding of selected services only.
+     *
+     * @param roots    root modules
+     * @param services bound services
+     */
+    Set<String> roots(Collection<String> roots, Collection<String> services) {
+        Resolution resolution = resolve(roots, services::contains);
+        Set<String> result = new TreeSet<>(roots);
+        for (Set<String> bound : resolution.getBindings().values()) {
+            result.addAll(bound);
+        }
+        return result;
+    }
+
+    private Set<String> uses(Set<String> modules) {
+        Set<String> result = new TreeSet<>();
+        for (String name : modules) {
+            ModuleInfo m = graph.find(name);
+            // Automatic modules do not declare used services and do not trigger binding
+            if (m != null && !m.isAutomatic()) {
+                result.addAll(m.getUses());
+            }
+        }
+        return result;
+    }
+
+    private void addProviders(Collection<ModuleInfo> modules) {
+        for (ModuleInfo m : modules) {
+            for (Map.Entry<String, List<String>> entry : m.getProvides().entrySet()) {
+                providers.computeIfAbsent(entry.getKey(), k -> new TreeSet<>()).add(m.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>Process-wide cache of values derived from files: content hashes, module descriptors, JDK release files, jlink
+ * executables and versions. Long-lived Maven processes like Maven daemon and reactor builds reuse them instead of
+ * reading files and forking processes again.</p>
+ * <p>Each value is valid while size and modification time of its file do not change. Number of entries is
+ * bounded, least recently used entries are evicted.</p>
+ */
+final class SessionCache {
+    static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private static final SessionCache INSTANCE = new SessionCache(DEFAULT_MAX_ENTRIES);
+
+    /**
+     * Computes value when it is not cached or is stale.
+     */
+    @FunctionalInterface
+    interface Loader<T> {
+        T load() throws IOException;
+    }
+
+    private static final class Entry {
+        private final long size;
+        private final long modified;
+        private final Object value;
+
+        Entry(long size, long modified, Object value) {
+            this.size = size;
+            this.modified = modified;
+            this.value = value;
+        }
+
+        boolean isValid(BasicFileAttributes attributes) {
+            return size == attributes.size() && modified == attributes.lastModifiedTime().toMillis();
+        }
+    }
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private int maxEntries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    SessionCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    static SessionCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Sets maximum number of entries, zero disables the cache.
+     */
+    synchronized void setMaxEntries(int maxEntries) {
+        this.maxEntries = Math.max(0, maxEntries);
+        evict();
+    }
+
+    /**
+     * Returns value derived from the file.
+     *
+     * @param kind   kind of the value, the same file may have values of different kinds
+     * @param file   file
+     * @param loader computes value from the file
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(String kind, Path file, Loader<T> loader) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        String key = kind + ":" + file.toAbsolutePath();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.isValid(attributes)) {
+                hits++;
+                return (T) entry.value;
+            }
+            misses++;
+        }
+
+        // Value is computed without lock, concurrent loads of the same file produce equal values
+        T value = loader.load();
+        put(key, attributes, value);
+        return value;
+    }
+
+    /**
+     * Returns path of a file found by the loader, e.g. an executable. Cached path is valid while the file it
+     * points to does not change.
+     *
+     * @param key    lookup key
+     * @param loader finds the file, may return <code>null</code>
+     */
+    String getPath(String key, Loader<String> loader) throws IOException {
+        key = "path:" + key;
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            Path file = Paths.get((String) entry.value);
+            if (Files.exists(file) && entry.isValid(Files.readAttributes(file, BasicFileAttributes.class))) {
+                synchronized (this) {
+                    hits++;
+                }
+                return (String) entry.value;
+            }
+        }
+        synchronized (this) {
+            misses++;
+        }
+
+        String value = loader.load();
+        if (value != null && Files.exists(Paths.get(value))) {
+            put(key, Files.readAttributes(Paths.get(value), BasicFileAttributes.class), value);
+        }
+        return value;
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized Map<String, Object> statistics() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("entries", entries.size());
+        map.put("maxEntries", maxEntries);
+        map.put("hits", hits);
+        map.put("misses", misses);
+        map.put("evictions", evictions);
+        return map;
+    }
+
+    private synchronized void put(String key, BasicFileAttributes attributes, Object value) {
+        if (value == null || maxEntries == 0) {
+            return;
+        }
+        entries.put(key, new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(), value));
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions++;
+        }
+    }
+}
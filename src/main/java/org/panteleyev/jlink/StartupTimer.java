@@ -0,0 +1,167 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Measures startup time of a command: wall-clock time until process exits or until the marker line is printed to
+ * the standard output. In the latter case process is terminated as soon as the marker is found.
+ */
+final class StartupTimer {
+    private static final int OUTPUT_TAIL_LINES = 20;
+
+    /**
+     * Startup time statistics in milliseconds.
+     */
+    static final class Statistics {
+        private final List<Double> runs;
+
+        Statistics(List<Double> runs) {
+            if (runs.isEmpty()) {
+                throw new IllegalArgumentException("No runs");
+            }
+            this.runs = new ArrayList<>(runs);
+            Collections.sort(this.runs);
+        }
+
+        double getMin() {
+            return runs.get(0);
+        }
+
+        double getMedian() {
+            int size = runs.size();
+            return size % 2 == 1 ? runs.get(size / 2) : (runs.get(size / 2 - 1) + runs.get(size / 2)) / 2;
+        }
+
+        /**
+         * Returns 90th percentile using nearest rank method.
+         */
+        double getP90() {
+            return runs.get((int) Math.ceil(0.9 * runs.size()) - 1);
+        }
+
+        double getMax() {
+            return runs.get(runs.size() - 1);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("runs", runs.size());
+            map.put("min", getMin());
+            map.put("median", getMedian());
+            map.put("p90", getP90());
+            map.put("max", getMax());
+            return map;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("min %.1f ms, median %.1f ms, p90 %.1f ms, max %.1f ms",
+                    getMin(), getMedian(), getP90(), getMax());
+        }
+    }
+
+    private final List<String> command;
+    private String marker;
+    private long timeoutMillis;
+
+    StartupTimer(List<String> command) {
+        this.command = new ArrayList<>(command);
+    }
+
+    /**
+     * Sets standard output marker, <code>null</code> means time to exit is measured.
+     */
+    StartupTimer marker(String marker) {
+        this.marker = marker;
+        return this;
+    }
+
+    StartupTimer timeout(long timeout, TimeUnit unit) {
+        this.timeoutMillis = unit.toMillis(timeout);
+        return this;
+    }
+
+    /**
+     * Executes warmup runs which are not measured followed by measured runs.
+     */
+    Statistics run(int warmupRuns, int measuredRuns) throws IOException, InterruptedException, TimeoutException {
+        for (int i = 0; i < warmupRuns; i++) {
+            measure();
+        }
+        List<Double> runs = new ArrayList<>();
+        for (int i = 0; i < measuredRuns; i++) {
+            runs.add(measure() / 1_000_000.0);
+        }
+        return new Statistics(runs);
+    }
+
+    /**
+     * Executes the command once.
+     *
+     * @return startup time in nanoseconds
+     */
+    long measure() throws IOException, InterruptedException, TimeoutException {
+        TailBuffer tail = new TailBuffer(OUTPUT_TAIL_LINES);
+        AtomicLong markerTime = new AtomicLong();
+        AtomicReference<Process> processRef = new AtomicReference<>();
+
+        ProcessRunner runner = new ProcessRunner(command)
+                .out(line -> {
+                    tail.add(line);
+                    if (marker != null && markerTime.get() == 0 && line.contains(marker)) {
+                        markerTime.set(System.nanoTime());
+                        Process process = processRef.get();
+                        if (process != null) {
+                            ProcessRunner.destroy(process);
+                        }
+                    }
+                })
+                .err(tail::add)
+                .timeout(timeoutMillis, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        Process process = runner.start();
+        processRef.set(process);
+        try {
+            if (markerTime.get() != 0) {
+                // Marker was printed before the process was published to the output consumer
+                ProcessRunner.destroy(process);
+            }
+            if (timeoutMillis > 0) {
+                if (!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new TimeoutException("Process did not finish in " + timeoutMillis + " ms");
+                }
+            } else {
+                process.waitFor();
+            }
+            long end = System.nanoTime();
+            int exitCode = runner.waitFor(process);
+
+            if (marker != null) {
+                if (markerTime.get() == 0) {
+                    throw new IOException("Marker \"" + marker + "\" was not found in the output\n" + tail);
+                }
+                return markerTime.get() - start;
+            }
+            if (exitCode != 0) {
+                throw new IOException("Process exited with code " + exitCode + "\n" + tail);
+            }
+            return end - start;
+        } finally {
+            ProcessRunner.destroy(process);
+        }
+    }
+}
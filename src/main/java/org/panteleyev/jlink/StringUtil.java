@@ -1,5 +1,5 @@
 /*
- Copyright © 2024 Petr Panteleyev <petr@panteleyev.org>
+ Copyright © 2024-2026 Petr Panteleyev <petr@panteleyev.org>
  SPDX-License-Identifier: BSD-2-Clause
  */
 package org.panteleyev.jlink;
@@ -31,4 +31,39 @@ final class StringUtil {
     static boolean isEmpty(String s) {
         return s == null || s.trim().isEmpty();
     }
+
+    /**
+     * Parses size in bytes with optional K, M or G suffix, e.g. 512M.
+     */
+    static long parseSize(String size) {
+        if (isEmpty(size)) {
+            throw new IllegalArgumentException("Size cannot be null or empty");
+        }
+
+        String value = size.trim().toUpperCase();
+        long multiplier = 1;
+        char suffix = value.charAt(value.length() - 1);
+        if (suffix == 'K' || suffix == 'M' || suffix == 'G') {
+            multiplier = suffix == 'K' ? 1024L : suffix == 'M' ? 1024L * 1024 : 1024L * 1024 * 1024;
+            value = value.substring(0, value.length() - 1).trim();
+        }
+
+        try {
+            return Long.parseLong(value) * multiplier;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid size: " + size);
+        }
+    }
+
+    static String formatSize(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        } else if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        } else if (bytes < 1024L * 1024 * 1024) {
+            return String.format("%.1f MB", bytes / (1024.0 * 1024));
+        } else {
+            return String.format("%.1f GB", bytes / (1024.0 * 1024 * 1024));
+        }
+    }
 }
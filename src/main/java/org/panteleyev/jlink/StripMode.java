@@ -0,0 +1,33 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+/**
+ * Stripping options tried by the optimize goal.
+ */
+public enum StripMode {
+    /**
+     * Nothing is stripped.
+     */
+    NONE,
+    /**
+     * --strip-java-debug-attributes
+     */
+    JAVA_DEBUG_ATTRIBUTES,
+    /**
+     * --strip-native-debug-symbols exclude-debuginfo-files, Linux only.
+     */
+    NATIVE_DEBUG_SYMBOLS,
+    /**
+     * --strip-debug, i.e. Java debug attributes and native debug symbols on Linux.
+     */
+    DEBUG;
+
+    void apply(Image image) {
+        image.setStripDebug(this == DEBUG);
+        image.setStripJavaDebugAttributes(this == JAVA_DEBUG_ATTRIBUTES);
+        image.setStripNativeDebugSymbols(this == NATIVE_DEBUG_SYMBOLS ? "exclude-debuginfo-files" : "");
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Keeps last lines of the output.
+ */
+final class TailBuffer {
+    private final int maxLines;
+    private final Deque<String> lines = new ArrayDeque<>();
+    private long dropped;
+
+    TailBuffer(int maxLines) {
+        this.maxLines = maxLines;
+    }
+
+    synchronized void add(String line) {
+        if (lines.size() == maxLines) {
+            lines.removeFirst();
+            dropped++;
+        }
+        lines.addLast(line);
+    }
+
+    synchronized boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder b = new StringBuilder();
+        if (dropped > 0) {
+            b.append("... ").append(dropped).append(" lines skipped ...\n");
+        }
+        for (String line : lines) {
+            b.append(line).append('\n');
+        }
+        return b.toString();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Training run executed after the image is linked. Application archive created by the training run is stored inside
+ * the image and used by launchers.
+ */
+public class Training {
+    private String launcher;
+    private List<String> arguments = new ArrayList<>();
+    private List<String> jvmOptions = new ArrayList<>();
+    private TrainingMode mode = TrainingMode.AUTO;
+    private int timeout = 600;
+
+    public String getLauncher() {
+        return launcher;
+    }
+
+    public void setLauncher(String launcher) {
+        this.launcher = launcher;
+    }
+
+    public List<String> getArguments() {
+        return arguments;
+    }
+
+    public void setArguments(List<String> arguments) {
+        this.arguments = arguments;
+    }
+
+    public List<String> getJvmOptions() {
+        return jvmOptions;
+    }
+
+    public void setJvmOptions(List<String> jvmOptions) {
+        this.jvmOptions = jvmOptions;
+    }
+
+    public TrainingMode getMode() {
+        return mode;
+    }
+
+    public void setMode(TrainingMode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Returns training run timeout in seconds, zero means no timeout.
+     */
+    public int getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(int timeout) {
+        this.timeout = timeout;
+    }
+
+    public String toString() {
+        return launcher + "|" + mode + "|" + String.join(" ", jvmOptions) + "|" + String.join(" ", arguments);
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+/**
+ * Type of the archive created by the training run.
+ */
+public enum TrainingMode {
+    /**
+     * AOT cache on JDK 24 and later, dynamic CDS archive on earlier versions.
+     */
+    AUTO,
+    /**
+     * Dynamic CDS archive created with {@code -XX:ArchiveClassesAtExit}, JDK 13 and later.
+     */
+    CDS,
+    /**
+     * AOT cache created with {@code -XX:AOTMode=record} and {@code -XX:AOTMode=create}, JDK 24 and later.
+     */
+    AOT
+}
@@ -0,0 +1,247 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.panteleyev.jlink.OsUtil.isWindows;
+import static org.panteleyev.jlink.StringUtil.formatSize;
+
+/**
+ * <p>Executes training run of the linked image and stores application class data archive inside the image.</p>
+ * <p>Archive path must be relative to the image location, it cannot be expressed by <code>--add-options</code>, so
+ * launcher scripts are patched to pass the archive to JVM.</p>
+ */
+final class TrainingRun {
+    static final String CDS_ARCHIVE = "lib/app.jsa";
+    static final String AOT_CACHE = "lib/app.aot";
+
+    private static final String AOT_CONFIGURATION = "lib/app.aotconf";
+    private static final String BASE_CDS_ARCHIVE = "lib/server/classes.jsa";
+    private static final int CDS_VERSION = 13;
+    private static final int AOT_VERSION = 24;
+    private static final int OUTPUT_TAIL_LINES = 50;
+
+    private final Training training;
+    private final Log log;
+
+    TrainingRun(Training training, Log log) {
+        this.training = training;
+        this.log = log;
+    }
+
+    void run(Path image, Image definition) throws Exception {
+        Launcher launcher = findLauncher(definition);
+        int featureVersion = JavaRelease.read(image).map(JavaRelease::getFeatureVersion).orElse(0);
+        TrainingMode mode = resolveMode(training.getMode(), featureVersion);
+
+        long start = System.currentTimeMillis();
+        String archiveOption;
+        Path archive;
+        if (mode == TrainingMode.AOT) {
+            archive = image.resolve(AOT_CACHE);
+            Path configuration = image.resolve(AOT_CONFIGURATION);
+            log.info("Training run of launcher " + launcher.getName() + ", recording AOT configuration");
+            execute(image, launcher, true, "-XX:AOTMode=record", "-XX:AOTConfiguration=" + configuration);
+            log.info("Creating AOT cache");
+            execute(image, launcher, false, "-XX:AOTMode=create", "-XX:AOTConfiguration=" + configuration,
+                    "-XX:AOTCache=" + archive);
+            Files.deleteIfExists(configuration);
+            archiveOption = "-XX:AOTCache=";
+        } else {
+            archive = image.resolve(CDS_ARCHIVE);
+            if (!Files.exists(image.resolve(BASE_CDS_ARCHIVE))) {
+                // Dynamic archive requires base CDS archive
+                log.info("Creating base CDS archive");
+                execute(image, null, false, "-Xshare:dump");
+            }
+            log.info("Training run of launcher " + launcher.getName() + ", creating CDS archive");
+            execute(image, launcher, true, "-XX:ArchiveClassesAtExit=" + archive);
+            archiveOption = "-XX:SharedArchiveFile=";
+        }
+
+        if (!Files.isRegularFile(archive)) {
+            throw new MojoExecutionException("Training run did not create " + archive);
+        }
+        log.info("Training run finished in " + (System.currentTimeMillis() - start) + " ms, archive "
+                + image.relativize(archive) + " " + formatSize(Files.size(archive)));
+
+        String relativeArchive = image.relativize(archive).toString();
+        for (Launcher l : definition.getLaunchers()) {
+            Path script = l.getScript(image);
+            if (!Files.isRegularFile(script)) {
+                continue;
+            }
+            String content = new String(Files.readAllBytes(script), StandardCharsets.UTF_8);
+            String patched = patchScript(content, archiveOption, relativeArchive, isWindows());
+            if (patched == null) {
+                log.warn("Launcher " + script + " has unexpected format, archive is not used");
+            } else if (!patched.equals(content)) {
+                writeScript(script, patched);
+            }
+        }
+    }
+
+    /**
+     * Replaces launcher script with a temporary file, so a running script is not modified in place.
+     */
+    private static void writeScript(Path script, String content) throws IOException {
+        Path tmp = script.resolveSibling(script.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.write(tmp, content.getBytes(StandardCharsets.UTF_8));
+            PosixFileAttributeView posix = Files.getFileAttributeView(tmp, PosixFileAttributeView.class);
+            if (posix != null) {
+                posix.setPermissions(Files.getPosixFilePermissions(script));
+            }
+            Files.move(tmp, script, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Returns training launcher of the image.
+     */
+    Launcher findLauncher(Image definition) throws MojoFailureException {
+        return definition.findLauncher(training.getLauncher())
+                .orElseThrow(() -> new MojoFailureException(training.getLauncher() == null ?
+                        "Training run requires a launcher" :
+                        "Training launcher " + training.getLauncher() + " is not defined"));
+    }
+
+    static TrainingMode resolveMode(TrainingMode mode, int featureVersion) throws MojoFailureException {
+        if (mode == TrainingMode.AUTO) {
+            mode = featureVersion >= AOT_VERSION ? TrainingMode.AOT : TrainingMode.CDS;
+        }
+        // Unknown version is allowed, JVM reports unsupported options
+        int required = mode == TrainingMode.AOT ? AOT_VERSION : CDS_VERSION;
+        if (featureVersion > 0 && featureVersion < required) {
+            throw new MojoFailureException("Training mode " + mode + " requires JDK " + required + " or later");
+        }
+        return mode;
+    }
+
+    /**
+     * Adds archive option to JLINK_VM_OPTIONS of the launcher script generated by jlink.
+     *
+     * @return patched script, the same script if it is already patched or <code>null</code> if format is unknown
+     */
+    static String patchScript(String script, String archiveOption, String archive, boolean windows) {
+        String lineSeparator = script.contains("\r\n") ? "\r\n" : "\n";
+        List<String> lines = new ArrayList<>(Arrays.asList(script.split("\r?\n", -1)));
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).contains(archiveOption)) {
+                return script;
+            }
+        }
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (windows && line.toLowerCase().startsWith("set dir=")) {
+                lines.add(i + 1, "set JLINK_VM_OPTIONS=%JLINK_VM_OPTIONS% " + archiveOption + "\"%DIR%..\\"
+                        + archive.replace('/', '\\') + "\"");
+                return String.join(lineSeparator, lines);
+            } else if (!windows && line.startsWith("DIR=")) {
+                lines.add(i + 1, "JLINK_VM_OPTIONS=\"$JLINK_VM_OPTIONS " + archiveOption + "$DIR/../"
+                        + archive.replace('\\', '/') + "\"");
+                return String.join(lineSeparator, lines);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * <p>Executes image JVM.</p>
+     * <p>Application is started by its launcher script, so the training run uses the same module path and JVM
+     * options. Training options are passed via <code>JDK_JAVA_OPTIONS</code> environment variable.</p>
+     *
+     * @param launcher      launcher to start, <code>null</code> to run JVM without application
+     * @param withArguments whether training arguments are passed to the application
+     * @param options       additional JVM options
+     */
+    void execute(Path image, Launcher launcher, boolean withArguments, String... options) throws Exception {
+        List<String> command = new ArrayList<>();
+        List<String> jvmOptions = new ArrayList<>();
+        if (launcher == null) {
+            command.add(image.resolve("bin").resolve(isWindows() ? "java.exe" : "java").toString());
+            command.addAll(Arrays.asList(options));
+        } else {
+            Path script = launcher.getScript(image);
+            if (!Files.isRegularFile(script)) {
+                throw new MojoExecutionException("Launcher " + script + " not found");
+            }
+            command.add(script.toString());
+            if (withArguments && training.getArguments() != null) {
+                command.addAll(training.getArguments());
+            }
+            if (training.getJvmOptions() != null) {
+                jvmOptions.addAll(training.getJvmOptions());
+            }
+            jvmOptions.addAll(Arrays.asList(options));
+        }
+
+        String javaOptions = toJavaOptions(jvmOptions);
+        log.debug("Executing " + (javaOptions.isEmpty() ? "" : "JDK_JAVA_OPTIONS=" + javaOptions + " ")
+                + String.join(" ", command));
+        TailBuffer tail = new TailBuffer(OUTPUT_TAIL_LINES);
+        ProcessRunner runner = new ProcessRunner(command)
+                .out(line -> {
+                    log.debug(line);
+                    tail.add(line);
+                })
+                .err(line -> {
+                    log.debug(line);
+                    tail.add(line);
+                })
+                .timeout(training.getTimeout(), TimeUnit.SECONDS);
+        if (!javaOptions.isEmpty()) {
+            runner.environment("JDK_JAVA_OPTIONS", javaOptions);
+        }
+        try {
+            int exitCode = runner.run();
+            if (exitCode != 0) {
+                throw new MojoExecutionException("Training run failed, exit code: " + exitCode + "\n" + tail
+                        + "Command line was: " + String.join(" ", command));
+            }
+        } catch (TimeoutException ex) {
+            throw new MojoExecutionException("Training run did not finish in " + training.getTimeout()
+                    + " seconds, process was terminated", ex);
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Failed to execute training run: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Joins JVM options for <code>JDK_JAVA_OPTIONS</code>. Options containing double quotes are enclosed in single
+     * quotes so that double quotes are passed to JVM, options containing white space are enclosed in double quotes.
+     */
+    static String toJavaOptions(List<String> options) {
+        List<String> result = new ArrayList<>();
+        for (String option : options) {
+            if (option.contains("\"")) {
+                result.add("'" + option + "'");
+            } else if (option.matches(".*\\s.*")) {
+                result.add("\"" + option + "\"");
+            } else {
+                result.add(option);
+            }
+        }
+        return String.join(" ", result);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>Links images and relinks them each time module path inputs change, until Maven is stopped.</p>
+ * <p>Module path directories are watched recursively, module path files and project dependencies are watched
+ * individually. Bursts of changes are reported once after the quiet period. Images are linked again only if their
+ * inputs fingerprint changed.</p>
+ */
+@Mojo(name = WatchMojo.GOAL, defaultPhase = LifecyclePhase.NONE)
+public class WatchMojo extends JLinkMojo {
+    public static final String GOAL = "watch";
+
+    private static final int LOGGED_CHANGES = 5;
+
+    /**
+     * <p>Quiet period in milliseconds. Images are relinked when inputs do not change during this period.</p>
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "jlink.watchDebounce", defaultValue = "500")
+    private long watchDebounce;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (isSkip()) {
+            getLog().info("Skipping plugin execution");
+            return;
+        }
+
+        List<Path> inputs = getInputs();
+        if (inputs.isEmpty()) {
+            throw new MojoFailureException("Nothing to watch, modulePaths or useDependencies must be set");
+        }
+        if (getImages().stream().noneMatch(image -> Boolean.TRUE.equals(image.getOverlay()))) {
+            getLog().info("Set overlay to true to relink only application modules on changes");
+        }
+
+        // Watching starts before the first build, so changes made during the build are not lost
+        try (InputWatcher watcher = new InputWatcher(inputs)) {
+            relink();
+            getLog().info("Watching " + inputs.size() + " inputs in " + watcher.getDirectoryCount()
+                    + " directories, press Ctrl+C to stop");
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changes = watcher.awaitChanges(watchDebounce);
+                List<String> changed = new ArrayList<>();
+                for (Path path : changes) {
+                    if (changed.size() == LOGGED_CHANGES) {
+                        changed.add("and " + (changes.size() - LOGGED_CHANGES) + " more");
+                        break;
+                    }
+                    changed.add(path.toString());
+                }
+                getLog().info("Changed: " + String.join(", ", changed));
+                relink();
+            }
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Failed to watch inputs: " + ex.getMessage(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            getLog().info("Stopped watching");
+        }
+    }
+
+    /**
+     * Links images, failures are logged and do not stop watching.
+     */
+    private void relink() {
+        long start = System.currentTimeMillis();
+        resetBuildState();
+        try {
+            Map<Image, ImageResult> results = build();
+            List<String> statuses = new ArrayList<>();
+            for (Map.Entry<Image, ImageResult> entry : results.entrySet()) {
+                statuses.add(entry.getKey().getName() + " " + entry.getValue().getStatus());
+            }
+            getLog().info("Relink finished in " + (System.currentTimeMillis() - start) + " ms"
+                    + (statuses.isEmpty() ? "" : ": " + String.join(", ", statuses)));
+        } catch (MojoExecutionException | MojoFailureException ex) {
+            getLog().error("Relink failed in " + (System.currentTimeMillis() - start) + " ms: " + ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestBenchmarkStartupMojo {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testRegressionThreshold() throws Exception {
+        Path baselineFile = tempDir.resolve("startup-baseline.json");
+        Map<String, Object> baseline = new LinkedHashMap<>();
+        baseline.put("fast", Collections.singletonMap("median", 100.0));
+        baseline.put("slow", Collections.singletonMap("median", 100.0));
+        Json.write(baselineFile, baseline);
+
+        Map<String, StartupTimer.Statistics> results = new LinkedHashMap<>();
+        results.put("fast", statistics(110.0));
+        results.put("slow", statistics(110.5));
+        results.put("new", statistics(500.0));
+
+        List<String> violations = BenchmarkStartupMojo.checkBaseline(baselineFile, results, 10,
+                new SystemStreamLog());
+        assertEquals(1, violations.size());
+        assertTrue(violations.get(0).startsWith("slow: median startup time 110.5 ms, baseline 100.0 ms"),
+                violations.get(0));
+
+        assertTrue(BenchmarkStartupMojo.checkBaseline(baselineFile, results, 20, new SystemStreamLog()).isEmpty());
+    }
+
+    @Test
+    public void testMissingBaseline() throws Exception {
+        Map<String, StartupTimer.Statistics> results = Collections.singletonMap("image", statistics(100.0));
+        assertTrue(BenchmarkStartupMojo.checkBaseline(tempDir.resolve("startup-baseline.json"), results, 10,
+                new SystemStreamLog()).isEmpty());
+    }
+
+    @Test
+    public void testInvalidBaseline() throws Exception {
+        Path baselineFile = tempDir.resolve("startup-baseline.json");
+        Files.write(baselineFile, "[]".getBytes(StandardCharsets.UTF_8));
+        assertThrows(MojoExecutionException.class, () -> BenchmarkStartupMojo.checkBaseline(baselineFile,
+                Collections.singletonMap("image", statistics(100.0)), 10, new SystemStreamLog()));
+    }
+
+    private static StartupTimer.Statistics statistics(double median) {
+        return new StartupTimer.Statistics(Collections.singletonList(median));
+    }
+}
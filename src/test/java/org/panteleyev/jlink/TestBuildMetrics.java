@@ -0,0 +1,79 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestBuildMetrics {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testReport() throws Exception {
+        Path modules = Files.createDirectories(tempDir.resolve("modules"));
+        Files.write(modules.resolve("a.jar"), new byte[10]);
+        Files.write(modules.resolve("b.jar"), new byte[20]);
+        Path jar = Files.write(tempDir.resolve("c.jar"), new byte[5]);
+        Path image = Files.createDirectories(tempDir.resolve("image").resolve("lib"));
+        Files.write(image.resolve("modules"), new byte[100]);
+
+        BuildMetrics metrics = new BuildMetrics();
+        metrics.put("executable", "jlink");
+        metrics.record("executable", System.nanoTime());
+        metrics.record("executable", System.nanoTime());
+        metrics.setInputs(Arrays.asList(modules.toFile(), jar.toFile(), new File("missing")));
+
+        BuildMetrics.ImageMetrics imageMetrics = metrics.image("default");
+        imageMetrics.record("link", System.nanoTime());
+        imageMetrics.setResult("linked", 42);
+        imageMetrics.setImage(tempDir.resolve("image"));
+        metrics.image("failed").setResult("failed", -1);
+
+        Path report = tempDir.resolve("target").resolve("jlink-metrics.json");
+        metrics.report(report, new SystemStreamLog());
+
+        Map<?, ?> json = (Map<?, ?>) Json.read(report);
+        assertEquals("jlink", json.get("executable"));
+        assertEquals(1, ((Map<?, ?>) json.get("phases")).size());
+        assertTrue(json.containsKey("cpu"));
+
+        Map<?, ?> inputs = (Map<?, ?>) json.get("inputs");
+        assertEquals(2.0, inputs.get("modulePathEntries"));
+        assertEquals(3.0, inputs.get("files"));
+        assertEquals(35.0, inputs.get("bytes"));
+
+        List<?> images = (List<?>) json.get("images");
+        assertEquals(2, images.size());
+        Map<?, ?> linked = (Map<?, ?>) images.get(0);
+        assertEquals("default", linked.get("name"));
+        assertEquals("linked", linked.get("status"));
+        assertEquals(42.0, linked.get("timeMillis"));
+        assertTrue(((Map<?, ?>) linked.get("phases")).containsKey("link"));
+        assertEquals(1.0, linked.get("files"));
+        assertEquals(100.0, linked.get("bytes"));
+        assertEquals("failed", ((Map<?, ?>) images.get(1)).get("status"));
+    }
+
+    @Test
+    public void testParseChildCpuTime() {
+        String stat = "1234 (java (main)) S 1 1234 1234 0 -1 4194560 100 200 0 0 350 40 120 30 20 0 50 0 "
+                + "12345 1000000 500 18446744073709551615";
+        assertEquals(1500, BuildMetrics.parseChildCpuTime(stat));
+        assertEquals(-1, BuildMetrics.parseChildCpuTime("1234 (java) S 1"));
+        assertEquals(-1, BuildMetrics.parseChildCpuTime("garbage"));
+    }
+}
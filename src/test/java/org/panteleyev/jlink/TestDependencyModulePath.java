@@ -0,0 +1,129 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestDependencyModulePath {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testSelect() throws Exception {
+        Artifact compile = artifact("org.example", "core", "1.0", "compile", null, "jar");
+        Artifact runtime = artifact("org.example", "impl", "1.0", "runtime", null, "jar");
+        Artifact provided = artifact("org.example", "api", "1.0", "provided", null, "jar");
+        Artifact linux = artifact("org.openjfx", "javafx-base", "21", "compile", "linux", "jar");
+        Artifact pom = artifact("org.example", "bom", "1.0", "compile", null, "pom");
+
+        DependencyModulePath modulePath = new DependencyModulePath(
+                Arrays.asList("compile", "runtime"), Collections.singletonList("org.openjfx:*:linux"));
+        List<Path> result = modulePath.select(Arrays.asList(compile, runtime, provided, linux, pom));
+
+        assertEquals(Arrays.asList(compile.getFile().toPath(), runtime.getFile().toPath()), result);
+    }
+
+    @Test
+    public void testSelectExplodedModules() throws Exception {
+        Artifact core = artifact("org.example", "core", "1.0", "compile", null, "jar");
+        Artifact tests = artifact("org.example", "core", "1.0", "compile", "tests", "jar");
+        Artifact impl = artifact("org.example", "impl", "1.0", "runtime", null, "jar");
+        // Dependency resolved from the reactor before packaging
+        Artifact api = artifact("org.example", "api", "1.0", "compile", null, "jar");
+        Path apiClasses = Files.createDirectories(tempDir.resolve("api").resolve("classes"));
+        api.setFile(apiClasses.toFile());
+        Path coreClasses = Files.createDirectories(tempDir.resolve("core").resolve("classes"));
+        Files.write(coreClasses.resolve(DependencyModulePath.MODULE_INFO), new byte[0]);
+        Files.write(apiClasses.resolve(DependencyModulePath.MODULE_INFO), new byte[0]);
+        assertTrue(DependencyModulePath.isExplodedModule(coreClasses));
+        assertFalse(DependencyModulePath.isExplodedModule(tempDir));
+
+        Map<String, Path> exploded = new HashMap<>();
+        exploded.put("org.example:core", coreClasses);
+        exploded.put("org.example:api", apiClasses);
+        DependencyModulePath modulePath = new DependencyModulePath(Collections.singletonList("compile"),
+                Collections.emptyList());
+
+        assertEquals(Arrays.asList(coreClasses, tests.getFile().toPath(), apiClasses),
+                modulePath.select(Arrays.asList(core, tests, impl, api), exploded));
+        // Directories are not used without exploded modules
+        assertEquals(Arrays.asList(core.getFile().toPath(), tests.getFile().toPath()),
+                modulePath.select(Arrays.asList(core, tests, impl, api)));
+    }
+
+    @Test
+    public void testExcludes() throws Exception {
+        DependencyModulePath modulePath = new DependencyModulePath(Collections.singletonList("compile"),
+                Arrays.asList("org.example:*-test", "com.*:lib"));
+
+        assertTrue(modulePath.isIncluded(artifact("org.example", "core", "1.0", "compile", null, "jar")));
+        assertFalse(modulePath.isIncluded(artifact("org.example", "core-test", "1.0", "compile", null, "jar")));
+        assertFalse(modulePath.isIncluded(artifact("com.example", "lib", "1.0", "compile", "tests", "jar")));
+        assertTrue(modulePath.isIncluded(artifact("org.example", "lib", "1.0", "compile", null, "jar")));
+    }
+
+    @Test
+    public void testInvalidExclude() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DependencyModulePath(Collections.emptyList(), Collections.singletonList("core")));
+    }
+
+    @Test
+    public void testStage() throws Exception {
+        Path core = artifact("org.example", "core", "1.0", "compile", null, "jar").getFile().toPath();
+        Path other = artifact("com.other", "core", "1.0", "compile", null, "jar").getFile().toPath();
+        Path impl = artifact("org.example", "impl", "1.0", "compile", null, "jar").getFile().toPath();
+        Path staging = tempDir.resolve("staging");
+
+        assertEquals(3, DependencyModulePath.stage(Arrays.asList(core, other, impl), staging));
+        assertTrue(Files.isRegularFile(staging.resolve("core-1.0.jar")));
+        assertTrue(Files.isRegularFile(staging.resolve("other-core-1.0.jar")));
+        assertTrue(Files.isRegularFile(staging.resolve("impl-1.0.jar")));
+
+        // Unchanged files are not linked again, removed dependencies are deleted
+        assertEquals(0, DependencyModulePath.stage(Arrays.asList(core, other), staging));
+        assertFalse(Files.exists(staging.resolve("impl-1.0.jar")));
+        assertEquals(2, FileUtil.listFiles(staging).size());
+    }
+
+    private Artifact artifact(
+            String groupId,
+            String artifactId,
+            String version,
+            String scope,
+            String classifier,
+            String type
+    ) throws Exception {
+        Path dir = tempDir.resolve("repository").resolve(groupId.replace('.', '/')).resolve(artifactId)
+                .resolve(version);
+        Files.createDirectories(dir);
+        Path file = dir.resolve(artifactId + "-" + version + (classifier == null ? "" : "-" + classifier)
+                + "." + type);
+        Files.write(file, (groupId + ":" + artifactId).getBytes(StandardCharsets.UTF_8));
+
+        Artifact artifact = new DefaultArtifact(groupId, artifactId, version, scope, type, classifier,
+                new DefaultArtifactHandler(type));
+        artifact.setFile(file.toFile());
+        return artifact;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class TestFingerprint {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testSameContentDifferentLocation() throws Exception {
+        Path first = createModulePath(tempDir.resolve("first"), "content");
+        Path second = createModulePath(tempDir.resolve("second"), "content");
+
+        assertEquals(fingerprint(first), fingerprint(second));
+    }
+
+    @Test
+    public void testContentChange() throws Exception {
+        Path dir = createModulePath(tempDir.resolve("dir"), "content");
+        String before = fingerprint(dir);
+
+        Files.write(dir.resolve("module.jar"), "changed".getBytes(StandardCharsets.UTF_8));
+
+        assertNotEquals(before, fingerprint(dir));
+    }
+
+    @Test
+    public void testArguments() throws Exception {
+        assertNotEquals(
+                new Fingerprint(new FileHashIndex()).add("arg", "--strip-debug").build(),
+                new Fingerprint(new FileHashIndex()).add("arg", "--no-man-pages").build()
+        );
+    }
+
+    private static Path createModulePath(Path dir, String content) throws Exception {
+        Files.createDirectories(dir);
+        Files.write(dir.resolve("module.jar"), content.getBytes(StandardCharsets.UTF_8));
+        return dir;
+    }
+
+    private static String fingerprint(Path dir) throws Exception {
+        return new Fingerprint(new FileHashIndex()).addPath("modulePath", dir).build();
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestImage {
+    @Test
+    public void testBooleanDefaults() {
+        Image defaults = new Image();
+        defaults.setStripDebug(true);
+        defaults.setNoHeaderFiles(true);
+        defaults.setBindServices(false);
+
+        Image image = new Image();
+        image.setNoHeaderFiles(false);
+        image.setBindServices(true);
+
+        Image result = image.withDefaults(defaults);
+        // Not configured, inherited
+        assertTrue(result.getStripDebug());
+        // Explicit value wins over default, including false
+        assertFalse(result.getNoHeaderFiles());
+        assertTrue(result.getBindServices());
+        // Not configured anywhere
+        assertNull(result.getVerbose());
+    }
+
+    @Test
+    public void testDefaults() {
+        Image defaults = new Image();
+        defaults.setOutput(new File("target/jlink"));
+        defaults.setAddModules(Collections.singletonList("app"));
+        defaults.setCompress("zip-6");
+
+        Image image = new Image();
+        image.setOutput(new File("target/small"));
+        image.setAddModules(Arrays.asList("app", "jdk.jfr"));
+
+        Image result = image.withDefaults(defaults);
+        assertEquals("small", result.getName());
+        assertEquals(new File("target/small"), result.getOutput());
+        assertEquals(Arrays.asList("app", "jdk.jfr"), result.getAddModules());
+        assertEquals("zip-6", result.getCompress());
+        // Image itself is not modified
+        assertNull(image.getName());
+        assertNull(image.getCompress());
+    }
+}
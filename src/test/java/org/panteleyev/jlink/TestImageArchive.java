@@ -0,0 +1,216 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.panteleyev.jlink.OsUtil.isWindows;
+
+public class TestImageArchive {
+    private static final String LONG_NAME = "legal/java.base/" + String.join("/", Collections.nCopies(12, "directory"))
+            + "/LICENSE";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testParallelDeflater() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int size : Arrays.asList(0, 1000, ParallelDeflaterOutputStream.BLOCK_SIZE,
+                    ParallelDeflaterOutputStream.BLOCK_SIZE * 10 + 123)) {
+                byte[] data = data(size);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ParallelDeflaterOutputStream deflater = new ParallelDeflaterOutputStream(out, executor, 4,
+                        Deflater.DEFAULT_COMPRESSION);
+                // Uneven writes cross block boundaries
+                for (int offset = 0; offset < size; offset += 7000) {
+                    deflater.write(data, offset, Math.min(7000, size - offset));
+                }
+                deflater.close();
+
+                assertArrayEquals(data, inflate(out.toByteArray(), size));
+                assertEquals(size, deflater.getBytesIn());
+                assertEquals(out.size(), deflater.getBytesOut());
+                CRC32 crc = new CRC32();
+                crc.update(data);
+                assertEquals(crc.getValue(), deflater.getCrc());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTarGz() throws Exception {
+        Path image = createImage();
+        Path archive = tempDir.resolve("image.tar.gz");
+        new ImageArchive(ArchiveFormat.TAR_GZ, 4, Deflater.DEFAULT_COMPRESSION).write(image, "image", archive);
+
+        Map<String, String> entries = new LinkedHashMap<>();
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(archive))) {
+            String paxPath = null;
+            while (true) {
+                byte[] header = readFully(in, 512);
+                if (header[0] == 0) {
+                    break;
+                }
+                String name = string(header, 0, 100);
+                String prefix = string(header, 345, 155);
+                if (!prefix.isEmpty()) {
+                    name = prefix + "/" + name;
+                }
+                long size = Long.parseLong(string(header, 124, 12).trim(), 8);
+                char type = (char) header[156];
+                byte[] content = readFully(in, (int) size);
+                readFully(in, (int) ((512 - size % 512) % 512));
+                if (type == 'x') {
+                    String record = new String(content, StandardCharsets.UTF_8);
+                    paxPath = record.substring(record.indexOf("path=") + 5, record.length() - 1);
+                    continue;
+                }
+                if (paxPath != null) {
+                    name = paxPath;
+                    paxPath = null;
+                }
+                entries.put(name, type + ":" + string(header, 157, 100) + ":" + string(header, 100, 8));
+                contents.put(name, content);
+            }
+        }
+
+        assertTrue(entries.get("image/").startsWith("5:"));
+        assertTrue(entries.get("image/bin/").startsWith("5:"));
+        assertEquals("modules", new String(contents.get("image/lib/modules"), StandardCharsets.UTF_8));
+        assertEquals(ParallelDeflaterOutputStream.BLOCK_SIZE * 3, contents.get("image/lib/big").length);
+        assertArrayEquals(data(ParallelDeflaterOutputStream.BLOCK_SIZE * 3), contents.get("image/lib/big"));
+        assertEquals("license", new String(contents.get("image/" + LONG_NAME), StandardCharsets.UTF_8));
+        if (!isWindows()) {
+            assertEquals("0::0000755", entries.get("image/bin/java"));
+            assertEquals("1:image/lib/modules:0000644", entries.get("image/lib/modules.link"));
+        }
+    }
+
+    @Test
+    public void testZip() throws Exception {
+        Path image = createImage();
+        Path archive = tempDir.resolve("image.zip");
+        new ImageArchive(ArchiveFormat.ZIP, 4, Deflater.DEFAULT_COMPRESSION).write(image, "image", archive);
+
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            assertNotNull(zip.getEntry("image/"));
+            assertTrue(zip.getEntry("image/bin/").isDirectory());
+            assertEquals("java", read(zip, "image/bin/java"));
+            assertEquals("modules", read(zip, "image/lib/modules"));
+            assertEquals("license", read(zip, "image/" + LONG_NAME));
+            ZipEntry big = zip.getEntry("image/lib/big");
+            assertEquals(ParallelDeflaterOutputStream.BLOCK_SIZE * 3, big.getSize());
+            try (InputStream in = zip.getInputStream(big)) {
+                assertArrayEquals(data(ParallelDeflaterOutputStream.BLOCK_SIZE * 3),
+                        readFully(in, (int) big.getSize()));
+            }
+        }
+    }
+
+    private Path createImage() throws Exception {
+        Path image = tempDir.resolve("image");
+        Path java = write(image.resolve("bin/java"), "java".getBytes(StandardCharsets.UTF_8));
+        Path modules = write(image.resolve("lib/modules"), "modules".getBytes(StandardCharsets.UTF_8));
+        write(image.resolve("lib/big"), data(ParallelDeflaterOutputStream.BLOCK_SIZE * 3));
+        write(image.resolve(LONG_NAME), "license".getBytes(StandardCharsets.UTF_8));
+        if (!isWindows()) {
+            Files.setPosixFilePermissions(java, PosixFilePermissions.fromString("rwxr-xr-x"));
+            Files.setPosixFilePermissions(modules, PosixFilePermissions.fromString("rw-r--r--"));
+            Files.createLink(image.resolve("lib/modules.link"), modules);
+        }
+        return image;
+    }
+
+    private static Path write(Path file, byte[] content) throws Exception {
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content);
+    }
+
+    private static byte[] data(int size) {
+        // Partially compressible content
+        byte[] data = new byte[size];
+        Random random = new Random(size);
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (i % 3 == 0 ? random.nextInt() : i / 1000);
+        }
+        return data;
+    }
+
+    private static byte[] inflate(byte[] compressed, int size) throws Exception {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed);
+            byte[] result = new byte[size];
+            int offset = 0;
+            while (!inflater.finished() && !inflater.needsInput()) {
+                offset += inflater.inflate(result, offset, result.length - offset);
+            }
+            assertTrue(inflater.finished());
+            assertEquals(size, offset);
+            return result;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] readFully(InputStream in, int size) throws Exception {
+        byte[] result = new byte[size];
+        int offset = 0;
+        while (offset < size) {
+            int n = in.read(result, offset, size - offset);
+            if (n < 0) {
+                throw new IllegalStateException("Unexpected end of stream");
+            }
+            offset += n;
+        }
+        return result;
+    }
+
+    private static String read(ZipFile zip, String name) throws Exception {
+        ZipEntry entry = zip.getEntry(name);
+        assertNotNull(entry, name);
+        try (InputStream in = zip.getInputStream(entry)) {
+            return new String(readFully(in, (int) entry.getSize()), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String string(byte[] header, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+}
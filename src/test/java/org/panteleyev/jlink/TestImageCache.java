@@ -0,0 +1,102 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestImageCache {
+    private static final String KEY_1 = repeat('1');
+    private static final String KEY_2 = repeat('2');
+    private static final String KEY_3 = repeat('3');
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testPublishAndRestore() throws Exception {
+        ImageCache cache = new ImageCache(tempDir.resolve("cache"), Long.MAX_VALUE, Long.MAX_VALUE,
+                new SystemStreamLog());
+
+        Path output = tempDir.resolve("output");
+        assertFalse(cache.restore(KEY_1, output));
+
+        Path image = createImage(tempDir.resolve("image"), 10);
+        cache.publish(KEY_1, image);
+        assertTrue(cache.restore(KEY_1, output));
+        assertArrayEquals(new byte[10], Files.readAllBytes(output.resolve("lib").resolve("modules")));
+
+        // Images modified in place do not share files with the cache entry
+        Files.write(image.resolve("lib").resolve("modules"), new byte[]{1});
+        Files.write(output.resolve("lib").resolve("modules"), new byte[]{2});
+        Path restored = tempDir.resolve("restored");
+        assertTrue(cache.restore(KEY_1, restored));
+        assertArrayEquals(new byte[10], Files.readAllBytes(restored.resolve("lib").resolve("modules")));
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws Exception {
+        Path cacheDir = tempDir.resolve("cache");
+        ImageCache cache = new ImageCache(cacheDir, 250, Long.MAX_VALUE, new SystemStreamLog());
+
+        cache.publish(KEY_1, createImage(tempDir.resolve("image1"), 100));
+        cache.publish(KEY_2, createImage(tempDir.resolve("image2"), 100));
+        cache.publish(KEY_3, createImage(tempDir.resolve("image3"), 100));
+
+        long now = System.currentTimeMillis();
+        setLastAccess(cacheDir.resolve(KEY_1), now - 1000);
+        setLastAccess(cacheDir.resolve(KEY_2), now - 3000);
+        setLastAccess(cacheDir.resolve(KEY_3), now - 2000);
+
+        cache.evict();
+
+        assertTrue(Files.exists(cacheDir.resolve(KEY_1)));
+        assertFalse(Files.exists(cacheDir.resolve(KEY_2)));
+        assertTrue(Files.exists(cacheDir.resolve(KEY_3)));
+    }
+
+    @Test
+    public void testEvictByAge() throws Exception {
+        Path cacheDir = tempDir.resolve("cache");
+        ImageCache cache = new ImageCache(cacheDir, Long.MAX_VALUE, TimeUnit.DAYS.toMillis(1), new SystemStreamLog());
+
+        cache.publish(KEY_1, createImage(tempDir.resolve("image1"), 100));
+        cache.publish(KEY_2, createImage(tempDir.resolve("image2"), 100));
+        setLastAccess(cacheDir.resolve(KEY_1), System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2));
+
+        cache.evict();
+
+        assertFalse(Files.exists(cacheDir.resolve(KEY_1)));
+        assertTrue(Files.exists(cacheDir.resolve(KEY_2)));
+    }
+
+    private static Path createImage(Path dir, int size) throws Exception {
+        Files.createDirectories(dir.resolve("lib"));
+        Files.write(dir.resolve("lib").resolve("modules"), new byte[size]);
+        return dir;
+    }
+
+    private static void setLastAccess(Path entry, long millis) throws Exception {
+        Files.setLastModifiedTime(entry.resolve("entry.properties"), FileTime.fromMillis(millis));
+    }
+
+    private static String repeat(char c) {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < 64; i++) {
+            b.append(c);
+        }
+        return b.toString();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.panteleyev.jlink.OsUtil.isWindows;
+
+public class TestImageDeduplicator {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testDeduplicate() throws Exception {
+        Path first = tempDir.resolve("first");
+        Path second = tempDir.resolve("second");
+        write(first.resolve("lib/modules"), "modules");
+        write(second.resolve("lib/modules"), "modules");
+        write(first.resolve("legal/java.base/LICENSE"), "license");
+        write(first.resolve("legal/java.sql/LICENSE"), "license");
+        write(second.resolve("legal/java.base/LICENSE"), "license");
+        // Same size, different content
+        write(first.resolve("release"), "JAVA_VERSION=\"21\"");
+        write(second.resolve("release"), "JAVA_VERSION=\"17\"");
+        write(first.resolve("empty"), "");
+        write(second.resolve("empty"), "");
+
+        ImageDeduplicator deduplicator = new ImageDeduplicator(new SystemStreamLog());
+        deduplicator.deduplicate(Arrays.asList(first, second));
+
+        assertEquals(3, deduplicator.getLinked());
+        assertEquals(69, deduplicator.getSizeBefore());
+        assertEquals(48, deduplicator.getSizeAfter());
+        assertTrue(Files.isSameFile(first.resolve("lib/modules"), second.resolve("lib/modules")));
+        assertTrue(Files.isSameFile(first.resolve("legal/java.base/LICENSE"),
+                second.resolve("legal/java.base/LICENSE")));
+        assertTrue(Files.isSameFile(first.resolve("legal/java.base/LICENSE"),
+                first.resolve("legal/java.sql/LICENSE")));
+        assertFalse(Files.isSameFile(first.resolve("release"), second.resolve("release")));
+        assertEquals("license", read(second.resolve("legal/java.base/LICENSE")));
+
+        // Nothing left to link
+        deduplicator = new ImageDeduplicator(new SystemStreamLog());
+        deduplicator.deduplicate(Arrays.asList(first, second));
+        assertEquals(0, deduplicator.getLinked());
+        assertEquals(deduplicator.getSizeBefore(), deduplicator.getSizeAfter());
+    }
+
+    @Test
+    public void testPermissions() throws Exception {
+        if (isWindows()) {
+            return;
+        }
+        Path first = write(tempDir.resolve("first/bin/java"), "java");
+        Path second = write(tempDir.resolve("second/bin/java"), "java");
+        Files.setPosixFilePermissions(first, PosixFilePermissions.fromString("rwxr-xr-x"));
+        Files.setPosixFilePermissions(second, PosixFilePermissions.fromString("rw-r--r--"));
+
+        ImageDeduplicator deduplicator = new ImageDeduplicator(new SystemStreamLog());
+        deduplicator.deduplicate(Arrays.asList(tempDir.resolve("first"), tempDir.resolve("second")));
+
+        assertEquals(0, deduplicator.getLinked());
+        assertFalse(Files.isSameFile(first, second));
+    }
+
+    private static Path write(Path file, String content) throws Exception {
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path file) throws Exception {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestImageFootprint {
+    private static ImageFootprint footprint() {
+        ImageFootprint footprint = new ImageFootprint();
+        footprint.setJimageSize(1000);
+        footprint.addResource("java.base", "module-info.class", 10);
+        footprint.addResource("java.base", "java/lang/Object.class", 300);
+        footprint.addResource("java.base", "java/lang/String.class", 500);
+        footprint.addResource("java.base", "java/util/Map.class", 200);
+        footprint.addResource("com.example", "com/example/App.class", 100);
+        footprint.addResource("com.example", "com/example/messages.properties", 50);
+        footprint.addFile("bin/java", 20);
+        footprint.addFile("lib/libjava.so", 400);
+        footprint.addFile("lib/server/libjvm.so", 2000);
+        footprint.addFile("release", 30);
+        return footprint;
+    }
+
+    @Test
+    public void testSizes() {
+        ImageFootprint footprint = footprint();
+
+        assertEquals(3450, footprint.getImageSize());
+        assertEquals(1010, footprint.getModuleSizes().get("java.base"));
+        assertEquals(150, footprint.getModuleSizes().get("com.example"));
+
+        Map<String, Long> types = footprint.getTypeSizes();
+        assertEquals(1110, types.get(ImageFootprint.CLASSES));
+        assertEquals(50, types.get(ImageFootprint.RESOURCES));
+        assertEquals(2400, types.get(ImageFootprint.NATIVE_LIBRARIES));
+        assertEquals(50, types.get(ImageFootprint.OTHER_FILES));
+
+        Map<?, ?> modules = (Map<?, ?>) footprint.toMap().get("modules");
+        Map<?, ?> packages = (Map<?, ?>) ((Map<?, ?>) modules.get("java.base")).get("packages");
+        assertEquals(10L, packages.get(""));
+        assertEquals(800L, packages.get("java.lang"));
+        assertEquals(200L, packages.get("java.util"));
+    }
+
+    @Test
+    public void testIsNativeLibrary() {
+        assertTrue(ImageFootprint.isNativeLibrary("lib/server/libjvm.so"));
+        assertTrue(ImageFootprint.isNativeLibrary("bin/jli.dll"));
+        assertTrue(ImageFootprint.isNativeLibrary("lib/libjli.dylib"));
+        assertTrue(ImageFootprint.isNativeLibrary("lib/libfoo.so.1"));
+        assertFalse(ImageFootprint.isNativeLibrary("lib/jrt-fs.jar"));
+        assertFalse(ImageFootprint.isNativeLibrary("conf/security/java.security"));
+    }
+
+    @Test
+    public void testDiff() throws Exception {
+        Map<?, ?> baseline = (Map<?, ?>) Json.parse(Json.toJson(footprint().toMap()));
+
+        assertEquals(Arrays.asList(
+                "image 3.4 KB, baseline 3.4 KB, change +0 B (+0.0%)",
+                "lib/modules 1000 B, baseline 1000 B, change +0 B (+0.0%)"
+        ), footprint().diff(baseline));
+
+        ImageFootprint footprint = footprint();
+        footprint.setJimageSize(900);
+        footprint.addResource("java.base", "java/util/List.class", 100);
+        footprint.addResource("java.sql", "java/sql/Connection.class", 40);
+        List<String> diff = footprint.diff(baseline);
+        assertEquals(Arrays.asList(
+                "image 3.3 KB, baseline 3.4 KB, change -100 B (-2.9%)",
+                "lib/modules 900 B, baseline 1000 B, change -100 B (-10.0%)",
+                "  java.base 1.1 KB, baseline 1010 B, change +100 B (+9.9%)",
+                "  added module java.sql 40 B"
+        ), diff);
+
+        assertTrue(footprint().diff(Collections.singletonMap("modules",
+                Collections.singletonMap("java.xml", Collections.singletonMap("bytes", 10.0))))
+                .contains("  removed module java.xml 10 B"));
+    }
+
+    @Test
+    public void testCheckBudgets() {
+        ImageFootprint footprint = footprint();
+
+        assertTrue(footprint.checkBudgets(0, Collections.emptyMap()).isEmpty());
+        assertTrue(footprint.checkBudgets(3450, Collections.singletonMap("java.base", 1010L)).isEmpty());
+        assertEquals(Arrays.asList(
+                "image size 3.4 KB exceeds budget 3.0 KB",
+                "module java.base size 1010 B exceeds budget 1000 B"
+        ), footprint.checkBudgets(3072, Collections.singletonMap("java.base", 1000L)));
+        // Budget of the module not included into the image is ignored
+        assertTrue(footprint.checkBudgets(0, Collections.singletonMap("java.xml", 1L)).isEmpty());
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.MojoFailureException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestImageOverlay {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testOf() throws Exception {
+        ModuleGraph graph = graph();
+
+        ImageOverlay overlay = ImageOverlay.of(graph, Collections.singletonList("app"), false);
+        assertEquals(new TreeSet<>(Arrays.asList("java.base", "java.sql")), overlay.getSystemModules());
+        assertEquals(Arrays.asList("app", "lib"), names(overlay.getAppModules()));
+
+        overlay = ImageOverlay.of(graph, Collections.singletonList("ALL-MODULE-PATH"), false);
+        assertEquals(Arrays.asList("app", "lib", "plugin"), names(overlay.getAppModules()));
+
+        assertThrows(MojoFailureException.class,
+                () -> ImageOverlay.of(graph, Collections.singletonList("unknown"), false));
+    }
+
+    @Test
+    public void testInstall() throws Exception {
+        ModuleGraph graph = graph();
+        ImageOverlay overlay = ImageOverlay.of(graph, Collections.singletonList("app"), false);
+
+        Path image = tempDir.resolve("image");
+        Files.createDirectories(image.resolve("bin"));
+        Launcher launcher = launcher("run", "app", "org.app.Main");
+        overlay.install(image, Collections.singletonList(launcher));
+
+        assertTrue(Files.isRegularFile(image.resolve("app").resolve("app.jar")));
+        assertTrue(Files.isRegularFile(image.resolve("app").resolve("lib").resolve("org/lib/Lib.class")));
+        Path script = launcher.getScript(image);
+        assertTrue(Files.isRegularFile(script));
+        assertEquals(ImageOverlay.launcherScript(launcher, OsUtil.isWindows()),
+                new String(Files.readAllBytes(script), StandardCharsets.UTF_8));
+
+        assertThrows(MojoFailureException.class,
+                () -> overlay.install(image, Collections.singletonList(launcher("other", "plugin", null))));
+    }
+
+    @Test
+    public void testLauncherScript() {
+        Launcher launcher = launcher("run", "app", "org.app.Main");
+        String unix = ImageOverlay.launcherScript(launcher, false);
+        assertTrue(unix.contains("--module-path \"$DIR/../app\" -m app/org.app.Main \"$@\""));
+        String windows = ImageOverlay.launcherScript(launcher("run", "app", null), true);
+        assertTrue(windows.contains("--module-path \"%DIR%..\\app\" -m app %*"));
+
+        // Launchers can be patched by the training run
+        String patched = TrainingRun.patchScript(unix, "-XX:SharedArchiveFile=", "lib/app.jsa", false);
+        assertNotNull(patched);
+        assertTrue(patched.contains("-XX:SharedArchiveFile="));
+        patched = TrainingRun.patchScript(windows, "-XX:SharedArchiveFile=", "lib/app.jsa", true);
+        assertNotNull(patched);
+        assertTrue(patched.contains("-XX:SharedArchiveFile="));
+    }
+
+    private ModuleGraph graph() throws Exception {
+        ModuleInfo app = module("app", "org.app", Files.createFile(tempDir.resolve("app-1.0.jar")));
+        app.getRequires().add(new ModuleInfo.Requires("lib", false, false));
+        app.getRequires().add(new ModuleInfo.Requires("java.sql", false, false));
+
+        Path classes = tempDir.resolve("lib").resolve("org").resolve("lib");
+        Files.createDirectories(classes);
+        Files.createFile(classes.resolve("Lib.class"));
+        ModuleInfo lib = module("lib", "org.lib", tempDir.resolve("lib"));
+
+        ModuleInfo plugin = module("plugin", "org.plugin", Files.createFile(tempDir.resolve("plugin.jar")));
+
+        ModuleInfo base = new ModuleInfo(ModuleInfo.JAVA_BASE);
+        base.getPackages().add("java.lang");
+        ModuleInfo sql = new ModuleInfo("java.sql");
+        sql.getPackages().add("java.sql");
+        return new ModuleGraph(Arrays.asList(app, lib, plugin), Arrays.asList(base, sql));
+    }
+
+    private static ModuleInfo module(String name, String packageName, Path location) {
+        ModuleInfo module = new ModuleInfo(name);
+        module.getPackages().add(packageName);
+        module.setLocation(location);
+        return module;
+    }
+
+    private static Launcher launcher(String name, String module, String mainClass) {
+        Launcher launcher = new Launcher();
+        launcher.setName(name);
+        launcher.setModule(module);
+        launcher.setMainClass(mainClass);
+        return launcher;
+    }
+
+    private static List<String> names(List<ModuleInfo> modules) {
+        List<String> result = new ArrayList<>();
+        for (ModuleInfo m : modules) {
+            result.add(m.getName());
+        }
+        Collections.sort(result);
+        return result;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestImageSync {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testSync() throws Exception {
+        Path image = tempDir.resolve("image");
+        Path installed = tempDir.resolve("installed");
+        write(image.resolve("bin").resolve("app"), "launcher");
+        write(image.resolve("lib").resolve("modules"), "modules");
+        write(image.resolve("release"), "JAVA_VERSION=\"17\"");
+
+        ImageSync sync = sync(image, installed);
+        assertEquals(3, sync.getCopied());
+        assertEquals(0, sync.getUnchanged());
+        assertEquals(8 + 7 + 17, sync.getBytesWritten());
+        assertEquals(files(image), files(installed));
+        assertTrue(Files.isRegularFile(ImageSync.indexFile(installed)));
+
+        // Nothing changed
+        sync = sync(image, installed);
+        assertEquals(0, sync.getCopied());
+        assertEquals(3, sync.getUnchanged());
+        assertEquals(0, sync.getBytesWritten());
+
+        // Same size, different content
+        Path modules = write(image.resolve("lib").resolve("modules"), "MODULES");
+        Files.setLastModifiedTime(modules, FileTime.fromMillis(Files.getLastModifiedTime(modules).toMillis() + 2000));
+        Files.delete(image.resolve("release"));
+        sync = sync(image, installed);
+        assertEquals(1, sync.getCopied());
+        assertEquals(1, sync.getUnchanged());
+        assertEquals(1, sync.getDeleted());
+        assertEquals("MODULES", read(installed.resolve("lib").resolve("modules")));
+        assertEquals(files(image), files(installed));
+    }
+
+    @Test
+    public void testStaleFilesAndDirectories() throws Exception {
+        Path image = tempDir.resolve("image");
+        Path installed = tempDir.resolve("installed");
+        write(image.resolve("lib").resolve("modules"), "modules");
+        write(image.resolve("conf"), "file replacing directory");
+        write(installed.resolve("conf").resolve("security").resolve("java.policy"), "policy");
+        write(installed.resolve("lib").resolve("app.jsa"), "archive");
+        write(installed.resolve("lib").resolve("modules.jlink-tmp"), "leftover");
+
+        ImageSync sync = sync(image, installed);
+        assertEquals(2, sync.getCopied());
+        assertEquals(1, sync.getDeleted());
+        assertEquals(files(image), files(installed));
+        assertEquals("file replacing directory", read(installed.resolve("conf")));
+        assertFalse(Files.exists(installed.resolve("lib").resolve("app.jsa")));
+    }
+
+    private static ImageSync sync(Path source, Path target) throws Exception {
+        ImageSync sync = new ImageSync(2);
+        sync.sync(source, target);
+        return sync;
+    }
+
+    private static List<String> files(Path root) throws Exception {
+        List<String> result = new ArrayList<>();
+        for (Path file : FileUtil.listFiles(root)) {
+            result.add(root.relativize(file) + ":" + read(file));
+        }
+        return result;
+    }
+
+    private static Path write(Path file, String content) throws Exception {
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path file) throws Exception {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestInputWatcher {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testDirectoryIsWatchedRecursively() throws Exception {
+        Path modules = Files.createDirectories(tempDir.resolve("modules").resolve("classes"));
+        try (InputWatcher watcher = new InputWatcher(Collections.singletonList(modules.getParent()))) {
+            assertEquals(2, watcher.getDirectoryCount());
+
+            Path file = write(modules.resolve("Main.class"));
+            Set<Path> changes = assertTimeoutPreemptively(TIMEOUT, () -> watcher.awaitChanges(100));
+            assertTrue(changes.contains(file));
+
+            // New subdirectories are watched too
+            Path nested = Files.createDirectories(modules.resolve("nested"));
+            assertTimeoutPreemptively(TIMEOUT, () -> watcher.awaitChanges(100));
+            Path nestedFile = write(nested.resolve("Util.class"));
+            assertTrue(assertTimeoutPreemptively(TIMEOUT, () -> watcher.awaitChanges(100)).contains(nestedFile));
+        }
+    }
+
+    @Test
+    public void testOtherFilesInDirectoryAreIgnored() throws Exception {
+        Path jar = write(tempDir.resolve("app.jar"));
+        Path missing = tempDir.resolve("lib.jar");
+        try (InputWatcher watcher = new InputWatcher(Arrays.asList(jar, missing))) {
+            write(tempDir.resolve("jlink-metrics.json"));
+            write(jar);
+            write(missing);
+            Set<Path> changes = assertTimeoutPreemptively(TIMEOUT, () -> watcher.awaitChanges(200));
+            assertEquals(new TreeSet<>(Arrays.asList(jar, missing)), changes);
+        }
+    }
+
+    private static Path write(Path file) throws Exception {
+        return Files.write(file, Long.toString(System.nanoTime()).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestJLinkMojo {
+
+    private static List<Arguments> forkDataProvider() {
+        return Arrays.asList(
+                Arguments.of(ExecutionMode.AUTO, 1, 0, false),
+                Arguments.of(ExecutionMode.AUTO, 2, 0, true),
+                Arguments.of(ExecutionMode.AUTO, 1, 60, true),
+                Arguments.of(ExecutionMode.IN_PROCESS, 1, 0, false),
+                Arguments.of(ExecutionMode.IN_PROCESS, 2, 0, false),
+                Arguments.of(ExecutionMode.IN_PROCESS, 1, 60, false),
+                Arguments.of(ExecutionMode.FORK, 1, 0, true)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("forkDataProvider")
+    public void testForkReason(ExecutionMode executionMode, int poolSize, int timeout, boolean fork) {
+        assertEquals(fork, JLinkMojo.getForkReason(executionMode, poolSize, timeout) != null);
+    }
+
+    @Test
+    public void testCheckFailures() {
+        Map<Image, JLinkMojo.ImageResult> results = new LinkedHashMap<>();
+        results.put(image("first"), new JLinkMojo.ImageResult(new MojoExecutionException("first failed")));
+        results.put(image("second"), new JLinkMojo.ImageResult(JLinkMojo.ImageResult.Status.LINKED, 0));
+        results.put(image("third"), new JLinkMojo.ImageResult(new IOException("third failed")));
+
+        MojoExecutionException ex = assertThrows(MojoExecutionException.class,
+                () -> JLinkMojo.checkFailures(results));
+        assertEquals("2 of 3 images failed:\nfirst: first failed\nthird: third failed", ex.getMessage());
+    }
+
+    @Test
+    public void testNoFailures() {
+        Map<Image, JLinkMojo.ImageResult> results = new LinkedHashMap<>();
+        results.put(image("first"), new JLinkMojo.ImageResult(JLinkMojo.ImageResult.Status.UP_TO_DATE, 0));
+        results.put(image("second"), new JLinkMojo.ImageResult(JLinkMojo.ImageResult.Status.RESTORED, 0));
+        assertDoesNotThrow(() -> JLinkMojo.checkFailures(results));
+    }
+
+    private static Image image(String name) {
+        Image image = new Image();
+        image.setName(name);
+        return image;
+    }
+}
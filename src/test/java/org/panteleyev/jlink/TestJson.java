@@ -0,0 +1,46 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestJson {
+    @Test
+    public void testRoundTrip() throws Exception {
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("median", 12.5);
+        nested.put("runs", 10);
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("name", "image \"a\"\n\\");
+        map.put("flag", true);
+        map.put("none", null);
+        map.put("list", Arrays.asList("x", "y"));
+        map.put("stats", nested);
+
+        Map<?, ?> parsed = (Map<?, ?>) Json.parse(Json.toJson(map));
+        assertEquals("image \"a\"\n\\", parsed.get("name"));
+        assertEquals(Boolean.TRUE, parsed.get("flag"));
+        assertEquals(null, parsed.get("none"));
+        assertEquals(Arrays.asList("x", "y"), parsed.get("list"));
+        assertEquals(12.5, ((Map<?, ?>) parsed.get("stats")).get("median"));
+        assertEquals(10.0, ((Map<?, ?>) parsed.get("stats")).get("runs"));
+    }
+
+    @Test
+    public void testInvalid() {
+        assertThrows(IOException.class, () -> Json.parse("{\"a\": }"));
+        assertThrows(IOException.class, () -> Json.parse("[1, 2"));
+        assertThrows(IOException.class, () -> Json.parse("{} x"));
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestJsonReport {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testReadBaseline() throws Exception {
+        Path baselineFile = tempDir.resolve("reports").resolve("baseline.json");
+        assertFalse(JsonReport.readBaseline(baselineFile, new SystemStreamLog()).isPresent());
+
+        JsonReport.write(baselineFile, Collections.singletonMap("image", Collections.singletonMap("median", 100)));
+        Optional<Map<?, ?>> baseline = JsonReport.readBaseline(baselineFile, new SystemStreamLog());
+        assertEquals(Collections.singletonMap("image", Collections.singletonMap("median", 100.0)), baseline.get());
+    }
+
+    @Test
+    public void testInvalidBaseline() throws Exception {
+        Path baselineFile = tempDir.resolve("baseline.json");
+        Files.write(baselineFile, "[]".getBytes(StandardCharsets.UTF_8));
+        assertThrows(MojoExecutionException.class, () -> JsonReport.readBaseline(baselineFile,
+                new SystemStreamLog()));
+
+        Files.write(baselineFile, "{".getBytes(StandardCharsets.UTF_8));
+        assertThrows(MojoExecutionException.class, () -> JsonReport.readBaseline(baselineFile,
+                new SystemStreamLog()));
+    }
+}
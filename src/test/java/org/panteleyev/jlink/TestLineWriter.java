@@ -0,0 +1,60 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestLineWriter {
+
+    private static List<Arguments> dataProvider() {
+        return Arrays.asList(
+                Arguments.of(Collections.emptyList(), Collections.emptyList()),
+                Arguments.of(Collections.singletonList("line"), Collections.singletonList("line")),
+                Arguments.of(Collections.singletonList("first\nsecond\n"), Arrays.asList("first", "second")),
+                Arguments.of(Collections.singletonList("first\r\nsecond\r\n"), Arrays.asList("first", "second")),
+                Arguments.of(Arrays.asList("fi", "rst\nsec", "ond"), Arrays.asList("first", "second")),
+                Arguments.of(Arrays.asList("first\r", "\nsecond"), Arrays.asList("first", "second")),
+                Arguments.of(Collections.singletonList("\n\nlast"), Arrays.asList("", "", "last"))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("dataProvider")
+    public void testLines(List<String> chunks, List<String> expected) {
+        List<String> lines = new ArrayList<>();
+        LineWriter writer = new LineWriter(lines::add);
+        for (String chunk : chunks) {
+            writer.write(chunk.toCharArray(), 0, chunk.length());
+        }
+        writer.close();
+        assertEquals(expected, lines);
+    }
+
+    private static List<Arguments> partialDataProvider() {
+        return Arrays.asList(
+                Arguments.of("incomplete", Collections.emptyList()),
+                Arguments.of("complete\nincomplete", Collections.singletonList("complete"))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("partialDataProvider")
+    public void testIncompleteLineIsNotEmittedBeforeClose(String text, List<String> expected) {
+        List<String> lines = new ArrayList<>();
+        LineWriter writer = new LineWriter(lines::add);
+        writer.write(text.toCharArray(), 0, text.length());
+        writer.flush();
+        assertEquals(expected, lines);
+    }
+}
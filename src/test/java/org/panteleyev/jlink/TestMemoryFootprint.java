@@ -0,0 +1,104 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestMemoryFootprint {
+    private static final List<String> JDK17_SUMMARY = Arrays.asList(
+            "17697:",
+            "",
+            "Native Memory Tracking:",
+            "",
+            "Total: reserved=2942751KB, committed=133307KB",
+            "       malloc: 7127KB #62640",
+            "",
+            "-                 Java Heap (reserved=1538048KB, committed=96256KB)",
+            "                            (mmap: reserved=1538048KB, committed=96256KB) ",
+            "-                     Class (reserved=1048784KB, committed=1360KB)",
+            "                            (classes #2507)",
+            "                            (  instance classes #2255, array classes #252)",
+            "-                    Thread (reserved=14375KB, committed=839KB)",
+            "                            (thread #14)",
+            "-                      Code (reserved=247873KB, committed=7733KB)",
+            "-        Shared class space (reserved=16384KB, committed=12056KB)",
+            "-                 Metaspace (reserved=65565KB, committed=8029KB)"
+    );
+
+    private static final List<String> JDK8_SUMMARY = Arrays.asList(
+            "Native Memory Tracking:",
+            "Total: reserved=2861830KB, committed=116382KB",
+            "-                 Java Heap (reserved=1538048KB, committed=96256KB)",
+            "-                     Class (reserved=1056895KB, committed=4991KB)",
+            "                            (classes #406)",
+            "-                    Thread (reserved=10284KB, committed=10284KB)",
+            "                            (thread #11)",
+            "-                      Code (reserved=249631KB, committed=2567KB)"
+    );
+
+    @Test
+    public void testParse() {
+        MemoryFootprint footprint = MemoryFootprint.parse(JDK17_SUMMARY);
+        footprint.setRss(75136L * 1024);
+
+        Map<String, Long> expected = new LinkedHashMap<>();
+        expected.put(MemoryFootprint.RSS, 75136L * 1024);
+        expected.put(MemoryFootprint.COMMITTED, 133307L * 1024);
+        expected.put(MemoryFootprint.HEAP, 96256L * 1024);
+        expected.put(MemoryFootprint.METASPACE, 8029L * 1024);
+        expected.put(MemoryFootprint.CODE_CACHE, 7733L * 1024);
+        expected.put(MemoryFootprint.CLASSES, 2507L);
+        expected.put(MemoryFootprint.THREADS, 14L);
+        assertEquals(expected, footprint.getValues());
+    }
+
+    @Test
+    public void testParseWithoutMetaspaceCategory() {
+        MemoryFootprint footprint = MemoryFootprint.parse(JDK8_SUMMARY);
+        assertEquals(4991L * 1024, footprint.getValues().get(MemoryFootprint.METASPACE));
+        assertEquals(406L, footprint.getValues().get(MemoryFootprint.CLASSES));
+    }
+
+    @Test
+    public void testNoSummary() {
+        assertThrows(IllegalArgumentException.class, () -> MemoryFootprint.parse(
+                Collections.singletonList("Native memory tracking is not enabled")));
+    }
+
+    @Test
+    public void testBudgetsAndBaseline() {
+        MemoryFootprint footprint = MemoryFootprint.parse(JDK8_SUMMARY);
+
+        Map<String, Long> budgets = new LinkedHashMap<>();
+        budgets.put(MemoryFootprint.HEAP, 64L * 1024 * 1024);
+        budgets.put(MemoryFootprint.CLASSES, 500L);
+        budgets.put(MemoryFootprint.RSS, 1L);
+        assertEquals(Collections.singletonList("heap 94.0 MB exceeds budget 64.0 MB"),
+                footprint.checkBudgets(budgets));
+
+        Map<String, Object> baseline = new LinkedHashMap<>();
+        baseline.put(MemoryFootprint.CLASSES, 400.0);
+        baseline.put(MemoryFootprint.THREADS, 11.0);
+        Map<String, Double> changes = footprint.compare(baseline);
+        assertEquals(2, changes.size());
+        assertEquals(1.5, changes.get(MemoryFootprint.CLASSES), 1e-9);
+        assertEquals(0.0, changes.get(MemoryFootprint.THREADS), 1e-9);
+    }
+
+    @Test
+    public void testParseKilobytes() {
+        assertEquals(75136L * 1024, MemoryProfiler.parseKilobytes("\t   75136 kB"));
+        assertEquals(2048, MemoryProfiler.parseKilobytes(" 2"));
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestModuleGraph {
+    @Test
+    public void testRootsOfExplicitModules() {
+        ModuleInfo app = module("app", "lib", "java.logging");
+        ModuleInfo lib = module("lib", "java.sql");
+        ModuleInfo plugin = module("plugin", "lib");
+
+        ModuleGraph graph = new ModuleGraph(Arrays.asList(app, lib, plugin), systemModules());
+        assertEquals(new TreeSet<>(Arrays.asList("app", "plugin")), graph.minimalRoots());
+    }
+
+    @Test
+    public void testRootsOfAutomaticModules() {
+        ModuleInfo app = module("app", "java.logging");
+        ModuleInfo legacy = new ModuleInfo("legacy");
+        legacy.setAutomatic(true);
+        legacy.getPackages().add("org.legacy");
+        legacy.getReferencedPackages().addAll(Arrays.asList("java.sql", "java.util.logging", "org.unknown"));
+
+        ModuleGraph graph = new ModuleGraph(Arrays.asList(app, legacy), systemModules());
+        // java.logging is already required by app
+        assertEquals(new TreeSet<>(Arrays.asList("app", "java.sql", "legacy")), graph.minimalRoots());
+    }
+
+    @Test
+    public void testStaticRequiresIgnored() {
+        ModuleInfo app = module("app");
+        app.getRequires().add(new ModuleInfo.Requires("lib", false, true));
+        ModuleInfo lib = module("lib");
+
+        ModuleGraph graph = new ModuleGraph(Arrays.asList(app, lib), systemModules());
+        assertEquals(new TreeSet<>(Arrays.asList("app", "lib")), graph.minimalRoots());
+    }
+
+    @Test
+    public void testEmptyModulePath() {
+        ModuleGraph graph = new ModuleGraph(Collections.emptyList(), systemModules());
+        assertEquals(Collections.singleton(ModuleInfo.JAVA_BASE), graph.minimalRoots());
+    }
+
+    @Test
+    public void testResolve() {
+        ModuleInfo app = module("app", "lib", "java.logging");
+        ModuleInfo lib = module("lib", "java.sql");
+
+        ModuleGraph graph = new ModuleGraph(Arrays.asList(app, lib), systemModules());
+        ModuleGraph.Resolution resolution = graph.resolve(Collections.singleton("app"), Collections.emptyList(),
+                false);
+        assertEquals(Collections.emptyList(), resolution.getProblems());
+        assertEquals(new TreeSet<>(Arrays.asList("app", "lib", "java.base", "java.logging", "java.sql")),
+                resolution.getModules());
+    }
+
+    @Test
+    public void testResolveProblems() {
+        ModuleInfo app = module("app", "lib", "missing");
+        ModuleInfo lib = module("lib", "app");
+        lib.getPackages().addAll(Arrays.asList("org.app", "org.common"));
+        ModuleInfo legacy = new ModuleInfo("legacy");
+        legacy.setAutomatic(true);
+
+        ModuleGraph graph = new ModuleGraph(Arrays.asList(app, lib, legacy), systemModules());
+        assertEquals(Arrays.asList(
+                "Module legacy is an automatic module, automatic modules cannot be linked",
+                "Module missing not found, required by app",
+                "Modules app and lib contain the same packages: org.app",
+                "Cyclic module dependency: app -> lib -> app"
+        ), graph.resolve(Arrays.asList("app", "legacy"), Collections.emptyList(), false).getProblems());
+    }
+
+    @Test
+    public void testResolveLimitModules() {
+        ModuleInfo app = module("app", "java.sql");
+        ModuleGraph graph = new ModuleGraph(Collections.singletonList(app), systemModules());
+
+        assertEquals(Arrays.asList(
+                "Module unknown of limitModules not found",
+                "Module java.sql not found, required by app"
+        ), graph.resolve(Collections.singleton("app"), Arrays.asList("java.logging", "unknown"), false)
+                .getProblems());
+    }
+
+    @Test
+    public void testResolveDuplicates() {
+        ModuleInfo first = module("lib");
+        first.setLocation(Paths.get("mods", "lib-1.0.jar"));
+        ModuleInfo second = module("lib");
+        second.setLocation(Paths.get("mods", "lib-2.0.jar"));
+        // Modules in different directories are shadowed
+        ModuleInfo third = module("lib");
+        third.setLocation(Paths.get("other", "lib-3.0.jar"));
+
+        ModuleGraph graph = new ModuleGraph(Arrays.asList(first, second, third), systemModules());
+        List<String> problems = graph.resolve(Collections.singleton("lib"), Collections.emptyList(), false)
+                .getProblems();
+        assertEquals(1, problems.size());
+        assertTrue(problems.get(0).startsWith("Several modules lib found in the same directory"));
+        assertTrue(graph.resolve(Collections.singleton("java.sql"), Collections.emptyList(), false)
+                .getProblems().isEmpty());
+    }
+
+    @Test
+    public void testResolveSplitPackages() {
+        ModuleInfo app = module("app", "first", "api");
+        ModuleInfo first = module("first");
+        first.getPackages().add("org.common");
+        ModuleInfo second = module("second");
+        second.getPackages().add("org.common");
+        // api implies readability of impl
+        ModuleInfo api = module("api");
+        api.getRequires().add(new ModuleInfo.Requires("impl", true, false));
+        ModuleInfo impl = module("impl");
+        impl.getPackages().add("org.app");
+        // Modules that are not read by the same module may contain the same package
+        ModuleInfo tool = module("tool", "second");
+
+        ModuleGraph graph = new ModuleGraph(Arrays.asList(app, first, second, api, impl, tool), systemModules());
+        assertEquals(Collections.singletonList("Modules app and impl contain the same packages: org.app"),
+                graph.resolve(Arrays.asList("app", "tool"), Collections.emptyList(), false).getProblems());
+
+        app.getRequires().add(new ModuleInfo.Requires("second", false, false));
+        assertEquals(Arrays.asList(
+                "Modules app and impl contain the same packages: org.app",
+                "Modules first and second contain the same packages: org.common"
+        ), graph.resolve(Arrays.asList("app", "tool"), Collections.emptyList(), false).getProblems());
+    }
+
+    private static ModuleInfo module(String name, String... requires) {
+        ModuleInfo module = new ModuleInfo(name);
+        module.getPackages().add("org." + name);
+        for (String r : requires) {
+            module.getRequires().add(new ModuleInfo.Requires(r, false, false));
+        }
+        return module;
+    }
+
+    private static List<ModuleInfo> systemModules() {
+        ModuleInfo base = new ModuleInfo(ModuleInfo.JAVA_BASE);
+        base.getPackages().addAll(Arrays.asList("java.lang", "java.util"));
+        ModuleInfo logging = module("java.logging");
+        logging.getPackages().add("java.util.logging");
+        ModuleInfo sql = module("java.sql", "java.logging");
+        sql.getPackages().add("java.sql");
+        return Arrays.asList(base, logging, sql);
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestModuleInfoSynthesizer {
+    @TempDir
+    Path tempDir;
+
+    @SuppressWarnings("unused")
+    static final class ServiceUser {
+        private Connection connection;
+
+        Iterable<Runnable> load() {
+            return ServiceLoader.load(Runnable.class);
+        }
+
+        Class<?> notService() {
+            return String.class;
+        }
+    }
+
+    @Test
+    public void testWriteModuleInfo() throws Exception {
+        ModuleInfo info = new ModuleInfo("org.example.lib");
+        info.setVersion("1.2.3");
+        info.setMainClass("org.example.lib.Main");
+        info.getRequires().add(new ModuleInfo.Requires("java.sql", true, false));
+        info.getRequires().add(new ModuleInfo.Requires("org.example.annotations", false, true));
+        info.getPackages().addAll(Arrays.asList("org.example.lib", "org.example.lib.spi"));
+        info.getUses().add("org.example.lib.spi.Plugin");
+        info.getProvides().put("org.example.lib.spi.Plugin",
+                Arrays.asList("org.example.lib.DefaultPlugin", "org.example.lib.Outer$Nested"));
+
+        ModuleInfo result = ClassFileReader.readModuleInfo(ClassFileWriter.writeModuleInfo(info, true));
+
+        assertEquals(info.getName(), result.getName());
+        assertEquals(info.getVersion(), result.getVersion());
+        assertEquals(info.getMainClass(), result.getMainClass());
+        assertEquals(info.getPackages(), result.getPackages());
+        assertEquals(info.getUses(), result.getUses());
+        assertEquals(info.getProvides(), result.getProvides());
+
+        List<ModuleInfo.Requires> requires = result.getRequires();
+        assertEquals(3, requires.size());
+        assertEquals(ModuleInfo.JAVA_BASE, requires.get(0).getName());
+        assertEquals("java.sql", requires.get(1).getName());
+        assertTrue(requires.get(1).isTransitive());
+        assertFalse(requires.get(1).isStatic());
+        assertEquals("org.example.annotations", requires.get(2).getName());
+        assertTrue(requires.get(2).isStatic());
+    }
+
+    @Test
+    public void testLoadedServices() throws Exception {
+        Set<String> packages = new HashSet<>();
+        Set<String> services = new HashSet<>();
+        ClassFileReader.addReferencedPackages(classBytes(ServiceUser.class), packages, services);
+
+        assertTrue(packages.contains("java.sql"));
+        assertEquals(Collections.singleton("java.lang.Runnable"), services);
+    }
+
+    @Test
+    public void testDescribe() {
+        ModuleInfo legacy = new ModuleInfo("legacy");
+        legacy.setAutomatic(true);
+        legacy.setVersion("2.0");
+        legacy.getPackages().addAll(Arrays.asList("org.legacy", "org.legacy.spi"));
+        legacy.getReferencedPackages().addAll(Arrays.asList("java.lang", "java.sql", "org.lib", "org.unknown"));
+        legacy.getUses().addAll(Arrays.asList("java.lang.Runnable", "org.unknown.Service"));
+
+        ModuleInfo lib = new ModuleInfo("lib");
+        lib.getPackages().add("org.lib");
+        ModuleInfo plugin = new ModuleInfo("plugin");
+        plugin.getPackages().add("org.plugin");
+        plugin.getProvides().put("org.legacy.spi.Plugin", Collections.singletonList("org.plugin.Impl"));
+
+        ModuleGraph graph = new ModuleGraph(Arrays.asList(legacy, lib, plugin), systemModules());
+        ModuleInfo result = ModuleInfoSynthesizer.describe(legacy, graph);
+
+        assertEquals("legacy", result.getName());
+        assertEquals("2.0", result.getVersion());
+        assertFalse(result.isAutomatic());
+        Set<String> requires = new TreeSet<>();
+        for (ModuleInfo.Requires r : result.getRequires()) {
+            assertTrue(r.isTransitive());
+            requires.add(r.getName());
+        }
+        assertEquals(new TreeSet<>(Arrays.asList("java.sql", "lib")), requires);
+        assertEquals(new TreeSet<>(Arrays.asList("java.lang.Runnable", "org.legacy.spi.Plugin")),
+                result.getUses());
+    }
+
+    @Test
+    public void testCandidates() throws Exception {
+        ModuleInfo valid = automatic("valid", "org.valid");
+        ModuleInfo invalid = automatic("invalid", "org.invalid.enum");
+        ModuleInfo split = automatic("split", "org.valid");
+        ModuleInfo first = automatic("first", "org.first");
+        first.getReferencedPackages().add("org.second");
+        ModuleInfo second = automatic("second", "org.second");
+        second.getReferencedPackages().add("org.first");
+
+        ModuleGraph graph = new ModuleGraph(Arrays.asList(valid, invalid, split, first, second), systemModules());
+        assertEquals(Collections.singletonList(valid), ModuleInfoSynthesizer.candidates(graph, new SystemStreamLog()));
+    }
+
+    @Test
+    public void testIsValidName() {
+        assertTrue(ModuleInfoSynthesizer.isValidName("org.example.v2"));
+        assertFalse(ModuleInfoSynthesizer.isValidName("org.example.enum"));
+        assertFalse(ModuleInfoSynthesizer.isValidName("org.2example"));
+        assertFalse(ModuleInfoSynthesizer.isValidName("org..example"));
+    }
+
+    @Test
+    public void testSynthesize() throws Exception {
+        Path modules = Files.createDirectories(tempDir.resolve("modules"));
+        Path jar = modules.resolve("service-user-1.0.jar");
+        createJar(jar);
+
+        FileHashIndex index = new FileHashIndex();
+        ModulePathScanner scanner = new ModulePathScanner(null, index, new SystemStreamLog());
+        ModuleGraph graph = new ModuleGraph(scanner.scan(Collections.singletonList(modules)), systemModules());
+        List<ModuleInfo> candidates = ModuleInfoSynthesizer.candidates(graph, new SystemStreamLog());
+        assertEquals(1, candidates.size());
+
+        ModuleInfoSynthesizer synthesizer = new ModuleInfoSynthesizer(tempDir.resolve("cache"), index,
+                new SystemStreamLog());
+        List<Path> result = synthesizer.synthesize(candidates, graph, 2);
+        assertEquals(1, result.size());
+        assertEquals(1, synthesizer.getCreated());
+        assertEquals(jar.getFileName(), result.get(0).getFileName());
+
+        try (JarFile jarFile = new JarFile(result.get(0).toFile())) {
+            assertNotNull(jarFile.getManifest());
+            assertNull(jarFile.getEntry("META-INF/SIGNER.SF"));
+            ZipEntry entry = jarFile.getEntry("module-info.class");
+            assertNotNull(entry);
+            byte[] bytes = new byte[(int) entry.getSize()];
+            try (InputStream in = jarFile.getInputStream(entry)) {
+                int offset = 0;
+                while (offset < bytes.length) {
+                    offset += in.read(bytes, offset, bytes.length - offset);
+                }
+            }
+            ModuleInfo info = ClassFileReader.readModuleInfo(bytes);
+            assertEquals("service.user", info.getName());
+            assertEquals("1.0", info.getVersion());
+            assertEquals(Collections.singleton("java.lang.Runnable"), info.getUses());
+            assertEquals(Collections.singleton("org.panteleyev.jlink"), info.getPackages());
+        }
+
+        // Second conversion is taken from the cache
+        synthesizer = new ModuleInfoSynthesizer(tempDir.resolve("cache"), index, new SystemStreamLog());
+        assertEquals(result, synthesizer.synthesize(candidates, graph, 1));
+        assertEquals(0, synthesizer.getCreated());
+    }
+
+    private ModuleInfo automatic(String name, String packageName) throws Exception {
+        ModuleInfo module = new ModuleInfo(name);
+        module.setAutomatic(true);
+        module.getPackages().add(packageName);
+        module.setLocation(Files.createFile(tempDir.resolve(name + ".jar")));
+        return module;
+    }
+
+    private static List<ModuleInfo> systemModules() {
+        ModuleInfo base = new ModuleInfo(ModuleInfo.JAVA_BASE);
+        base.getPackages().addAll(Arrays.asList("java.lang", "java.util"));
+        ModuleInfo sql = new ModuleInfo("java.sql");
+        sql.getPackages().add("java.sql");
+        return Arrays.asList(base, sql);
+    }
+
+    private static byte[] classBytes(Class<?> type) throws Exception {
+        String name = type.getName().replace('.', '/') + ".class";
+        try (InputStream in = type.getClassLoader().getResourceAsStream(name)) {
+            assertNotNull(in);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static void createJar(Path jar) throws Exception {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        try (OutputStream out = Files.newOutputStream(jar);
+             JarOutputStream jarOut = new JarOutputStream(out, manifest)
+        ) {
+            jarOut.putNextEntry(new ZipEntry(ServiceUser.class.getName().replace('.', '/') + ".class"));
+            jarOut.write(classBytes(ServiceUser.class));
+            jarOut.putNextEntry(new ZipEntry("META-INF/SIGNER.SF"));
+            jarOut.write(new byte[]{1, 2, 3});
+        }
+    }
+}
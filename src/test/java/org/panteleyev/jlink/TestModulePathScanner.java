@@ -0,0 +1,140 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestModulePathScanner {
+    @TempDir
+    Path tempDir;
+
+    @SuppressWarnings("unused")
+    private Connection connection;
+
+    private static List<Arguments> nameDataProvider() {
+        return Arrays.asList(
+                Arguments.of("foo-bar", "foo.bar"),
+                Arguments.of("foo_bar..baz", "foo.bar.baz"),
+                Arguments.of("-foo-", "foo"),
+                Arguments.of("commons2", "commons2")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("nameDataProvider")
+    public void testAutomaticModuleName(String baseName, String expected) {
+        assertEquals(expected, ModulePathScanner.automaticModuleName(baseName));
+    }
+
+    @Test
+    public void testAutomaticModule() throws Exception {
+        Path modules = Files.createDirectories(tempDir.resolve("modules"));
+        createJar(modules.resolve("legacy-utils-2.3.1.jar"), null);
+
+        ModulePathScanner scanner = new ModulePathScanner(null, new FileHashIndex(), new SystemStreamLog());
+        List<ModuleInfo> result = scanner.scan(Collections.singletonList(modules));
+
+        assertEquals(1, result.size());
+        ModuleInfo info = result.get(0);
+        assertEquals("legacy.utils", info.getName());
+        assertEquals("2.3.1", info.getVersion());
+        assertTrue(info.isAutomatic());
+        assertTrue(info.getPackages().contains("org.panteleyev.jlink"));
+        assertTrue(info.getReferencedPackages().contains("java.sql"));
+        assertFalse(info.getReferencedPackages().contains("org.panteleyev.jlink"));
+        assertEquals(Collections.singletonList("org.example.Impl"), info.getProvides().get("org.example.Service"));
+    }
+
+    @Test
+    public void testAutomaticModuleNameFromManifest() throws Exception {
+        Path jar = tempDir.resolve("legacy.jar");
+        createJar(jar, "org.legacy");
+
+        ModulePathScanner scanner = new ModulePathScanner(null, new FileHashIndex(), new SystemStreamLog());
+        assertEquals("org.legacy", scanner.scan(Collections.singletonList(jar)).get(0).getName());
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        Path jar = tempDir.resolve("legacy.jar");
+        createJar(jar, null);
+        Path cacheDirectory = tempDir.resolve("cache");
+
+        ModulePathScanner scanner = new ModulePathScanner(cacheDirectory, new FileHashIndex(),
+                new SystemStreamLog());
+        ModuleInfo first = scanner.scan(Collections.singletonList(jar)).get(0);
+        ModuleInfo second = scanner.scan(Collections.singletonList(jar)).get(0);
+
+        assertEquals(1, scanner.getScanned());
+        assertEquals(1, scanner.getCached());
+        assertEquals(first.getName(), second.getName());
+        assertEquals(first.getPackages(), second.getPackages());
+        assertEquals(first.getReferencedPackages(), second.getReferencedPackages());
+        assertEquals(first.getProvides(), second.getProvides());
+        assertEquals(jar, second.getLocation());
+    }
+
+    @Test
+    public void testExplodedModule() throws Exception {
+        Path classes = tempDir.resolve("classes");
+        Files.createDirectories(classes.resolve("org/example/impl"));
+        Files.createDirectories(classes.resolve("META-INF/versions/11/org/example/v11"));
+        Files.write(classes.resolve("module-info.class"),
+                ClassFileWriter.writeModuleInfo(new ModuleInfo("org.example"), false));
+        Files.write(classes.resolve("org/example/impl/Impl.class"), new byte[0]);
+        Files.write(classes.resolve("META-INF/versions/11/org/example/v11/Impl.class"), new byte[0]);
+
+        ModuleInfo info = ModulePathScanner.readExplodedModule(classes);
+        assertEquals("org.example", info.getName());
+        assertEquals(Collections.singleton("org.example.impl"), info.getPackages());
+        assertEquals(classes, info.getLocation());
+    }
+
+    private static void createJar(Path jar, String automaticModuleName) throws Exception {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (automaticModuleName != null) {
+            manifest.getMainAttributes().putValue("Automatic-Module-Name", automaticModuleName);
+        }
+
+        String className = TestModulePathScanner.class.getName().replace('.', '/') + ".class";
+        try (OutputStream out = Files.newOutputStream(jar);
+             JarOutputStream jarOut = new JarOutputStream(out, manifest);
+             InputStream in = TestModulePathScanner.class.getClassLoader().getResourceAsStream(className)
+        ) {
+            jarOut.putNextEntry(new ZipEntry(className));
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                jarOut.write(buffer, 0, n);
+            }
+            jarOut.putNextEntry(new ZipEntry("META-INF/services/org.example.Service"));
+            jarOut.write("# comment\norg.example.Impl\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
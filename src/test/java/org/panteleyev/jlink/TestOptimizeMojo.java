@@ -0,0 +1,49 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestOptimizeMojo {
+    @Test
+    public void testParetoOptimal() {
+        List<OptimizeMojo.Variant> variants = Arrays.asList(
+                variant("large-fast", 100, 200),
+                variant("large-slow", 100, 300),
+                variant("medium", 60, 250),
+                variant("small-slow", 40, 400),
+                variant("medium-slow", 60, 260)
+        );
+
+        List<String> pareto = OptimizeMojo.paretoOptimal(variants).stream()
+                .map(OptimizeMojo.Variant::getName)
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList("small-slow", "medium", "large-fast"), pareto);
+    }
+
+    @Test
+    public void testRecommend() {
+        List<OptimizeMojo.Variant> pareto = OptimizeMojo.paretoOptimal(Arrays.asList(
+                variant("large-fast", 100, 200),
+                variant("medium", 60, 210),
+                variant("small-slow", 40, 600)
+        ));
+        assertEquals("medium", OptimizeMojo.recommend(pareto).getName());
+    }
+
+    private static OptimizeMojo.Variant variant(String name, long size, double startup) {
+        OptimizeMojo.Variant variant = new OptimizeMojo.Variant(name, null, StripMode.NONE);
+        variant.size = size;
+        variant.startup = new StartupTimer.Statistics(Collections.singletonList(startup));
+        return variant;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.panteleyev.jlink.OsUtil.isWindows;
+
+public class TestProcessRunner {
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    public void testStreams() throws Exception {
+        List<String> out = new CopyOnWriteArrayList<>();
+        List<String> err = new CopyOnWriteArrayList<>();
+        int exitCode = new ProcessRunner(Arrays.asList("sh", "-c",
+                "echo first; echo error >&2; echo \"$VALUE\"; exit 3"))
+                .environment("VALUE", "second")
+                .out(out::add)
+                .err(err::add)
+                .run();
+        assertEquals(3, exitCode);
+        assertEquals(Arrays.asList("first", "second"), out);
+        assertEquals(Collections.singletonList("error"), err);
+    }
+
+    @Test
+    public void testJavaVersion() throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", isWindows() ? "java.exe" : "java").toString();
+        List<String> err = new CopyOnWriteArrayList<>();
+        int exitCode = new ProcessRunner(Arrays.asList(java, "-version"))
+                .err(err::add)
+                .run();
+        assertEquals(0, exitCode);
+        assertTrue(err.stream().anyMatch(line -> line.contains("version")), err.toString());
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    public void testTimeout() throws Exception {
+        ProcessRunner runner = new ProcessRunner(Arrays.asList("sh", "-c", "sleep 60"))
+                .timeout(200, TimeUnit.MILLISECONDS);
+        Process process = runner.start();
+        long start = System.currentTimeMillis();
+        assertThrows(TimeoutException.class, () -> runner.waitFor(process));
+        assertTrue(System.currentTimeMillis() - start < 30_000);
+        assertTrue(process.waitFor(10, TimeUnit.SECONDS));
+        assertFalse(process.isAlive());
+    }
+}
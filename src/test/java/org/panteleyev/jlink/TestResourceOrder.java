@@ -0,0 +1,64 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestResourceOrder {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testParseClassLoadLog() {
+        assertEquals(Arrays.asList(
+                "java/lang/Object",
+                "java/lang/String",
+                "com/example/App",
+                "com/example/App$Inner"
+        ), ResourceOrder.parseClassLoadLog(Arrays.asList(
+                "java.lang.Object source: shared objects file",
+                "java.lang.String source: shared objects file (top)",
+                "com.example.App source: jrt:/com.example.app",
+                "com.example.App$$Lambda/0x0000000800c03000 source: com.example.App",
+                "java.lang.invoke.LambdaForm$MH/0x0000000800c04400 source: __JVM_LambdaForm__",
+                "jdk.proxy1.$Proxy0 source: __dynamic_proxy__",
+                "com.example.Plugin source: file:/tmp/plugins/plugin.jar",
+                "com.example.App$Inner source: jrt:/com.example.app",
+                "java.lang.Object source: jrt:/java.base",
+                "",
+                "unexpected line"
+        )));
+    }
+
+    @Test
+    public void testIsCurrent() throws Exception {
+        Path output = tempDir.resolve("image");
+        Path orderFile = ResourceOrder.orderFile(output);
+        assertEquals(tempDir.resolve("image.jlink-order"), orderFile);
+        assertFalse(ResourceOrder.isCurrent(orderFile, "abc"));
+
+        Files.write(orderFile, Arrays.asList("# fingerprint abc", "java/lang/Object"), StandardCharsets.UTF_8);
+        assertTrue(ResourceOrder.isCurrent(orderFile, "abc"));
+        assertFalse(ResourceOrder.isCurrent(orderFile, "abd"));
+
+        assertEquals("**module-info.class,@" + orderFile.toAbsolutePath(), ResourceOrder.optionValue(orderFile));
+    }
+
+    @Test
+    public void testCachedOrderFile() {
+        Path cacheDirectory = tempDir.resolve("cache").resolve("order");
+        assertEquals(cacheDirectory.resolve("abc.jlink-order"), ResourceOrder.orderFile(cacheDirectory, "abc"));
+    }
+}
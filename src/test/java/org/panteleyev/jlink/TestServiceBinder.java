@@ -0,0 +1,104 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestServiceBinder {
+    private static final String DRIVER = "java.sql.Driver";
+    private static final String CHARSETS = "java.nio.charset.spi.CharsetProvider";
+    private static final String NAMING = "javax.naming.spi.InitialContextFactory";
+
+    @Test
+    public void testResolve() {
+        ServiceBinder binder = new ServiceBinder(graph(), Collections.emptyList());
+
+        assertEquals(set("app", "java.base", "java.sql", "java.logging"),
+                binder.resolve(Collections.singleton("app"), s -> false).getModules());
+
+        ServiceBinder.Resolution full = binder.resolve(Collections.singleton("app"), s -> true);
+        // Service used by the bound provider is bound too
+        assertEquals(set("app", "java.base", "java.sql", "java.logging", "driver", "jdk.charsets", "jdk.naming",
+                "jdk.naming.dns"), full.getModules());
+        assertEquals(set("driver"), full.getBindings().get(DRIVER));
+        assertEquals(set("jdk.charsets"), full.getBindings().get(CHARSETS));
+        assertEquals(set("jdk.naming.dns"), full.getBindings().get(NAMING));
+    }
+
+    @Test
+    public void testContributions() {
+        ServiceBinder binder = new ServiceBinder(graph(), Collections.emptyList());
+
+        Map<String, Set<String>> expected = new LinkedHashMap<>();
+        expected.put(CHARSETS, set("jdk.charsets"));
+        expected.put(DRIVER, set("driver", "jdk.naming", "jdk.naming.dns"));
+        expected.put(NAMING, set("jdk.naming.dns"));
+        assertEquals(expected, binder.contributions(Collections.singleton("app")));
+    }
+
+    @Test
+    public void testRoots() {
+        ServiceBinder binder = new ServiceBinder(graph(), Collections.emptyList());
+
+        assertEquals(set("app", "driver"), binder.roots(Collections.singleton("app"), Collections.singleton(DRIVER)));
+        assertEquals(set("app"), binder.roots(Collections.singleton("app"), Collections.emptySet()));
+    }
+
+    @Test
+    public void testLimitModules() {
+        ServiceBinder binder = new ServiceBinder(graph(), Arrays.asList("app", "jdk.charsets"));
+
+        assertEquals(set("app", "java.base", "java.sql", "java.logging", "jdk.charsets"),
+                binder.resolve(Collections.singleton("app"), s -> true).getModules());
+    }
+
+    private static ModuleGraph graph() {
+        ModuleInfo app = module("app", "java.sql");
+        ModuleInfo driver = module("driver", "java.sql", "jdk.naming");
+        driver.getProvides().put(DRIVER, Collections.singletonList("org.driver.Driver"));
+        // Automatic modules do not trigger binding
+        ModuleInfo legacy = module("legacy");
+        legacy.setAutomatic(true);
+        legacy.getUses().add("org.legacy.Plugin");
+        ModuleInfo plugin = module("plugin");
+        plugin.getProvides().put("org.legacy.Plugin", Collections.singletonList("org.plugin.Plugin"));
+
+        ModuleInfo base = module(ModuleInfo.JAVA_BASE);
+        base.getUses().add(CHARSETS);
+        ModuleInfo sql = module("java.sql", "java.logging");
+        sql.getUses().add(DRIVER);
+        ModuleInfo charsets = module("jdk.charsets");
+        charsets.getProvides().put(CHARSETS, Collections.singletonList("sun.nio.cs.ext.ExtendedCharsets"));
+        ModuleInfo naming = module("jdk.naming");
+        naming.getUses().add(NAMING);
+        ModuleInfo dns = module("jdk.naming.dns", "jdk.naming");
+        dns.getProvides().put(NAMING, Collections.singletonList("com.sun.jndi.dns.DnsContextFactory"));
+        List<ModuleInfo> system = Arrays.asList(base, module("java.logging"), sql, charsets, naming, dns);
+        return new ModuleGraph(Arrays.asList(app, driver, legacy, plugin), system);
+    }
+
+    private static ModuleInfo module(String name, String... requires) {
+        ModuleInfo module = new ModuleInfo(name);
+        module.getPackages().add("org." + name);
+        for (String r : requires) {
+            module.getRequires().add(new ModuleInfo.Requires(r, false, false));
+        }
+        return module;
+    }
+
+    private static Set<String> set(String... names) {
+        return new TreeSet<>(Arrays.asList(names));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TestSessionCache {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testInvalidation() throws Exception {
+        SessionCache cache = new SessionCache(10);
+        Path file = write("a.txt", "first");
+        AtomicInteger loads = new AtomicInteger();
+        SessionCache.Loader<String> loader = () -> {
+            loads.incrementAndGet();
+            return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        };
+
+        assertEquals("first", cache.get("content", file, loader));
+        assertEquals("first", cache.get("content", file, loader));
+        assertEquals(1, loads.get());
+        // Different kind of value of the same file
+        assertEquals("first", cache.get("other", file, loader));
+        assertEquals(2, loads.get());
+
+        write("a.txt", "second");
+        assertEquals("second", cache.get("content", file, loader));
+        assertEquals(3, loads.get());
+        assertEquals(1L, cache.statistics().get("hits"));
+        assertEquals(3L, cache.statistics().get("misses"));
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        SessionCache cache = new SessionCache(2);
+        Path a = write("a.txt", "a");
+        Path b = write("b.txt", "b");
+        Path c = write("c.txt", "c");
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("k", a, loads::incrementAndGet);
+        cache.get("k", b, loads::incrementAndGet);
+        // a is used recently, b is evicted
+        cache.get("k", a, loads::incrementAndGet);
+        cache.get("k", c, loads::incrementAndGet);
+        assertEquals(2, cache.size());
+        assertEquals(3, loads.get());
+
+        assertEquals(1, cache.get("k", a, loads::incrementAndGet));
+        assertEquals(4, cache.get("k", b, loads::incrementAndGet));
+        assertEquals(2L, cache.statistics().get("evictions"));
+
+        cache.setMaxEntries(0);
+        assertEquals(0, cache.size());
+        cache.get("k", a, loads::incrementAndGet);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testGetPath() throws Exception {
+        SessionCache cache = new SessionCache(10);
+        Path executable = write("jlink", "binary");
+        AtomicInteger loads = new AtomicInteger();
+        SessionCache.Loader<String> loader = () -> {
+            loads.incrementAndGet();
+            return Files.exists(executable) ? executable.toString() : null;
+        };
+
+        assertEquals(executable.toString(), cache.getPath("jdk", loader));
+        assertEquals(executable.toString(), cache.getPath("jdk", loader));
+        assertEquals(1, loads.get());
+
+        Files.delete(executable);
+        assertNull(cache.getPath("jdk", loader));
+        assertEquals(2, loads.get());
+    }
+
+    private Path write(String name, String content) throws Exception {
+        return Files.write(tempDir.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestStartupTimer {
+    @Test
+    public void testStatistics() {
+        StartupTimer.Statistics statistics = new StartupTimer.Statistics(
+                Arrays.asList(10.0, 1.0, 9.0, 2.0, 8.0, 3.0, 7.0, 4.0, 6.0, 5.0));
+        assertEquals(1.0, statistics.getMin());
+        assertEquals(5.5, statistics.getMedian());
+        assertEquals(9.0, statistics.getP90());
+        assertEquals(10.0, statistics.getMax());
+    }
+
+    @Test
+    public void testOddMedian() {
+        StartupTimer.Statistics statistics = new StartupTimer.Statistics(Arrays.asList(3.0, 1.0, 2.0));
+        assertEquals(2.0, statistics.getMedian());
+        assertEquals(3.0, statistics.getP90());
+    }
+
+    private static List<Arguments> medianDataProvider() {
+        return Arrays.asList(
+                Arguments.of(Collections.singletonList(7.0), 7.0),
+                Arguments.of(Arrays.asList(4.0, 2.0), 3.0),
+                Arguments.of(Arrays.asList(5.0, 1.0, 4.0, 2.0, 3.0), 3.0),
+                Arguments.of(Arrays.asList(6.0, 1.0, 5.0, 2.0, 4.0, 3.0), 3.5)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("medianDataProvider")
+    public void testMedian(List<Double> runs, double expected) {
+        assertEquals(expected, new StartupTimer.Statistics(runs).getMedian());
+    }
+
+    private static List<Arguments> p90DataProvider() {
+        return Arrays.asList(
+                // Nearest rank: ceil(0.9 * n)-th smallest value
+                Arguments.of(1, 1.0),
+                Arguments.of(10, 9.0),
+                Arguments.of(11, 10.0),
+                Arguments.of(20, 18.0)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("p90DataProvider")
+    public void testP90(int count, double expected) {
+        List<Double> runs = new ArrayList<>();
+        for (int i = count; i > 0; i--) {
+            runs.add((double) i);
+        }
+        assertEquals(expected, new StartupTimer.Statistics(runs).getP90());
+    }
+
+    @Test
+    public void testNoRuns() {
+        assertThrows(IllegalArgumentException.class, () -> new StartupTimer.Statistics(Collections.emptyList()));
+    }
+}
@@ -1,5 +1,5 @@
 /*
- Copyright © 2024 Petr Panteleyev <petr@panteleyev.org>
+ Copyright © 2024-2026 Petr Panteleyev <petr@panteleyev.org>
  SPDX-License-Identifier: BSD-2-Clause
  */
 package org.panteleyev.jlink;
@@ -12,8 +12,10 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.panteleyev.jlink.OsUtil.isWindows;
 import static org.panteleyev.jlink.StringUtil.escape;
+import static org.panteleyev.jlink.StringUtil.parseSize;
 
 public class TestStringUtil {
 
@@ -43,4 +45,29 @@ public class TestStringUtil {
     public void testEscape(String arg, String expected) {
         assertEquals(expected, escape(arg));
     }
+
+    private static List<Arguments> sizeDataProvider() {
+        return Arrays.asList(
+                Arguments.of("100", 100L),
+                Arguments.of("2K", 2048L),
+                Arguments.of("512m", 512L * 1024 * 1024),
+                Arguments.of(" 10G ", 10L * 1024 * 1024 * 1024)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("sizeDataProvider")
+    public void testParseSize(String size, long expected) {
+        assertEquals(expected, parseSize(size));
+    }
+
+    private static List<String> invalidSizeDataProvider() {
+        return Arrays.asList("", "G", "10T", "abc");
+    }
+
+    @ParameterizedTest
+    @MethodSource("invalidSizeDataProvider")
+    public void testParseInvalidSize(String size) {
+        assertThrows(IllegalArgumentException.class, () -> parseSize(size));
+    }
 }
@@ -0,0 +1,29 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestTailBuffer {
+    @Test
+    public void testEmpty() {
+        TailBuffer buffer = new TailBuffer(2);
+        assertTrue(buffer.isEmpty());
+        assertEquals("", buffer.toString());
+    }
+
+    @Test
+    public void testKeepsLastLines() {
+        TailBuffer buffer = new TailBuffer(2);
+        buffer.add("1");
+        buffer.add("2");
+        buffer.add("3");
+        buffer.add("4");
+        assertEquals("... 2 lines skipped ...\n3\n4\n", buffer.toString());
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ Copyright © 2026 Petr Panteleyev <petr@panteleyev.org>
+ SPDX-License-Identifier: BSD-2-Clause
+ */
+package org.panteleyev.jlink;
+
+import org.apache.maven.plugin.MojoFailureException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestTrainingRun {
+    private static final String UNIX_SCRIPT = "#!/bin/sh\n"
+            + "JLINK_VM_OPTIONS=\n"
+            + "DIR=`dirname $0`\n"
+            + "$DIR/java $JLINK_VM_OPTIONS -m app/app.Main \"$@\"\n";
+
+    private static final String WINDOWS_SCRIPT = "@echo off\r\n"
+            + "set JLINK_VM_OPTIONS=\r\n"
+            + "set DIR=%~dp0\r\n"
+            + "\"%DIR%\\java\" %JLINK_VM_OPTIONS% -m app/app.Main %*\r\n";
+
+    @Test
+    public void testPatchUnixScript() {
+        String patched = TrainingRun.patchScript(UNIX_SCRIPT, "-XX:SharedArchiveFile=", "lib/app.jsa", false);
+        assertEquals("#!/bin/sh\n"
+                + "JLINK_VM_OPTIONS=\n"
+                + "DIR=`dirname $0`\n"
+                + "JLINK_VM_OPTIONS=\"$JLINK_VM_OPTIONS -XX:SharedArchiveFile=$DIR/../lib/app.jsa\"\n"
+                + "$DIR/java $JLINK_VM_OPTIONS -m app/app.Main \"$@\"\n", patched);
+        // Already patched
+        assertEquals(patched, TrainingRun.patchScript(patched, "-XX:SharedArchiveFile=", "lib/app.jsa", false));
+    }
+
+    @Test
+    public void testPatchWindowsScript() {
+        String patched = TrainingRun.patchScript(WINDOWS_SCRIPT, "-XX:AOTCache=", "lib/app.aot", true);
+        assertEquals("@echo off\r\n"
+                + "set JLINK_VM_OPTIONS=\r\n"
+                + "set DIR=%~dp0\r\n"
+                + "set JLINK_VM_OPTIONS=%JLINK_VM_OPTIONS% -XX:AOTCache=\"%DIR%..\\lib\\app.aot\"\r\n"
+                + "\"%DIR%\\java\" %JLINK_VM_OPTIONS% -m app/app.Main %*\r\n", patched);
+    }
+
+    @Test
+    public void testUnknownScript() {
+        assertNull(TrainingRun.patchScript("#!/bin/sh\nexec java\n", "-XX:AOTCache=", "lib/app.aot", false));
+    }
+
+    @Test
+    public void testToJavaOptions() {
+        assertEquals("", TrainingRun.toJavaOptions(Collections.emptyList()));
+        assertEquals("-XX:AOTMode=record \"-XX:AOTConfiguration=/my app/lib/app.aotconf\" "
+                        + "'-Xlog:class+load=info:file=\"C:\\my app\\class.log\":none'",
+                TrainingRun.toJavaOptions(Arrays.asList("-XX:AOTMode=record",
+                        "-XX:AOTConfiguration=/my app/lib/app.aotconf",
+                        "-Xlog:class+load=info:file=\"C:\\my app\\class.log\":none")));
+    }
+
+    @Test
+    public void testResolveMode() throws Exception {
+        assertEquals(TrainingMode.CDS, TrainingRun.resolveMode(TrainingMode.AUTO, 17));
+        assertEquals(TrainingMode.AOT, TrainingRun.resolveMode(TrainingMode.AUTO, 25));
+        assertEquals(TrainingMode.CDS, TrainingRun.resolveMode(TrainingMode.CDS, 25));
+        assertThrows(MojoFailureException.class, () -> TrainingRun.resolveMode(TrainingMode.AOT, 21));
+        assertThrows(MojoFailureException.class, () -> TrainingRun.resolveMode(TrainingMode.AUTO, 11));
+    }
+}